@@ -0,0 +1,87 @@
+package org.phinix.lib.benchmark;
+
+import org.phinix.lib.common.model.room.RoomImpl;
+import org.phinix.lib.server.command.AbstractCommandFactory;
+import org.phinix.lib.server.command.Argument;
+import org.phinix.lib.server.command.ArgumentSchema;
+import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.StatelessCommand;
+import org.phinix.lib.server.service.AbstractServiceRegister;
+import org.phinix.lib.server.service.Service;
+import org.phinix.lib.server.service.services.CommandProcessor;
+import org.phinix.lib.server.service.services.RoomManager;
+
+/**
+ * {@code BenchmarkServices} class registers the services used by the benchmarks: a {@link CommandProcessor} over
+ * {@link BenchmarkCommands}, a {@link RoomManager} and a few plain services, so lookups hit a realistically sized
+ * registry.
+ */
+public final class BenchmarkServices extends AbstractServiceRegister {
+
+    @Override
+    protected int initServices() {
+        registerService(CommandProcessor.class, new CommandProcessor<>(new BenchmarkCommands()));
+        registerService(RoomManager.class, new RoomManager<>(RoomImpl.class, BenchmarkWorker.class));
+        registerService(FirstService.class, new FirstService());
+        registerService(SecondService.class, new SecondService());
+        registerService(ThirdService.class, new ThirdService());
+        return getAmountRegisterService();
+    }
+
+    /**
+     * Plain service filling the registry.
+     */
+    public static final class FirstService implements Service {
+    }
+
+    /**
+     * Plain service filling the registry.
+     */
+    public static final class SecondService implements Service {
+    }
+
+    /**
+     * Plain service filling the registry.
+     */
+    public static final class ThirdService implements Service {
+    }
+
+    /**
+     * {@code BenchmarkCommands} class registers a command doing nothing, a command replying to its worker, a command
+     * with an argument schema and enough other names to size the command table like a real server's.
+     */
+    public static final class BenchmarkCommands extends AbstractCommandFactory<BenchmarkWorker> {
+        @Override
+        protected int initCommands() {
+            registerCommand("/noop", NoopCommand.class);
+            registerCommand("/echo", EchoCommand.class);
+            registerCommand("/room", NoopCommand.class, ArgumentSchema.of(Argument.literal("create"),
+                            Argument.word("roomName"), Argument.integer("maxPlayers", 2), Argument.integer("rounds", 2))
+                    .or(Argument.literal("join"), Argument.word("roomName"))
+                    .or(Argument.literal("leave")));
+            for (String name : new String[]{"/login", "/register", "/users", "/resolve", "/exit"}) {
+                registerCommand(name, NoopCommand.class);
+            }
+            return getAmountRegisteredCommands();
+        }
+    }
+
+    /**
+     * Command doing nothing, to measure the dispatch alone. Stateless, so a single instance serves every line.
+     */
+    public static final class NoopCommand implements StatelessCommand<BenchmarkWorker> {
+        @Override
+        public void execute(String[] args, BenchmarkWorker worker) {
+        }
+    }
+
+    /**
+     * Command sending its arguments back to the worker. A new instance is created for every line.
+     */
+    public static final class EchoCommand implements Command<BenchmarkWorker> {
+        @Override
+        public void execute(String[] args, BenchmarkWorker worker) {
+            worker.getMessagesManager().sendMessage(String.join(" ", args));
+        }
+    }
+}
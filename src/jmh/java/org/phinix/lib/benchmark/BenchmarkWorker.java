@@ -0,0 +1,64 @@
+package org.phinix.lib.benchmark;
+
+import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.TaskQueue;
+import org.phinix.lib.server.core.worker.AbstractWorker;
+import org.phinix.lib.server.service.AbstractServiceRegister;
+import org.phinix.lib.server.service.services.CommandProcessor;
+
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * {@code BenchmarkWorker} class is a worker owning one side of a loopback connection, without a server around it.
+ * It runs every line it listens to through the {@link CommandProcessor} of its service register.
+ */
+public final class BenchmarkWorker extends AbstractWorker {
+
+    /**
+     * Constructs a new BenchmarkWorker.
+     *
+     * @param socket the socket of the worker
+     * @param serviceRegister the service register holding the command processor
+     * @throws IOException if an I/O error occurs
+     */
+    public BenchmarkWorker(Socket socket, AbstractServiceRegister serviceRegister) throws IOException {
+        super(socket, null, serviceRegister, new NoTaskExecutor());
+    }
+
+    /**
+     * Processes a command line.
+     *
+     * @param line the command line
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void listen(String line) {
+        CommandProcessor<BenchmarkWorker> commandProcessor = getServiceRegister().getService(CommandProcessor.class);
+        commandProcessor.processLine(line, this, unhandled -> {}); // Lines that are not commands get no answer
+    }
+
+    /**
+     * Waits until the peer has received enough of the queued messages for the worker to be writable again, as a
+     * server honouring the write watermarks would.
+     */
+    public void awaitWritable() {
+        while (!getMessagesManager().isWritable()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * {@code NoTaskExecutor} class is a task executor without tasks.
+     */
+    private static final class NoTaskExecutor extends AbstractTaskExecutor<BenchmarkWorker> {
+        private NoTaskExecutor() {
+            super(new TaskQueue<>());
+        }
+
+        @Override
+        protected int initTasks() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.common.socket.MessagesManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out cost of {@link MessagesManager#broadcast(java.util.Collection, String)} at room sizes from 2 to 1000
+ * members, over loopback connections whose peers discard what they receive. After each broadcast the benchmark
+ * waits for the recipients to be writable again, so the queues stay bounded and the write path is part of the
+ * measure.
+ * <p>
+ * The result to compare is the memory allocated per broadcast, {@code gc.alloc.rate.norm}. The message is encoded
+ * once, so it grows by a fixed amount per member, the view of the shared frame and its queue entry and writer,
+ * independent of the message length. Run with
+ * {@code mvn -Pbenchmark verify -Djmh.args="BroadcastBenchmark -prof gc"}; the average time is only a sanity check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+    private static final String MESSAGE = "Player 127.0.0.1 solved the equation in 3.2 seconds"; // Typical room message
+
+    @Param({"2", "16", "128", "512", "1000"})
+    private int roomSize;
+
+    private LoopbackConnections connections;
+    private List<BenchmarkWorker> room;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        connections = new LoopbackConnections(roomSize);
+        connections.drainClientSides();
+
+        BenchmarkServices services = new BenchmarkServices();
+        room = new ArrayList<>(roomSize);
+        for (int i = 0; i < roomSize; i++) {
+            room.add(new BenchmarkWorker(connections.serverSide(i), services));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (BenchmarkWorker worker : room) {
+            worker.getMessagesManager().close();
+        }
+        connections.close();
+    }
+
+    /**
+     * One message sent to every member of the room.
+     */
+    @Benchmark
+    public void broadcast() {
+        MessagesManager.broadcast(room, MESSAGE);
+        for (BenchmarkWorker worker : room) {
+            worker.awaitWritable();
+        }
+    }
+
+    /**
+     * One message sent to every member of the room but its sender.
+     */
+    @Benchmark
+    public void broadcastLess() {
+        MessagesManager.broadcastLess(room, room.get(0), MESSAGE);
+        for (BenchmarkWorker worker : room) {
+            worker.awaitWritable();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.server.command.AbstractCommandFactory;
+import org.phinix.lib.server.command.Command;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link AbstractCommandFactory#createCommand(String)}: the reflective constructor lookup and call it used
+ * before, a command created through its cached factory, and a stateless command returned as a shared instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class CommandFactoryBenchmark {
+    private final BenchmarkServices.BenchmarkCommands commandFactory = new BenchmarkServices.BenchmarkCommands();
+
+    /**
+     * Reflective lookup and call of the constructor, for every line.
+     */
+    @Benchmark
+    public Command<BenchmarkWorker> reflective() throws Exception {
+        return commandFactory.getCommandType("/echo").getConstructor().newInstance();
+    }
+
+    /**
+     * New instance created through the cached factory.
+     */
+    @Benchmark
+    public Command<BenchmarkWorker> cachedFactory() throws Exception {
+        return commandFactory.createCommand("/echo");
+    }
+
+    /**
+     * Shared instance of a stateless command.
+     */
+    @Benchmark
+    public Command<BenchmarkWorker> statelessInstance() throws Exception {
+        return commandFactory.createCommand("/noop");
+    }
+}
@@ -0,0 +1,95 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.server.service.services.CommandProcessor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Dispatch cost of {@link CommandProcessor#processLine(String, org.phinix.lib.server.core.worker.Worker, Consumer)} per
+ * command: parsing the line, building the command and running it, for commands without output, with arguments
+ * checked against a schema, with invalid arguments, unknown, and replying to the client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class CommandProcessorBenchmark {
+    private static final Consumer<String> IGNORE = line -> {}; // Lines that are not commands get no answer
+    private LoopbackConnections connections;
+    private BenchmarkWorker worker;
+    private CommandProcessor<BenchmarkWorker> commandProcessor;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        connections = new LoopbackConnections(1);
+        connections.drainClientSides();
+        BenchmarkServices services = new BenchmarkServices();
+        worker = new BenchmarkWorker(connections.serverSide(0), services);
+        commandProcessor = services.getService(CommandProcessor.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        worker.getMessagesManager().close();
+        connections.close();
+    }
+
+    /**
+     * Command without arguments nor output.
+     */
+    @Benchmark
+    public void noArguments() {
+        commandProcessor.processLine("/noop", worker, IGNORE);
+    }
+
+    /**
+     * Command with several arguments and no output.
+     */
+    @Benchmark
+    public void withArguments() {
+        commandProcessor.processLine("/room create lobby 4 10", worker, IGNORE);
+    }
+
+    /**
+     * Command whose arguments do not match its schema, answered with its help message.
+     */
+    @Benchmark
+    public void invalidArguments() {
+        commandProcessor.processLine("/room create lobby many 10", worker, IGNORE);
+        worker.awaitWritable();
+    }
+
+    /**
+     * Line that is not a registered command.
+     */
+    @Benchmark
+    public void unknownCommand() {
+        commandProcessor.processLine("hello everyone in the room", worker, IGNORE);
+    }
+
+    /**
+     * Command replying to the client.
+     */
+    @Benchmark
+    public void withReply() {
+        commandProcessor.processLine("/echo 2 + 2 * 3", worker, IGNORE);
+        worker.awaitWritable();
+    }
+}
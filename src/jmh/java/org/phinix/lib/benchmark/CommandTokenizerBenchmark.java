@@ -0,0 +1,66 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.phinix.lib.server.command.CommandTokenizer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of splitting a command line into its name and arguments, with the regular expression split and array copy
+ * {@link org.phinix.lib.server.service.services.CommandProcessor} used before, and with a reused
+ * {@link CommandTokenizer}. Run with {@code -Djmh.args="CommandTokenizer -prof gc"} to compare the bytes allocated
+ * per line ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class CommandTokenizerBenchmark {
+    @Param({"/noop", "/room create lobby 4 10", "hello everyone in the room"})
+    public String line;
+
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+
+    /**
+     * Regular expression split followed by a copy of the arguments.
+     */
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        String[] formatLine = line.split("\\s+");
+        blackhole.consume(formatLine[0]);
+        blackhole.consume(formatLine.length <= 1
+                ? new String[0]
+                : Arrays.copyOfRange(formatLine, 1, formatLine.length));
+    }
+
+    /**
+     * Tokenizing and resolving the command name only, as done for lines that are not a registered command.
+     */
+    @Benchmark
+    public void tokenizeName(Blackhole blackhole) {
+        blackhole.consume(tokenizer.tokenize(line).getCommandName());
+    }
+
+    /**
+     * Tokenizing and extracting the name and the arguments, as done for registered commands.
+     */
+    @Benchmark
+    public void tokenizeArguments(Blackhole blackhole) {
+        tokenizer.tokenize(line);
+        blackhole.consume(tokenizer.getCommandName());
+        blackhole.consume(tokenizer.getArguments());
+    }
+}
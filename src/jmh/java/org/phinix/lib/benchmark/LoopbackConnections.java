@@ -0,0 +1,107 @@
+package org.phinix.lib.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code LoopbackConnections} class opens pairs of connected sockets over the loopback interface, so the benchmarks
+ * exercise the real socket path without depending on the network.
+ * <p>
+ * The server side of each pair is what a worker would own; the client side plays the remote peer. Benchmarks that
+ * only send can let {@link #drainClientSides()} discard everything the peers receive.
+ */
+public final class LoopbackConnections implements Closeable {
+    private final ServerSocket serverSocket; // Listener the client sides connect to
+    private final List<Socket> serverSides; // Sockets accepted by the listener
+    private final List<Socket> clientSides; // Sockets connected to the listener
+
+    /**
+     * Opens the given amount of connected socket pairs.
+     *
+     * @param amount the amount of pairs
+     * @throws IOException if a socket cannot be opened
+     */
+    public LoopbackConnections(int amount) throws IOException {
+        this.serverSocket = new ServerSocket(0, amount, InetAddress.getLoopbackAddress());
+        this.serverSides = new ArrayList<>(amount);
+        this.clientSides = new ArrayList<>(amount);
+
+        for (int i = 0; i < amount; i++) {
+            Socket client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+            Socket server = serverSocket.accept();
+            client.setTcpNoDelay(true);
+            server.setTcpNoDelay(true);
+            clientSides.add(client);
+            serverSides.add(server);
+        }
+    }
+
+    /**
+     * Starts a virtual thread per client side reading and discarding everything it receives, until it is closed.
+     */
+    public void drainClientSides() {
+        for (Socket client : clientSides) {
+            Thread.ofVirtual().name("drain-" + client.getLocalPort()).start(() -> {
+                byte[] buffer = new byte[16 * 1024];
+                try (InputStream input = client.getInputStream()) {
+                    while (input.read(buffer) >= 0) {
+                        // Discard the data, only the sending side is measured
+                    }
+                } catch (IOException e) {
+                    // Closed at the end of the benchmark
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the server side of a pair.
+     *
+     * @param index the index of the pair
+     * @return the accepted socket
+     */
+    public Socket serverSide(int index) {
+        return serverSides.get(index);
+    }
+
+    /**
+     * Returns the client side of a pair.
+     *
+     * @param index the index of the pair
+     * @return the connected socket
+     */
+    public Socket clientSide(int index) {
+        return clientSides.get(index);
+    }
+
+    /**
+     * Returns the amount of pairs.
+     *
+     * @return the amount of pairs
+     */
+    public int size() {
+        return serverSides.size();
+    }
+
+    /**
+     * Closes every socket and the listener.
+     *
+     * @throws IOException if a socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        for (Socket socket : clientSides) {
+            socket.close();
+        }
+        for (Socket socket : serverSides) {
+            socket.close();
+        }
+        serverSocket.close();
+    }
+}
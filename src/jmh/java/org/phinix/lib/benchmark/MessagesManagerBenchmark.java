@@ -0,0 +1,83 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.phinix.lib.common.socket.MessagesManager;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line throughput through {@link MessagesManager} over a loopback connection: each operation encodes a line,
+ * writes it through the outbound queue and reads it back on the other side of the socket.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class MessagesManagerBenchmark {
+    private static final int BURST = 64; // Lines sent together by the burst benchmark
+
+    @Param({"16", "256"})
+    private int lineLength;
+
+    private LoopbackConnections connections;
+    private MessagesManager sender;
+    private MessagesManager receiver;
+    private String line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        connections = new LoopbackConnections(1);
+        sender = new MessagesManager(connections.serverSide(0));
+        receiver = new MessagesManager(connections.clientSide(0));
+        line = "x".repeat(lineLength);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sender.close();
+        receiver.close();
+        connections.close();
+    }
+
+    /**
+     * One line written and read back.
+     */
+    @Benchmark
+    public String lineRoundTrip() throws IOException {
+        sender.sendMessage(line);
+        return receiver.receiveMessage();
+    }
+
+    /**
+     * Lines written in one batch and read back, as pipelined responses are.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void lineBurst(Blackhole blackhole) throws IOException {
+        sender.beginBatch();
+        for (int i = 0; i < BURST; i++) {
+            sender.sendMessage(line);
+        }
+        sender.endBatch();
+        for (int i = 0; i < BURST; i++) {
+            blackhole.consume(receiver.receiveMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.server.service.AbstractServiceRegister;
+import org.phinix.lib.server.service.services.CommandProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link AbstractServiceRegister#getService(Class)}, which every worker calls for each message, alone and
+ * with threads contending for the same register.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class ServiceRegisterBenchmark {
+    private final BenchmarkServices services = new BenchmarkServices(); // Shared by every benchmark thread
+
+    @Benchmark
+    @Threads(1)
+    public CommandProcessor<?> singleThread() {
+        return services.getService(CommandProcessor.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CommandProcessor<?> fourThreads() {
+        return services.getService(CommandProcessor.class);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public CommandProcessor<?> sixteenThreads() {
+        return services.getService(CommandProcessor.class);
+    }
+}
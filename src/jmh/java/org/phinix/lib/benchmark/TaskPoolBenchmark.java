@@ -0,0 +1,216 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.server.core.ExecutionMode;
+import org.phinix.lib.server.core.Manageable;
+import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.LatencyHistogram;
+import org.phinix.lib.server.core.task.TaskPool;
+import org.phinix.lib.server.core.task.TaskQueue;
+import org.phinix.lib.server.core.task.tasks.LoopTask;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of running short task steps on the work-stealing {@link TaskPool}, compared with a fixed thread pool sharing
+ * one queue, with as many threads.
+ * <p>
+ * {@link #scheduledWorkers(ScheduledWorkers, SchedulingCounters)} reproduces the load of a full server instead:
+ * {@link ScheduledWorkers#WORKERS} task executors, one per connected worker, each running
+ * {@link ScheduledWorkers#TASKS_PER_WORKER} periodic tasks, on a {@link TaskPool} or on virtual threads. Its result
+ * is not the time but the auxiliary counters: the peak amount of platform threads, the threads of the pool, and the
+ * mean and 99th percentile lag between the intended and actual start of the steps, in microseconds. The lags include
+ * the first steps of all the tasks, which start together.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class TaskPoolBenchmark {
+    private static final int STEPS = 1000; // Steps submitted by each invocation
+
+    private TaskPool taskPool;
+    private ExecutorService fixedThreadPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        taskPool = new TaskPool("benchmark-pool", threads, TaskPool.DEFAULT_MAX_SPARE_THREADS);
+        fixedThreadPool = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskPool.shutdown();
+        fixedThreadPool.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void taskPool() throws InterruptedException {
+        runSteps(taskPool);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void fixedThreadPool() throws InterruptedException {
+        runSteps(fixedThreadPool);
+    }
+
+    /**
+     * Lets the scheduled workers run for a few periods and reports the threads they needed and how late their steps
+     * started.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1) // JMH adds up the counters of the iterations, one keeps them readable
+    public void scheduledWorkers(ScheduledWorkers workers, SchedulingCounters counters) throws InterruptedException {
+        Thread.sleep(ScheduledWorkers.RUN_MILLIS);
+        workers.report(counters);
+    }
+
+    /**
+     * Submits the steps and waits for all of them to run.
+     *
+     * @param executor the executor running the steps
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void runSteps(Executor executor) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(STEPS);
+        for (int i = 0; i < STEPS; i++) {
+            executor.execute(done::countDown);
+        }
+        done.await();
+    }
+
+    /**
+     * Task executors of as many workers, each running periodic tasks, started anew for every iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class ScheduledWorkers {
+        static final int WORKERS = 10_000; // Task executors, one per connected worker
+        static final int TASKS_PER_WORKER = 2; // Periodic tasks of every worker
+        static final long PERIOD_MILLIS = 100; // Period of the tasks
+        static final long RUN_MILLIS = 5_000; // Time the tasks run before the counters are read
+
+        private static final Manageable WORKER = new Manageable() {
+        }; // Context passed to the tasks, never read
+
+        @Param({"PLATFORM", "VIRTUAL"})
+        public ExecutionMode executionMode;
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private TaskPool taskPool;
+        private List<WorkerTaskExecutor> executors;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            taskPool = new TaskPool("benchmark-pool", Runtime.getRuntime().availableProcessors(),
+                    TaskPool.DEFAULT_MAX_SPARE_THREADS);
+            threads.resetPeakThreadCount();
+            executors = new ArrayList<>(WORKERS);
+            for (int i = 0; i < WORKERS; i++) {
+                WorkerTaskExecutor executor = new WorkerTaskExecutor();
+                executor.setExecutionMode(executionMode);
+                executor.setTaskPool(taskPool);
+                executor.start(WORKER);
+                executors.add(executor);
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            for (WorkerTaskExecutor executor : executors) {
+                executor.stop();
+            }
+            taskPool.shutdown();
+        }
+
+        /**
+         * Reads the threads and the scheduling lags of the steps run so far into the counters.
+         *
+         * @param counters the counters of the iteration
+         */
+        void report(SchedulingCounters counters) {
+            LatencyHistogram lags = new LatencyHistogram();
+            for (WorkerTaskExecutor executor : executors) {
+                lags.add(executor.getTaskMetrics().getSchedulingLags());
+            }
+            counters.peakPlatformThreads = threads.getPeakThreadCount();
+            counters.poolThreads = executionMode == ExecutionMode.VIRTUAL ? 0 : taskPool.getPoolSize();
+            counters.steps = lags.getCount();
+            counters.lagMeanMicros = lags.getMean(TimeUnit.MICROSECONDS);
+            counters.lagP99Micros = lags.getPercentile(99, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Counters reported by {@link #scheduledWorkers(ScheduledWorkers, SchedulingCounters)}, one invocation per
+     * iteration, so each reads as the value of its iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SchedulingCounters {
+        public long peakPlatformThreads; // Most platform threads alive at once in the JVM, JMH threads included
+        public long poolThreads; // Threads started by the task pool, zero on virtual threads
+        public long steps; // Steps run by all the tasks
+        public long lagMeanMicros; // Mean delay between the intended and actual start of a step
+        public long lagP99Micros; // 99th percentile of that delay
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            peakPlatformThreads = 0;
+            poolThreads = 0;
+            steps = 0;
+            lagMeanMicros = 0;
+            lagP99Micros = 0;
+        }
+    }
+
+    /**
+     * Task executor of one worker, running periodic tasks that do nothing.
+     */
+    static final class WorkerTaskExecutor extends AbstractTaskExecutor<Manageable> {
+        WorkerTaskExecutor() {
+            super(new TaskQueue<>());
+        }
+
+        @Override
+        protected int initTasks() {
+            for (int i = 0; i < ScheduledWorkers.TASKS_PER_WORKER; i++) {
+                registerTasks(new LoopTask<>(ScheduledWorkers.PERIOD_MILLIS) {
+                    @Override
+                    public void process(Manageable manageable) {
+                        // Only the scheduling is measured
+                    }
+                });
+            }
+            return getAmountRegisteredTasks();
+        }
+    }
+}
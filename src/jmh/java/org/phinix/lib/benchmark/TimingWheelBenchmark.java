@@ -0,0 +1,62 @@
+package org.phinix.lib.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.phinix.lib.server.core.task.TimingWheel;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling and cancelling a timer on the {@link TimingWheel} driving scheduled tasks, compared with a
+ * {@link ScheduledThreadPoolExecutor}, as turn timers and timeouts are mostly cancelled before they expire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+@Threads(4)
+public class TimingWheelBenchmark {
+    private static final Runnable NOTHING = () -> {
+    };
+
+    private TimingWheel timingWheel;
+    private ScheduledThreadPoolExecutor scheduledExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timingWheel = new TimingWheel("benchmark-wheel",
+                TimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, TimingWheel.DEFAULT_TICKS_PER_WHEEL);
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+        scheduledExecutor.setRemoveOnCancelPolicy(true); // Keep the queue small, as the wheel does
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timingWheel.stop();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean timingWheel() {
+        return timingWheel.newTimeout(NOTHING, 30, TimeUnit.SECONDS).cancel();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor() {
+        return scheduledExecutor.schedule(NOTHING, 30, TimeUnit.SECONDS).cancel(false);
+    }
+}
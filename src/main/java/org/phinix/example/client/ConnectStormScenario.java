@@ -0,0 +1,17 @@
+package org.phinix.example.client;
+
+import org.phinix.lib.client.LoadScenario;
+import org.phinix.lib.client.ScriptedClient;
+
+/**
+ * Load scenario of a connect storm: every client sends a single chat line as soon as it is connected and waits for
+ * its echo, so the report shows how long the server took to accept and serve each client.
+ */
+public class ConnectStormScenario implements LoadScenario {
+    private static final String LINE = "ping";
+
+    @Override
+    public void run(ScriptedClient client) throws InterruptedException {
+        client.request(LINE, LINE, ""); // Any message answers it, the server echoes chat lines
+    }
+}
@@ -0,0 +1,73 @@
+package org.phinix.example.client;
+
+import org.phinix.lib.client.LoadScenario;
+import org.phinix.lib.client.ScriptedClient;
+
+/**
+ * Load scenario playing the math game in pairs: every client registers and logs in, even clients create a room for
+ * two, which puts them in it, and odd clients join the room of the previous one. Both take turns resolving
+ * equations, and the creator leaves, ending the game for its partner.
+ */
+public class MathGameScenario implements LoadScenario {
+    private static final String PASSWORD = "load";
+    private static final int ROUNDS = 1_000_000; // Never ends the game before the scenario does
+    private static final int JOIN_ATTEMPTS = 50;
+
+    private final int resolveAttempts; // Resolve commands sent by every player
+
+    public MathGameScenario(int resolveAttempts) {
+        this.resolveAttempts = resolveAttempts;
+    }
+
+    @Override
+    public void run(ScriptedClient client) throws InterruptedException {
+        String username = "load" + client.getIndex();
+        client.request("/register", "/register " + username + " " + PASSWORD,
+                "User registered", "The input user already exist"); // Users persist between runs
+        client.think();
+        if (client.request("/login", "/login " + username + " " + PASSWORD, "User login") == null) {
+            return;
+        }
+        client.think();
+
+        boolean creator = client.getIndex() % 2 == 0;
+        String room = "load-room-" + client.getIndex() / 2;
+        if (creator) {
+            if (client.request("/room create", "/room create " + room + " 2 " + ROUNDS,
+                    "Room " + room + " created") == null) {
+                return;
+            }
+            if (client.await("load" + (client.getIndex() + 1) + " has joined") == null) {
+                return; // No partner, the game never starts
+            }
+        } else if (!join(client, room)) {
+            return;
+        }
+
+        for (int i = 0; i < resolveAttempts; i++) {
+            client.think();
+            client.request("/resolve", "/resolve " + i, "CORRECT", "INCORRECT", "It is not your turn");
+        }
+
+        if (creator) {
+            client.request("/room leave", "/room leave", "You have left the room");
+        } else {
+            client.await("You have left the room"); // Removed when the creator leaves
+        }
+    }
+
+    private boolean join(ScriptedClient client, String room) throws InterruptedException {
+        for (int attempt = 0; attempt < JOIN_ATTEMPTS; attempt++) {
+            String response = client.request("/room join", "/room join " + room,
+                    "You entered the room", "Room " + room + " ");
+            if (response == null) {
+                return false;
+            }
+            if (response.startsWith("You entered the room")) {
+                return true;
+            }
+            Thread.sleep(20); // The creator has not created the room yet
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package org.phinix.example.main;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.phinix.example.client.ConnectStormScenario;
+import org.phinix.example.client.MathGameScenario;
+import org.phinix.example.server.core.MathGameServer;
+import org.phinix.lib.client.LoadGenerator;
+import org.phinix.lib.client.LoadReport;
+import org.phinix.lib.client.LoadScenario;
+import org.phinix.lib.client.MemorySampler;
+import org.phinix.lib.server.core.ExecutionMode;
+import org.phinix.lib.server.core.ServerOptions;
+import org.phinix.lib.server.core.transport.TransportMode;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Runs a {@link MathGameServer} and a {@link LoadGenerator} against it in the same process.
+ * <p>
+ * Usage: {@code LoadTestMain [clients] [port] [--accept-threads=N] [--connect-storm] [--execution=PLATFORM|VIRTUAL]
+ * [--transport=BLOCKING|NIO] [--hold=MILLIS]}
+ * <ul>
+ *     <li>{@code --accept-threads=N} binds N listening sockets to the port, see {@link ServerOptions#setAcceptThreads(int)}</li>
+ *     <li>{@code --connect-storm} connects every client at once, each sending a single line, instead of playing the
+ *     game with a ramp-up; the connect and first response rows of the report are then the result</li>
+ *     <li>{@code --execution} selects the threads running the workers, see {@link ServerOptions#setExecutionMode(ExecutionMode)}</li>
+ *     <li>{@code --transport} selects how connections are served, see {@link ServerOptions#setTransportMode(TransportMode)}</li>
+ *     <li>{@code --hold=MILLIS} keeps every client connected for that long after its scenario, so all of them are
+ *     connected at once and the memory per connection is measured at the full amount of clients</li>
+ * </ul>
+ * The report is followed by the heap and RSS per connection measured by a {@link MemorySampler}. Running the same
+ * load with {@code --execution=PLATFORM} and {@code --execution=VIRTUAL} compares the memory per connection and the
+ * p99 of every command of both modes, for example with 10000 clients and {@code --hold=5000}.
+ */
+public class LoadTestMain {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int clients = 100;
+        int port = 12346;
+        boolean connectStorm = false;
+        long holdMillis = 0;
+        ServerOptions options = new ServerOptions();
+
+        int positional = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--accept-threads=")) {
+                options.setAcceptThreads(Integer.parseInt(valueOf(arg)));
+            } else if (arg.equals("--connect-storm")) {
+                connectStorm = true;
+            } else if (arg.startsWith("--execution=")) {
+                options.setExecutionMode(ExecutionMode.valueOf(valueOf(arg).toUpperCase(Locale.ROOT)));
+            } else if (arg.startsWith("--transport=")) {
+                options.setTransportMode(TransportMode.valueOf(valueOf(arg).toUpperCase(Locale.ROOT)));
+            } else if (arg.startsWith("--hold=")) {
+                holdMillis = Long.parseLong(valueOf(arg));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else if (positional++ == 0) {
+                clients = Integer.parseInt(arg);
+            } else {
+                port = Integer.parseInt(arg);
+            }
+        }
+
+        Configurator.setRootLevel(Level.WARN); // Logging every message would dominate the measurements
+
+        Path usersFile = Files.createTempFile("load-test-users", ".txt"); // Keep test users out of users.txt
+        usersFile.toFile().deleteOnExit();
+        System.setProperty("mathgame.users.file", usersFile.toString());
+
+        MathGameServer server = new MathGameServer(port, clients + 1, options); // One extra slot for the readiness probe
+        Thread.ofPlatform().name("load-test-server").daemon().start(server::start);
+        awaitServer(port);
+
+        LoadGenerator generator = connectStorm
+                ? new LoadGenerator("localhost", port, hold(new ConnectStormScenario(), holdMillis))
+                        .setRampUpMillis(0) // Every client connects at once
+                        .setResponseTimeoutMillis(30_000) // The last clients wait for the whole backlog
+                : new LoadGenerator("localhost", port, hold(new MathGameScenario(20), holdMillis))
+                        .setRampUpMillis(2000)
+                        .setThinkTime(10, 50);
+        MemorySampler memory = new MemorySampler(server.getAdmissionController()::getActiveConnections, 100);
+        memory.start();
+        LoadReport report = generator.setClients(clients).run();
+        memory.stop();
+        System.out.printf("%s transport, %s execution%n", options.getTransportMode(), options.getExecutionMode());
+        System.out.println(report);
+        System.out.println(memory);
+
+        server.stop();
+    }
+
+    private static LoadScenario hold(LoadScenario scenario, long holdMillis) {
+        if (holdMillis <= 0) {
+            return scenario;
+        }
+        return client -> {
+            scenario.run(client);
+            Thread.sleep(holdMillis); // Stay connected while the other clients connect
+        };
+    }
+
+    private static String valueOf(String option) {
+        return option.substring(option.indexOf('=') + 1);
+    }
+
+    private static void awaitServer(int port) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try {
+                new Socket("localhost", port).close();
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50); // Not listening yet
+            }
+        }
+        throw new IllegalStateException("Server did not start on port " + port);
+    }
+}
@@ -3,23 +3,17 @@ package org.phinix.example.server.command.commands;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.phinix.example.server.command.CommandFactory;
 import org.phinix.example.server.core.thread.ClientHandler;
-import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.ArgumentSchema;
+import org.phinix.lib.server.command.StatelessCommand;
 
-public class ExitCommand implements Command<ClientHandler> {
+public class ExitCommand implements StatelessCommand<ClientHandler> {
     private static final Logger logger = LogManager.getLogger();
     private static final String COMMAND_NAME = "exit";
-    private static final int parametersAmount = 0;
+    private static final ArgumentSchema ARGUMENT_SCHEMA = ArgumentSchema.of();
 
     @Override
     public void execute(String[] args, ClientHandler client) {
-        if (args.length != parametersAmount) {
-            client.getMessagesManager().sendMessage("Help: " + CommandFactory.getCommandSymbol() +
-                    COMMAND_NAME);
-            return;
-        }
-
         logger.log(Level.DEBUG, "Executing command {} by {}", new Object[]{COMMAND_NAME, client.getClientAddress()});
 
         client.closeConnection();
@@ -28,4 +22,8 @@ public class ExitCommand implements Command<ClientHandler> {
     public static String getCommandName() {
         return COMMAND_NAME;
     }
+
+    public static ArgumentSchema getArgumentSchema() {
+        return ARGUMENT_SCHEMA;
+    }
 }
@@ -5,24 +5,21 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.phinix.example.common.model.Player;
 import org.phinix.lib.common.util.StringFormat;
-import org.phinix.example.server.command.CommandFactory;
 import org.phinix.example.server.core.thread.ClientHandler;
 import org.phinix.example.server.service.services.PlayerManager;
-import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.Argument;
+import org.phinix.lib.server.command.ArgumentSchema;
+import org.phinix.lib.server.command.BlockingCommand;
+import org.phinix.lib.server.command.StatelessCommand;
 
-public class RegisterCommand implements Command<ClientHandler> {
+public class RegisterCommand implements StatelessCommand<ClientHandler>, BlockingCommand<ClientHandler> {
     private static final Logger logger = LogManager.getLogger();
     private static final String COMMAND_NAME = "register";
-    private static final int parametersAmount = 2;
+    private static final ArgumentSchema ARGUMENT_SCHEMA = ArgumentSchema.of(
+            Argument.word("username"), Argument.word("password"));
 
     @Override
     public void execute(String[] args, ClientHandler client) {
-        if (args.length != parametersAmount) {
-            client.getMessagesManager().sendMessage("Help: " + CommandFactory.getCommandSymbol() +
-                    COMMAND_NAME + " <username> <password>");
-            return;
-        }
-
         logger.log(Level.DEBUG, "Executing command {} by {}", new Object[]{COMMAND_NAME, client.getClientAddress()});
 
         String username = args[0];
@@ -43,4 +40,8 @@ public class RegisterCommand implements Command<ClientHandler> {
     public static String getCommandName() {
         return COMMAND_NAME;
     }
+
+    public static ArgumentSchema getArgumentSchema() {
+        return ARGUMENT_SCHEMA;
+    }
 }
@@ -4,23 +4,19 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.phinix.example.common.game.MathGameRoom;
-import org.phinix.example.server.command.CommandFactory;
 import org.phinix.example.server.core.thread.ClientHandler;
-import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.Argument;
+import org.phinix.lib.server.command.ArgumentSchema;
+import org.phinix.lib.server.command.CpuBoundCommand;
+import org.phinix.lib.server.command.StatelessCommand;
 
-public class ResolveCommand implements Command<ClientHandler> {
+public class ResolveCommand implements StatelessCommand<ClientHandler>, CpuBoundCommand<ClientHandler> {
     private static final Logger logger = LogManager.getLogger();
     private static final String COMMAND_NAME = "resolve";
-    private static final int parametersAmount = 1;
+    private static final ArgumentSchema ARGUMENT_SCHEMA = ArgumentSchema.of(Argument.word("mathExpression"));
 
     @Override
     public void execute(String[] args, ClientHandler client) {
-        if (args.length != parametersAmount) {
-            client.getMessagesManager().sendMessage("Help: " + CommandFactory.getCommandSymbol() +
-                    COMMAND_NAME + " <mathExpression>");
-            return;
-        }
-
         logger.log(Level.DEBUG, "Executing command {} by {}", new Object[]{COMMAND_NAME, client.getClientAddress()});
 
         MathGameRoom room = client.getCurrentRoom();
@@ -36,4 +32,8 @@ public class ResolveCommand implements Command<ClientHandler> {
     public static String getCommandName() {
         return COMMAND_NAME;
     }
+
+    public static ArgumentSchema getArgumentSchema() {
+        return ARGUMENT_SCHEMA;
+    }
 }
@@ -3,25 +3,22 @@ package org.phinix.example.server.command.commands;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.phinix.example.server.command.CommandFactory;
 import org.phinix.example.server.core.thread.ClientHandler;
 import org.phinix.example.server.service.services.PlayerManager;
-import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.Argument;
+import org.phinix.lib.server.command.ArgumentSchema;
+import org.phinix.lib.server.command.StatelessCommand;
 
-public class ShowUsersCommand implements Command<ClientHandler> {
+public class ShowUsersCommand implements StatelessCommand<ClientHandler> {
     private static final Logger logger = LogManager.getLogger();
     private static final String COMMAND_NAME = "users";
     private static final String SHOW_USERS_IN_THIS_RUN_MODIFIER = "-a";
-    private static final int maxParameters = 1;
+    private static final ArgumentSchema ARGUMENT_SCHEMA = ArgumentSchema.of()
+            .or(Argument.literal(SHOW_USERS_IN_THIS_RUN_MODIFIER))
+            .withUsage("[-a]");
 
     @Override
     public void execute(String[] args, ClientHandler client) {
-        if (args.length > maxParameters) {
-            client.getMessagesManager().sendMessage("Help: " + CommandFactory.getCommandSymbol() +
-                    COMMAND_NAME + "[-a]");
-            return;
-        }
-
         logger.log(Level.DEBUG, "Executing command {} by {}", new Object[]{COMMAND_NAME, client.getClientAddress()});
 
         PlayerManager manager = client.getServiceRegister().getService(PlayerManager.class);
@@ -35,4 +32,8 @@ public class ShowUsersCommand implements Command<ClientHandler> {
     public static String getCommandName() {
         return COMMAND_NAME;
     }
+
+    public static ArgumentSchema getArgumentSchema() {
+        return ARGUMENT_SCHEMA;
+    }
 }
@@ -4,13 +4,19 @@ import org.phinix.example.server.core.task.GlobalTaskExecutor;
 import org.phinix.example.server.core.thread.ClientHandler;
 import org.phinix.example.server.service.ServiceManager;
 import org.phinix.lib.server.core.AbstractServer;
+import org.phinix.lib.server.core.ServerOptions;
 import org.phinix.lib.server.core.task.TaskQueue;
 
 public class MathGameServer extends AbstractServer {
     public MathGameServer(int port, int maxUsers) {
+        this(port, maxUsers, new ServerOptions());
+    }
+
+    public MathGameServer(int port, int maxUsers, ServerOptions options) {
         super(
                 port,
                 maxUsers,
+                options,
                 server ->
                         new MathGameServerContext((MathGameServer) server),
                 (socket, serverContext, serviceRegister) ->
@@ -19,4 +25,4 @@ public class MathGameServer extends AbstractServer {
                 new GlobalTaskExecutor(new TaskQueue<>())
         );
     }
-}
\ No newline at end of file
+}
@@ -14,12 +14,14 @@ import org.phinix.lib.server.core.worker.AbstractWorker;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.function.Consumer;
 
 public class ClientHandler extends AbstractWorker {
     private static final Logger logger = LogManager.getLogger();
 
     private final MathGameServerContext serverContext;
     private final ServiceManager serviceRegister;
+    private final Consumer<String> chatEcho; // Answers lines that are not commands, created once per client
     private Player user = null;
 
     public ClientHandler(Socket socket, MathGameServerContext serverContext, ServiceManager serviceManager) throws IOException {
@@ -27,14 +29,13 @@ public class ClientHandler extends AbstractWorker {
 
         this.serverContext = serverContext;
         this.serviceRegister = serviceManager;
+        this.chatEcho = line -> getMessagesManager().sendMessage(getClientAddress() + ": " + line);
     }
 
     @Override @SuppressWarnings("unchecked")
     public void listen(String message) {
         CommandProcessor<ClientHandler> commandProcessor = getServiceRegister().getService(CommandProcessor.class);
-        if (!commandProcessor.processCommand(message, this)) {
-            getMessagesManager().sendMessage(getClientAddress() + ": " + message);
-        }
+        commandProcessor.processLine(message, this, chatEcho);
     }
 
     @Override
@@ -5,7 +5,7 @@ import org.phinix.lib.server.service.services.AbstractUserManager;
 
 public class PlayerManager extends AbstractUserManager<Player> {
 
-    private static final String FILE_NAME = "users.txt";
+    private static final String FILE_NAME = System.getProperty("mathgame.users.file", "users.txt"); // Overridden by load tests
 
     @Override
     protected void initCastFieldType() {
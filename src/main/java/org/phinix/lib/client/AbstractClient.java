@@ -3,6 +3,8 @@ package org.phinix.lib.client;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.phinix.lib.common.socket.LineMessageCodec;
+import org.phinix.lib.common.socket.MessageCodec;
 import org.phinix.lib.common.socket.MessagesManager;
 
 import java.io.IOException;
@@ -14,6 +16,9 @@ import java.net.Socket;
  * This class provides basic functionality for connecting, starting, and disconnecting from a server.
  * It handles establishing a connection to the server, sending and receiving messages, and managing the socket connection.
  * The actual logic for handling received messages and user input is left to be implemented by subclasses.
+ * <p>
+ * Messages are framed with a {@link MessageCodec}, newline terminated text by default. It must match the codec
+ * configured in the server and is set with {@link #setCodec(MessageCodec)} before connecting.
  *
  * @see Client
  */
@@ -23,6 +28,7 @@ public abstract class AbstractClient implements Client {
     protected String serverAddress = "localhost"; // Default server address
     protected int serverPort = 12345; // Default server port
 
+    protected MessageCodec codec = new LineMessageCodec(); // Codec framing the messages, must match the server
     protected MessagesManager messagesManager; // Manages communication with the server
     protected Socket socket; // Client socket
     protected boolean isConnected; // Flag indicating whether the client is connected
@@ -41,6 +47,7 @@ public abstract class AbstractClient implements Client {
         try {
             socket = new Socket(serverAddress, serverPort); // Establishes the socket connection
             messagesManager = new MessagesManager(socket); // Initializes the messages manager
+            messagesManager.setCodec(codec); // Frames messages like the server does
 
             isConnected = true; // Sets the connection flag to true
 
@@ -65,6 +72,7 @@ public abstract class AbstractClient implements Client {
         try {
             socket = new Socket(serverAddress, serverPort); // Establishes the socket connection
             messagesManager = new MessagesManager(socket); // Initializes the messages manager
+            messagesManager.setCodec(codec); // Frames messages like the server does
 
             isConnected = true; // Sets the connection flag to true
 
@@ -118,14 +126,9 @@ public abstract class AbstractClient implements Client {
     @Override
     public void disconnect() {
         isConnected = false; // Sets the connection flag to false, indicating the client is disconnected
-        try {
-            if (socket != null) {
-                socket.close(); // Closes the socket connection to the server
-                logger.log(Level.DEBUG, "Connection to server {}:{} closed successfully.", serverAddress, serverPort);
-            }
-        } catch (IOException e) {
-            // Logs error if the disconnection fails
-            logger.log(Level.ERROR, "Error disconnecting from server {}:{} - Exception: {}", serverAddress, serverPort, e.getMessage());
+        if (messagesManager != null) {
+            messagesManager.close(); // Closes the socket connection once pending messages are sent
+            logger.log(Level.DEBUG, "Connection to server {}:{} closed successfully.", serverAddress, serverPort);
         }
     }
 
@@ -164,4 +167,23 @@ public abstract class AbstractClient implements Client {
     public void setServerPort(int serverPort) {
         this.serverPort = serverPort; // Updates the server port
     }
+
+    /**
+     * Returns the codec framing the messages exchanged with the server.
+     *
+     * @return the message codec
+     */
+    public MessageCodec getCodec() {
+        return codec; // Returns the message codec
+    }
+
+    /**
+     * Sets the codec framing the messages exchanged with the server.
+     * It must match the codec of the server and takes effect on the next connection.
+     *
+     * @param codec the message codec
+     */
+    public void setCodec(MessageCodec codec) {
+        this.codec = codec; // Updates the message codec
+    }
 }
@@ -0,0 +1,256 @@
+package org.phinix.lib.client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.phinix.lib.common.socket.LineMessageCodec;
+import org.phinix.lib.common.socket.MessageCodec;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code LoadGenerator} class is a headless load generator that connects many simulated clients to a server, each
+ * following a scripted {@link LoadScenario}, and reports the throughput and latency percentiles of every command.
+ * <p>
+ * Every client is a {@link ScriptedClient} running on virtual threads, so thousands of them fit in one process.
+ * Clients are started evenly over the ramp-up time, or all at once to reproduce a connect storm, and pause for a
+ * random think time between steps. Run against a server on the loopback interface, it serves as a capacity
+ * regression test. Setters return the same instance, allowing chained configuration.
+ * <p>
+ * Example use:
+ * <pre>{@code
+ * LoadReport report = new LoadGenerator("localhost", 12345, scenario)
+ *         .setClients(500)
+ *         .setRampUpMillis(5000)
+ *         .setThinkTime(50, 200)
+ *         .run();
+ * System.out.println(report);
+ * }</pre>
+ *
+ * @see LoadScenario
+ * @see ScriptedClient
+ * @see LoadReport
+ */
+public class LoadGenerator {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final String serverAddress; // Address of the server under load
+    private final int serverPort; // Port of the server under load
+    private final LoadScenario scenario; // Script followed by every client
+
+    private int clients = 10; // Amount of simulated clients
+    private long rampUpMillis = 0; // Time over which the clients are started
+    private long minThinkMillis = 0; // Shortest pause between steps
+    private long maxThinkMillis = 0; // Longest pause between steps
+    private long responseTimeoutMillis = 5000; // Time to wait for a response
+    private MessageCodec codec = new LineMessageCodec(); // Codec framing the messages, must match the server
+
+    /**
+     * Constructs a new LoadGenerator.
+     *
+     * @param serverAddress the address of the server under load
+     * @param serverPort the port of the server under load
+     * @param scenario the script followed by every client
+     */
+    public LoadGenerator(String serverAddress, int serverPort, LoadScenario scenario) {
+        this.serverAddress = serverAddress;
+        this.serverPort = serverPort;
+        this.scenario = scenario;
+    }
+
+    /**
+     * Runs the load: starts every client over the ramp-up time, waits for all of them to finish their scenario and
+     * returns the measurements.
+     *
+     * @return the report of the run
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport(clients);
+        logger.log(Level.INFO, "Starting {} clients against {}:{}", clients, serverAddress, serverPort);
+
+        report.start();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("load-client-", 0).factory()); // One virtual thread per client
+        try {
+            for (int i = 0; i < clients; i++) {
+                int index = i;
+                long delay = clients > 1 ? rampUpMillis * i / (clients - 1) : 0; // Spread evenly over the ramp-up
+                executor.execute(() -> runClient(index, delay, report));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.log(Level.DEBUG, "Waiting for the clients to finish");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow(); // Cancel the clients still running
+            throw e;
+        }
+        report.finish();
+
+        logger.log(Level.INFO, "Load run finished:\n{}", report);
+        return report;
+    }
+
+    /**
+     * Connects a client after its start delay, runs its scenario and disconnects it.
+     *
+     * @param index the index of the client
+     * @param delayMillis the delay before connecting in milliseconds
+     * @param report the report receiving the measurements
+     */
+    private void runClient(int index, long delayMillis, LoadReport report) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            return; // Run cancelled before this client started
+        }
+
+        ScriptedClient client = new ScriptedClient(index, scenario, report, responseTimeoutMillis,
+                minThinkMillis, maxThinkMillis);
+        client.setCodec(codec);
+        client.connect(serverAddress, serverPort);
+        if (!client.isConnected) {
+            report.recordConnectFailure();
+            return;
+        }
+
+        try {
+            client.start(); // Runs the scenario on this thread
+        } finally {
+            client.disconnect();
+        }
+    }
+
+    /**
+     * Returns the amount of simulated clients.
+     *
+     * @return the amount of clients
+     */
+    public int getClients() {
+        return clients;
+    }
+
+    /**
+     * Sets the amount of simulated clients.
+     *
+     * @param clients the amount of clients
+     * @return this instance
+     * @throws IllegalArgumentException if {@code clients} is not positive
+     */
+    public LoadGenerator setClients(int clients) {
+        if (clients <= 0) {
+            throw new IllegalArgumentException("clients must be positive: " + clients);
+        }
+        this.clients = clients;
+        return this;
+    }
+
+    /**
+     * Returns the time over which the clients are started.
+     *
+     * @return the ramp-up time in milliseconds
+     */
+    public long getRampUpMillis() {
+        return rampUpMillis;
+    }
+
+    /**
+     * Sets the time over which the clients are started, evenly spaced. Zero starts them all at once.
+     *
+     * @param rampUpMillis the ramp-up time in milliseconds
+     * @return this instance
+     * @throws IllegalArgumentException if {@code rampUpMillis} is negative
+     */
+    public LoadGenerator setRampUpMillis(long rampUpMillis) {
+        if (rampUpMillis < 0) {
+            throw new IllegalArgumentException("rampUpMillis must not be negative: " + rampUpMillis);
+        }
+        this.rampUpMillis = rampUpMillis;
+        return this;
+    }
+
+    /**
+     * Returns the shortest pause between the steps of a scenario.
+     *
+     * @return the minimum think time in milliseconds
+     */
+    public long getMinThinkMillis() {
+        return minThinkMillis;
+    }
+
+    /**
+     * Returns the longest pause between the steps of a scenario.
+     *
+     * @return the maximum think time in milliseconds
+     */
+    public long getMaxThinkMillis() {
+        return maxThinkMillis;
+    }
+
+    /**
+     * Sets the bounds of the random pause taken by {@link ScriptedClient#think()}.
+     *
+     * @param minThinkMillis the minimum think time in milliseconds
+     * @param maxThinkMillis the maximum think time in milliseconds
+     * @return this instance
+     * @throws IllegalArgumentException if a bound is negative or the minimum exceeds the maximum
+     */
+    public LoadGenerator setThinkTime(long minThinkMillis, long maxThinkMillis) {
+        if (minThinkMillis < 0 || maxThinkMillis < minThinkMillis) {
+            throw new IllegalArgumentException("Invalid think time: " + minThinkMillis + ".." + maxThinkMillis);
+        }
+        this.minThinkMillis = minThinkMillis;
+        this.maxThinkMillis = maxThinkMillis;
+        return this;
+    }
+
+    /**
+     * Returns the time a request waits for its response before counting as an error.
+     *
+     * @return the response timeout in milliseconds
+     */
+    public long getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    /**
+     * Sets the time a request waits for its response before counting as an error.
+     *
+     * @param responseTimeoutMillis the response timeout in milliseconds
+     * @return this instance
+     * @throws IllegalArgumentException if {@code responseTimeoutMillis} is not positive
+     */
+    public LoadGenerator setResponseTimeoutMillis(long responseTimeoutMillis) {
+        if (responseTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("responseTimeoutMillis must be positive: " + responseTimeoutMillis);
+        }
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Returns the codec framing the messages exchanged with the server.
+     *
+     * @return the message codec
+     */
+    public MessageCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Sets the codec framing the messages exchanged with the server. It must match the codec of the server.
+     *
+     * @param codec the message codec
+     * @return this instance
+     */
+    public LoadGenerator setCodec(MessageCodec codec) {
+        this.codec = codec;
+        return this;
+    }
+}
@@ -0,0 +1,303 @@
+package org.phinix.lib.client;
+
+import org.phinix.lib.server.core.task.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code LoadReport} class gathers the measurements of a {@link LoadGenerator} run: the latency of every request,
+ * grouped by command, the errors, and the duration of the run. For every client it also records how long the
+ * connection took to establish and the time to first response, from the start of the connection until the first
+ * message of the server arrives, which shows how fast the server accepts and serves a burst of connections.
+ * <p>
+ * Latencies are kept in {@link LatencyHistogram}s, so thousands of clients record them concurrently without locks,
+ * and {@link #toString()} renders the throughput and the p50, p99 and p99.9 latency of every command as a table.
+ *
+ * @see LoadGenerator
+ * @see ScriptedClient
+ */
+public final class LoadReport {
+    private final Map<String, CommandStats> commands; // Measurements of every command, by name
+    private final AtomicLong connectFailures; // Clients that could not connect
+    private final AtomicLong scenarioFailures; // Scenarios that threw an exception
+    private final AtomicLong unmatchedMessages; // Received messages that answered no request
+    private final LatencyHistogram connects; // Time to establish every connection
+    private final LatencyHistogram firstResponses; // Time from connecting to the first message of every client
+    private final int clients; // Amount of simulated clients
+    private volatile long startNanos; // Start of the run
+    private volatile long endNanos; // End of the run
+
+    /**
+     * Constructs a new, empty LoadReport.
+     *
+     * @param clients the amount of simulated clients
+     */
+    LoadReport(int clients) {
+        this.commands = new ConcurrentHashMap<>();
+        this.connectFailures = new AtomicLong();
+        this.scenarioFailures = new AtomicLong();
+        this.unmatchedMessages = new AtomicLong();
+        this.connects = new LatencyHistogram();
+        this.firstResponses = new LatencyHistogram();
+        this.clients = clients;
+    }
+
+    /**
+     * Marks the start of the run.
+     */
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the run.
+     */
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param command the command name
+     * @param nanos the round trip in nanoseconds
+     * @param answered whether a response arrived
+     */
+    void recordRequest(String command, long nanos, boolean answered) {
+        CommandStats stats = commands.computeIfAbsent(command, name -> new CommandStats());
+        if (answered) {
+            stats.latencies.record(nanos);
+        } else {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records an established connection.
+     *
+     * @param nanos the time taken to connect in nanoseconds
+     */
+    void recordConnect(long nanos) {
+        connects.record(nanos);
+    }
+
+    /**
+     * Records the first message received by a client.
+     *
+     * @param nanos the time from the start of the connection to the message in nanoseconds
+     */
+    void recordFirstResponse(long nanos) {
+        firstResponses.record(nanos);
+    }
+
+    /**
+     * Records a client that could not connect.
+     */
+    void recordConnectFailure() {
+        connectFailures.incrementAndGet();
+    }
+
+    /**
+     * Records a scenario that threw an exception.
+     */
+    void recordScenarioFailure() {
+        scenarioFailures.incrementAndGet();
+    }
+
+    /**
+     * Records a received message that answered no request.
+     */
+    void recordUnmatchedMessage() {
+        unmatchedMessages.incrementAndGet();
+    }
+
+    /**
+     * Returns the measurements of every command, by name.
+     *
+     * @return the command measurements, sorted by name
+     */
+    public Map<String, CommandStats> getCommands() {
+        return new TreeMap<>(commands);
+    }
+
+    /**
+     * Returns the duration of the run, or the time elapsed so far if it is still running.
+     *
+     * @param unit the unit of the returned value
+     * @return the duration
+     */
+    public long getDuration(TimeUnit unit) {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return unit.convert(end - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the amount of answered requests.
+     *
+     * @return the answered requests
+     */
+    public long getRequests() {
+        return commands.values().stream().mapToLong(CommandStats::getRequests).sum();
+    }
+
+    /**
+     * Returns the amount of requests that were not answered.
+     *
+     * @return the errors
+     */
+    public long getErrors() {
+        return commands.values().stream().mapToLong(CommandStats::getErrors).sum();
+    }
+
+    /**
+     * Returns the answered requests per second over the whole run.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return perSecond(getRequests());
+    }
+
+    /**
+     * Returns the amount of clients that could not connect.
+     *
+     * @return the connect failures
+     */
+    public long getConnectFailures() {
+        return connectFailures.get();
+    }
+
+    /**
+     * Returns the amount of scenarios that threw an exception.
+     *
+     * @return the scenario failures
+     */
+    public long getScenarioFailures() {
+        return scenarioFailures.get();
+    }
+
+    /**
+     * Returns the histogram of the time taken to establish every connection.
+     *
+     * @return the connect latencies
+     */
+    public LatencyHistogram getConnectLatencies() {
+        return connects;
+    }
+
+    /**
+     * Returns the histogram of the time from the start of every connection to the first message it received.
+     *
+     * @return the time to first response of every client
+     */
+    public LatencyHistogram getFirstResponseLatencies() {
+        return firstResponses;
+    }
+
+    /**
+     * Returns the amount of received messages that answered no request, such as broadcasts.
+     *
+     * @return the unmatched messages
+     */
+    public long getUnmatchedMessages() {
+        return unmatchedMessages.get();
+    }
+
+    /**
+     * Returns the report as a table with a row per command, preceded by the connection and time to first response
+     * rows, latencies in milliseconds.
+     *
+     * @return the report
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d clients, %.1f s, %d requests (%.1f req/s), %d errors, "
+                        + "%d connect failures, %d scenario failures%n",
+                clients, getDuration(TimeUnit.MILLISECONDS) / 1000.0, getRequests(), getThroughput(), getErrors(),
+                getConnectFailures(), getScenarioFailures()));
+        sb.append(String.format("%-16s %9s %7s %9s %9s %9s %9s %9s%n",
+                "command", "requests", "errors", "req/s", "p50", "p99", "p99.9", "max"));
+        appendRow(sb, "(connect)", connects, getConnectFailures());
+        appendRow(sb, "(first response)", firstResponses, 0);
+        getCommands().forEach((name, stats) -> appendRow(sb, name, stats.getLatencies(), stats.getErrors()));
+        return sb.toString();
+    }
+
+    /**
+     * Appends a row of the table.
+     *
+     * @param sb the table
+     * @param name the name of the row
+     * @param latencies the latencies of the row
+     * @param errors the errors of the row
+     */
+    private void appendRow(StringBuilder sb, String name, LatencyHistogram latencies, long errors) {
+        sb.append(String.format("%-16s %9d %7d %9.1f %9.3f %9.3f %9.3f %9.3f%n",
+                name, latencies.getCount(), errors, perSecond(latencies.getCount()),
+                millis(latencies.getPercentile(50, TimeUnit.NANOSECONDS)),
+                millis(latencies.getPercentile(99, TimeUnit.NANOSECONDS)),
+                millis(latencies.getPercentile(99.9, TimeUnit.NANOSECONDS)),
+                millis(latencies.getMax(TimeUnit.NANOSECONDS))));
+    }
+
+    /**
+     * Converts an amount over the run to a rate per second.
+     *
+     * @param amount the amount
+     * @return the amount per second
+     */
+    private double perSecond(long amount) {
+        long nanos = getDuration(TimeUnit.NANOSECONDS);
+        return nanos <= 0 ? 0 : amount * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos the value in nanoseconds
+     * @return the value in milliseconds
+     */
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * {@code CommandStats} class holds the measurements of one command.
+     */
+    public static final class CommandStats {
+        private final LatencyHistogram latencies = new LatencyHistogram(); // Round trips of the answered requests
+        private final AtomicLong errors = new AtomicLong(); // Requests that were not answered
+
+        /**
+         * Returns the amount of answered requests.
+         *
+         * @return the answered requests
+         */
+        public long getRequests() {
+            return latencies.getCount();
+        }
+
+        /**
+         * Returns the amount of requests that were not answered.
+         *
+         * @return the errors
+         */
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * Returns the histogram of the round trips of the answered requests.
+         *
+         * @return the latency histogram
+         */
+        public LatencyHistogram getLatencies() {
+            return latencies;
+        }
+    }
+}
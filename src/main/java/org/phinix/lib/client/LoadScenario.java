@@ -0,0 +1,36 @@
+package org.phinix.lib.client;
+
+/**
+ * {@code LoadScenario} functional interface defines the script followed by every simulated client of a
+ * {@link LoadGenerator}.
+ * <p>
+ * The scenario drives a connected {@link ScriptedClient}: it sends commands with
+ * {@link ScriptedClient#request(String, String, String...)}, waits for server pushes with
+ * {@link ScriptedClient#await(String...)} and pauses between steps with {@link ScriptedClient#think()}. The same
+ * instance is shared by every client, so it must not keep per-client state in fields; the index returned by
+ * {@link ScriptedClient#getIndex()} tells clients apart.
+ * <p>
+ * Example use:
+ * <pre>{@code
+ * LoadScenario echo = client -> {
+ *     for (int i = 0; i < 10; i++) {
+ *         client.request("echo", "hello", "");
+ *         client.think();
+ *     }
+ * };
+ * }</pre>
+ *
+ * @see LoadGenerator
+ * @see ScriptedClient
+ */
+@FunctionalInterface
+public interface LoadScenario {
+
+    /**
+     * Runs the scenario for one simulated client. The client is disconnected once this method returns.
+     *
+     * @param client the connected client
+     * @throws InterruptedException if the client is interrupted while waiting
+     */
+    void run(ScriptedClient client) throws InterruptedException;
+}
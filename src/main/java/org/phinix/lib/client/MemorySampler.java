@@ -0,0 +1,184 @@
+package org.phinix.lib.client;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntSupplier;
+
+/**
+ * {@code MemorySampler} class measures the memory taken by every connection of a server running in the same
+ * process as a {@link LoadGenerator}: the used heap and the resident set size (RSS) of the process.
+ * <p>
+ * {@link #start()} records a baseline after a garbage collection, then a daemon thread samples the amount of
+ * connections periodically. The heap and RSS are sampled along with the highest amount of connections seen, keeping
+ * the lowest heap sampled while at that peak, which approximates the live heap without forcing collections during
+ * the run. The memory per connection is the growth over the baseline divided by the peak connections, so it
+ * includes the in-process clients too. Their cost does not depend on the server settings, which makes runs with
+ * different settings comparable, such as {@code ExecutionMode.PLATFORM} against {@code ExecutionMode.VIRTUAL}.
+ * <p>
+ * The RSS is read from {@code /proc/self/status} and is only available on Linux.
+ *
+ * @see LoadGenerator
+ * @see LoadReport
+ */
+public final class MemorySampler {
+    private static final Path PROC_STATUS = Path.of("/proc/self/status"); // Linux process status, holds VmRSS
+    private static final long UNAVAILABLE = -1;
+
+    private final IntSupplier connections; // Amount of connections currently open on the server
+    private final long intervalMillis; // Time between samples
+    private final MemoryMXBean memory; // Source of the heap usage
+    private long baselineHeap; // Used heap before the run, after a garbage collection
+    private long baselineRss; // RSS before the run
+    private volatile int peakConnections; // Highest amount of connections sampled
+    private volatile long peakHeap; // Lowest used heap sampled at the peak connections
+    private volatile long peakRss; // RSS sampled at the peak connections
+    private Thread sampler; // Thread sampling the memory
+
+    /**
+     * Constructs a new MemorySampler.
+     *
+     * @param connections the amount of connections currently open on the server
+     * @param intervalMillis the time between samples in milliseconds
+     */
+    public MemorySampler(IntSupplier connections, long intervalMillis) {
+        this.connections = connections;
+        this.intervalMillis = intervalMillis;
+        this.memory = ManagementFactory.getMemoryMXBean();
+    }
+
+    /**
+     * Records the baseline and starts sampling. Called before the load starts.
+     */
+    public void start() {
+        System.gc(); // Measure the baseline without the garbage of the startup
+        baselineHeap = usedHeap();
+        baselineRss = readRss();
+        sampler = Thread.ofPlatform().name("memory-sampler").daemon().start(this::sample);
+    }
+
+    /**
+     * Stops sampling and waits for the sampling thread to end. Called once the load is over.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void stop() throws InterruptedException {
+        sampler.interrupt();
+        sampler.join();
+    }
+
+    /**
+     * Samples the connections and the memory until interrupted.
+     */
+    private void sample() {
+        while (!Thread.currentThread().isInterrupted()) {
+            int current = connections.getAsInt();
+            if (current > peakConnections) {
+                peakConnections = current; // New peak, start over
+                peakHeap = usedHeap();
+                peakRss = readRss();
+            } else if (current == peakConnections && current > 0) {
+                peakHeap = Math.min(peakHeap, usedHeap()); // Closer to the live heap after a collection
+                peakRss = readRss();
+            }
+
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return; // Sampling stopped
+            }
+        }
+    }
+
+    /**
+     * Returns the heap currently used.
+     *
+     * @return the used heap in bytes
+     */
+    private long usedHeap() {
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Reads the resident set size of the process.
+     *
+     * @return the RSS in bytes, or {@code -1} if unavailable
+     */
+    private static long readRss() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) { // Such as "VmRSS:   123456 kB"
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return UNAVAILABLE; // Not Linux, or an unexpected format
+        }
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Returns the highest amount of connections sampled.
+     *
+     * @return the peak connections
+     */
+    public int getPeakConnections() {
+        return peakConnections;
+    }
+
+    /**
+     * Returns the heap growth over the baseline per connection at the peak connections.
+     *
+     * @return the heap per connection in bytes, or {@code -1} if no connection was sampled
+     */
+    public long getHeapPerConnection() {
+        return perConnection(peakHeap, baselineHeap);
+    }
+
+    /**
+     * Returns the RSS growth over the baseline per connection at the peak connections.
+     *
+     * @return the RSS per connection in bytes, or {@code -1} if no connection was sampled or the RSS is unavailable
+     */
+    public long getRssPerConnection() {
+        if (baselineRss == UNAVAILABLE || peakRss == UNAVAILABLE) {
+            return UNAVAILABLE;
+        }
+        return perConnection(peakRss, baselineRss);
+    }
+
+    /**
+     * Divides the growth of a measurement over its baseline by the peak connections.
+     *
+     * @param peak the measurement at the peak connections
+     * @param baseline the measurement before the run
+     * @return the growth per connection, or {@code -1} if no connection was sampled
+     */
+    private long perConnection(long peak, long baseline) {
+        int connections = peakConnections;
+        return connections > 0 ? Math.max(0, peak - baseline) / connections : UNAVAILABLE;
+    }
+
+    /**
+     * Returns the peak connections and the heap and RSS per connection in kilobytes.
+     *
+     * @return the memory summary
+     */
+    @Override
+    public String toString() {
+        return String.format("peak connections %d, heap/connection %s, RSS/connection %s",
+                getPeakConnections(), kilobytes(getHeapPerConnection()), kilobytes(getRssPerConnection()));
+    }
+
+    /**
+     * Formats an amount of bytes in kilobytes.
+     *
+     * @param bytes the amount of bytes, or {@code -1} if unavailable
+     * @return the formatted amount
+     */
+    private static String kilobytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.1f KB", bytes / 1024.0);
+    }
+}
@@ -0,0 +1,238 @@
+package org.phinix.lib.client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ScriptedClient} class is a headless {@link AbstractClient} driven by a {@link LoadScenario} instead of a
+ * user, used by {@link LoadGenerator} to simulate a client.
+ * <p>
+ * Messages received from the server are queued by the listener thread. A request sends a command and waits for the
+ * first received message starting with one of the expected prefixes, recording the round trip in the
+ * {@link LoadReport} under the command name; messages that do not match, such as broadcasts, are discarded. A
+ * request not answered within the response timeout, or answered by a closed connection, counts as an error. The
+ * time taken to connect and the time until the first message of the server are recorded too.
+ *
+ * @see LoadGenerator
+ * @see LoadScenario
+ */
+public class ScriptedClient extends AbstractClient {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final Object CLOSED = new Object(); // Queued once the connection closes, never equal to a message
+
+    private final int index; // Index of the client within the run
+    private final LoadScenario scenario; // Script followed by the client
+    private final LoadReport report; // Report receiving the measurements
+    private final long responseTimeoutNanos; // Time to wait for a response
+    private final long minThinkMillis; // Shortest pause between steps
+    private final long maxThinkMillis; // Longest pause between steps
+    private final BlockingQueue<Object> received; // Messages received and not yet consumed, then CLOSED
+    private long connectStartNanos; // Start of the connection, as a System.nanoTime() value
+
+    /**
+     * Constructs a new ScriptedClient.
+     *
+     * @param index the index of the client within the run
+     * @param scenario the script followed by the client
+     * @param report the report receiving the measurements
+     * @param responseTimeoutMillis the time to wait for a response in milliseconds
+     * @param minThinkMillis the shortest pause between steps in milliseconds
+     * @param maxThinkMillis the longest pause between steps in milliseconds
+     */
+    ScriptedClient(int index, LoadScenario scenario, LoadReport report, long responseTimeoutMillis,
+                   long minThinkMillis, long maxThinkMillis) {
+        this.index = index;
+        this.scenario = scenario;
+        this.report = report;
+        this.responseTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(responseTimeoutMillis);
+        this.minThinkMillis = minThinkMillis;
+        this.maxThinkMillis = maxThinkMillis;
+        this.received = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Connects the client to the server, recording the time taken to connect.
+     *
+     * @param serverAddress the address of the server
+     * @param serverPort the port of the server
+     */
+    @Override
+    public void connect(String serverAddress, int serverPort) {
+        connectStartNanos = System.nanoTime();
+        super.connect(serverAddress, serverPort);
+        if (isConnected) {
+            report.recordConnect(System.nanoTime() - connectStartNanos);
+        }
+    }
+
+    /**
+     * Starts the client, listening for messages on a virtual thread and running the scenario on the calling thread.
+     */
+    @Override
+    public void start() {
+        if (socket == null || !isConnected) {
+            logger.log(Level.DEBUG, "Cannot start scripted client {}. No active connection to server.", index);
+            return;
+        }
+
+        Thread.ofVirtual().name("load-listener-" + index).start(this::handleReceivedMessage); // Cheap for thousands of clients
+        handleInputUser();
+    }
+
+    /**
+     * Queues the messages received from the server until the connection closes, recording when the first one
+     * arrived.
+     */
+    @Override
+    protected void handleReceivedMessage() {
+        try {
+            String message;
+            boolean first = true;
+            while (isConnected && (message = messagesManager.receiveMessage()) != null) {
+                if (first) {
+                    report.recordFirstResponse(System.nanoTime() - connectStartNanos);
+                    first = false;
+                }
+                received.offer(message);
+            }
+        } catch (IOException e) {
+            logger.log(Level.DEBUG, "Scripted client {} connection closed: {}", index, e.getMessage());
+        } finally {
+            received.offer(CLOSED); // Wake up a pending request
+        }
+    }
+
+    /**
+     * Runs the scenario, counting it as failed if it throws an exception.
+     */
+    @Override
+    protected void handleInputUser() {
+        try {
+            scenario.run(this);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // The run is being cancelled
+        } catch (RuntimeException e) {
+            report.recordScenarioFailure();
+            logger.log(Level.ERROR, "Scenario of scripted client {} failed: ", index, e);
+        }
+    }
+
+    /**
+     * Sends a command and waits for its response: the first received message starting with one of the expected
+     * prefixes. The round trip is recorded under the command name, or counted as an error if no response arrives
+     * within the response timeout.
+     *
+     * @param command the name the measurement is recorded under
+     * @param line the line sent to the server
+     * @param expectedPrefixes the prefixes identifying the response, any message if none is given
+     * @return the response, or {@code null} if none arrived
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String request(String command, String line, String... expectedPrefixes) throws InterruptedException {
+        long start = System.nanoTime();
+        messagesManager.sendMessage(line);
+        String response = awaitMessage(start, expectedPrefixes);
+        report.recordRequest(command, System.nanoTime() - start, response != null);
+        return response;
+    }
+
+    /**
+     * Waits for a message pushed by the server, such as a broadcast, without sending anything or recording a
+     * measurement.
+     *
+     * @param expectedPrefixes the prefixes identifying the message, any message if none is given
+     * @return the message, or {@code null} if none arrived within the response timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String await(String... expectedPrefixes) throws InterruptedException {
+        return awaitMessage(System.nanoTime(), expectedPrefixes);
+    }
+
+    /**
+     * Pauses for a random think time between the configured bounds, as a user would between commands.
+     *
+     * @throws InterruptedException if interrupted while pausing
+     */
+    public void think() throws InterruptedException {
+        long millis = minThinkMillis >= maxThinkMillis
+                ? minThinkMillis
+                : ThreadLocalRandom.current().nextLong(minThinkMillis, maxThinkMillis + 1);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Returns the index of the client within the run, from zero to the amount of clients minus one.
+     *
+     * @return the client index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns whether the connection to the server is still open.
+     *
+     * @return {@code true} if connected
+     */
+    public boolean isConnected() {
+        return isConnected && received.peek() != CLOSED;
+    }
+
+    /**
+     * Takes received messages until one matches the expected prefixes, discarding the others.
+     *
+     * @param start the moment the wait started, as a {@link System#nanoTime()} value
+     * @param expectedPrefixes the prefixes identifying the message, any message if empty
+     * @return the matching message, or {@code null} on timeout or closed connection
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private String awaitMessage(long start, String[] expectedPrefixes) throws InterruptedException {
+        long deadline = start + responseTimeoutNanos;
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            Object item = remaining > 0 ? received.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (item == null) {
+                logger.log(Level.DEBUG, "Scripted client {} timed out waiting for {}", index, String.join("|", expectedPrefixes));
+                return null;
+            }
+            if (item == CLOSED) {
+                received.offer(CLOSED); // Keep failing the following requests right away
+                return null;
+            }
+            String message = (String) item;
+            if (matches(message, expectedPrefixes)) {
+                return message;
+            }
+            report.recordUnmatchedMessage(); // Broadcast or late response
+        }
+    }
+
+    /**
+     * Returns whether a message starts with one of the expected prefixes.
+     *
+     * @param message the message
+     * @param expectedPrefixes the prefixes, any message matches if empty
+     * @return {@code true} if the message matches
+     */
+    private static boolean matches(String message, String[] expectedPrefixes) {
+        if (expectedPrefixes.length == 0) {
+            return true;
+        }
+        for (String prefix : expectedPrefixes) {
+            if (message.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,241 @@
+package org.phinix.lib.common.socket;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ByteBufferPool} class is a thread-safe pool of {@link ByteBuffer}s organized in power-of-two size classes.
+ * <p>
+ * Transports borrow a buffer for a single read or write with {@link #acquire(int)} and give it back with
+ * {@link #release(ByteBuffer)}, so idle connections do not keep I/O buffers of their own. Requests larger than
+ * the biggest size class are served with a new unpooled buffer. Each size class retains a bounded number of
+ * idle buffers; buffers released beyond that bound are left to the garbage collector.
+ * <p>
+ * Two shared pools are provided: {@link #direct()} for channel I/O, where direct buffers avoid a copy on every
+ * system call, and {@link #heap()} for stream I/O, which needs buffers backed by an array. Only the event loop
+ * transport therefore does its I/O with direct buffers; socket streams copy through an array either way, so a
+ * direct buffer would only add a copy to the blocking transports.
+ * Hit, miss and in-use counters are exposed for monitoring.
+ *
+ * @see MessagesManager
+ */
+public final class ByteBufferPool {
+    /**
+     * Default smallest size class in bytes.
+     */
+    public static final int DEFAULT_MIN_CLASS_SIZE = 4 * 1024;
+    /**
+     * Default biggest size class in bytes.
+     */
+    public static final int DEFAULT_MAX_CLASS_SIZE = 64 * 1024;
+    /**
+     * Default maximum number of idle buffers retained per size class.
+     */
+    public static final int DEFAULT_MAX_POOLED_PER_CLASS = 256;
+
+    private static final ByteBufferPool DIRECT = new ByteBufferPool(true); // Shared pool of direct buffers
+    private static final ByteBufferPool HEAP = new ByteBufferPool(false); // Shared pool of heap buffers
+
+    private final boolean direct; // Flag indicating whether the pool allocates direct buffers
+    private final int minClassShift; // log2 of the smallest size class
+    private final int maxClassSize; // Biggest size class in bytes
+    private final int maxPooledPerClass; // Maximum number of idle buffers retained per size class
+    private final Queue<ByteBuffer>[] classes; // Idle buffers of each size class
+    private final AtomicInteger[] pooledCounts; // Amount of idle buffers of each size class
+    private final AtomicLong hits; // Acquisitions served by an idle buffer
+    private final AtomicLong misses; // Acquisitions that allocated a new buffer
+    private final AtomicInteger inUse; // Buffers acquired and not released yet
+
+    /**
+     * Constructs a new ByteBufferPool with the default size classes.
+     *
+     * @param direct {@code true} to allocate direct buffers, {@code false} for heap buffers
+     */
+    public ByteBufferPool(boolean direct) {
+        this(direct, DEFAULT_MIN_CLASS_SIZE, DEFAULT_MAX_CLASS_SIZE, DEFAULT_MAX_POOLED_PER_CLASS);
+    }
+
+    /**
+     * Constructs a new ByteBufferPool with the specified size classes.
+     *
+     * @param direct {@code true} to allocate direct buffers, {@code false} for heap buffers
+     * @param minClassSize the smallest size class in bytes, a power of two
+     * @param maxClassSize the biggest size class in bytes, a power of two not smaller than {@code minClassSize}
+     * @param maxPooledPerClass the maximum number of idle buffers retained per size class
+     * @throws IllegalArgumentException if the sizes are not powers of two or are out of order
+     */
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool(boolean direct, int minClassSize, int maxClassSize, int maxPooledPerClass) {
+        if (Integer.bitCount(minClassSize) != 1 || Integer.bitCount(maxClassSize) != 1 || minClassSize > maxClassSize) {
+            throw new IllegalArgumentException("Invalid size classes: " + minClassSize + ".." + maxClassSize);
+        }
+        if (maxPooledPerClass < 0) {
+            throw new IllegalArgumentException("maxPooledPerClass must not be negative: " + maxPooledPerClass);
+        }
+
+        this.direct = direct;
+        this.minClassShift = Integer.numberOfTrailingZeros(minClassSize);
+        this.maxClassSize = maxClassSize;
+        this.maxPooledPerClass = maxPooledPerClass;
+
+        int classCount = Integer.numberOfTrailingZeros(maxClassSize) - minClassShift + 1;
+        this.classes = (Queue<ByteBuffer>[]) new Queue<?>[classCount];
+        this.pooledCounts = new AtomicInteger[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+            pooledCounts[i] = new AtomicInteger();
+        }
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.inUse = new AtomicInteger();
+    }
+
+    /**
+     * Returns the shared pool of direct buffers.
+     *
+     * @return the shared direct pool
+     */
+    public static ByteBufferPool direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Returns the shared pool of heap buffers.
+     *
+     * @return the shared heap pool
+     */
+    public static ByteBufferPool heap() {
+        return HEAP;
+    }
+
+    /**
+     * Borrows a cleared buffer with at least the requested capacity.
+     *
+     * @param minCapacity the minimum capacity in bytes
+     * @return a buffer ready to be written, to be given back with {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        inUse.incrementAndGet();
+        int index = classIndex(minCapacity);
+        if (index < 0) {
+            misses.incrementAndGet();
+            return allocate(minCapacity); // Bigger than every size class, not pooled
+        }
+
+        ByteBuffer buffer = classes[index].poll();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return allocate(classSize(index)); // No idle buffer of this class
+        }
+
+        pooledCounts[index].decrementAndGet();
+        hits.incrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Gives back a buffer borrowed with {@link #acquire(int)}. The buffer must not be used afterwards.
+     *
+     * @param buffer the buffer to give back
+     */
+    public void release(ByteBuffer buffer) {
+        inUse.decrementAndGet();
+        int capacity = buffer.capacity();
+        int index = classIndex(capacity);
+        if (index < 0 || classSize(index) != capacity || buffer.isDirect() != direct) {
+            return; // Not a pooled size, leave it to the garbage collector
+        }
+
+        if (pooledCounts[index].incrementAndGet() > maxPooledPerClass) {
+            pooledCounts[index].decrementAndGet(); // Size class already full
+            return;
+        }
+        classes[index].offer(buffer);
+    }
+
+    /**
+     * Returns the index of the smallest size class holding the given capacity.
+     *
+     * @param capacity the capacity in bytes
+     * @return the size class index, or {@code -1} if the capacity exceeds every size class
+     */
+    private int classIndex(int capacity) {
+        if (capacity > maxClassSize) {
+            return -1;
+        }
+        int shift = capacity <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(capacity - 1); // ceil(log2(capacity))
+        return Math.max(0, shift - minClassShift);
+    }
+
+    /**
+     * Returns the size in bytes of a size class.
+     *
+     * @param index the size class index
+     * @return the size class size
+     */
+    private int classSize(int index) {
+        return 1 << (minClassShift + index);
+    }
+
+    /**
+     * Allocates a new buffer of the kind of this pool.
+     *
+     * @param capacity the capacity in bytes
+     * @return the new buffer
+     */
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Returns whether the pool allocates direct buffers.
+     *
+     * @return {@code true} for direct buffers, {@code false} for heap buffers
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns the number of acquisitions served by an idle buffer.
+     *
+     * @return the pool hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of acquisitions that allocated a new buffer.
+     *
+     * @return the pool misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of buffers currently borrowed.
+     *
+     * @return the buffers in use
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Returns the number of idle buffers retained by the pool.
+     *
+     * @return the pooled buffers
+     */
+    public int getPooled() {
+        int pooled = 0;
+        for (AtomicInteger count : pooledCounts) {
+            pooled += count.get();
+        }
+        return pooled;
+    }
+}
@@ -0,0 +1,147 @@
+package org.phinix.lib.common.socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code LengthPrefixedMessageCodec} class frames messages as a 4-byte big-endian length followed by the
+ * UTF-8 payload.
+ * <p>
+ * Frames are extracted by reading their length, without scanning the payload, and messages may contain any
+ * character, including line delimiters.
+ *
+ * @see MessageCodec
+ * @see LineMessageCodec
+ */
+public class LengthPrefixedMessageCodec implements MessageCodec {
+    /**
+     * Default maximum payload length of a single frame in bytes.
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024 * 1024;
+
+    private static final int LENGTH_FIELD_SIZE = Integer.BYTES; // Size of the length prefix
+
+    private final int maxFrameLength; // Maximum accepted payload length of a single frame
+
+    /**
+     * Constructs a new LengthPrefixedMessageCodec with the default maximum frame length.
+     */
+    public LengthPrefixedMessageCodec() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Constructs a new LengthPrefixedMessageCodec with the specified maximum frame length.
+     *
+     * @param maxFrameLength the maximum accepted payload length of a single frame in bytes
+     * @throws IllegalArgumentException if {@code maxFrameLength} is not positive
+     */
+    public LengthPrefixedMessageCodec(int maxFrameLength) {
+        if (maxFrameLength < 1) {
+            throw new IllegalArgumentException("maxFrameLength must be positive: " + maxFrameLength);
+        }
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Encodes a message preceded by its length.
+     *
+     * @param message the message to encode
+     * @return the encoded frame
+     */
+    @Override
+    public ByteBuffer encode(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_FIELD_SIZE + payload.length);
+        frame.putInt(payload.length).put(payload).flip(); // Length prefix followed by the payload
+        return frame;
+    }
+
+    /**
+     * Creates a decoder extracting length-prefixed frames from the received bytes.
+     *
+     * @return a new frame decoder
+     */
+    @Override
+    public MessageDecoder newDecoder() {
+        return new FrameDecoder();
+    }
+
+    /**
+     * Decoder keeping the length prefix and payload bytes of a frame that has not been completed yet.
+     */
+    private final class FrameDecoder implements MessageDecoder {
+        private final ByteBuffer lengthField = ByteBuffer.allocate(LENGTH_FIELD_SIZE); // Incomplete length prefix
+        private byte[] payload; // Payload of the current frame, null while reading the length prefix
+        private int payloadRead; // Bytes of the current payload received so far
+
+        @Override
+        public String decode(ByteBuffer data) throws IOException {
+            if (payload == null) {
+                if (lengthField.position() == 0 && data.remaining() >= LENGTH_FIELD_SIZE) {
+                    int length = validate(data.getInt(data.position()));
+                    if (data.remaining() >= LENGTH_FIELD_SIZE + length) {
+                        return decodeInPlace(data, length); // Whole frame in the buffer, no copy needed
+                    }
+                }
+
+                while (lengthField.hasRemaining() && data.hasRemaining()) {
+                    lengthField.put(data.get()); // Accumulate the length prefix
+                }
+                if (lengthField.hasRemaining()) {
+                    return null; // Length prefix still incomplete
+                }
+                payload = new byte[validate(lengthField.flip().getInt())];
+                payloadRead = 0;
+                lengthField.clear();
+            }
+
+            int chunk = Math.min(payload.length - payloadRead, data.remaining());
+            data.get(payload, payloadRead, chunk); // Accumulate the payload
+            payloadRead += chunk;
+            if (payloadRead < payload.length) {
+                return null; // Payload still incomplete
+            }
+
+            String message = new String(payload, StandardCharsets.UTF_8);
+            payload = null;
+            return message;
+        }
+
+        /**
+         * Decodes a frame stored entirely in the data, starting at its current position.
+         *
+         * @param data the received bytes
+         * @param length the payload length
+         * @return the decoded message
+         */
+        private String decodeInPlace(ByteBuffer data, int length) {
+            int start = data.position() + LENGTH_FIELD_SIZE;
+            String message;
+            if (data.hasArray()) {
+                message = new String(data.array(), data.arrayOffset() + start, length, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                data.get(start, bytes);
+                message = new String(bytes, StandardCharsets.UTF_8);
+            }
+            data.position(start + length); // Skip the whole frame
+            return message;
+        }
+
+        /**
+         * Validates a received payload length.
+         *
+         * @param length the payload length
+         * @return the same length
+         * @throws IOException if the length is negative or exceeds the maximum frame length
+         */
+        private int validate(int length) throws IOException {
+            if (length < 0 || length > maxFrameLength) {
+                throw new IOException("Invalid frame length " + length + ", maximum is " + maxFrameLength + " bytes");
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.phinix.lib.common.socket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@code LineMessageCodec} class frames messages as UTF-8 text lines.
+ * <p>
+ * Each message is followed by a {@code '\n'} delimiter. When decoding, a trailing {@code '\r'} is removed so
+ * CRLF terminated lines are accepted too. Messages therefore cannot contain line delimiters.
+ * This is the default codec, compatible with plain text clients such as telnet.
+ *
+ * @see MessageCodec
+ * @see LengthPrefixedMessageCodec
+ */
+public class LineMessageCodec implements MessageCodec {
+    /**
+     * Default maximum length of a single line in bytes.
+     */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final byte LINE_DELIMITER = '\n'; // Delimiter appended to each message
+    private static final byte CARRIAGE_RETURN = '\r'; // Optional delimiter prefix removed when decoding
+
+    private final int maxLineLength; // Maximum accepted length of a single line
+
+    /**
+     * Constructs a new LineMessageCodec with the default maximum line length.
+     */
+    public LineMessageCodec() {
+        this(DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * Constructs a new LineMessageCodec with the specified maximum line length.
+     *
+     * @param maxLineLength the maximum accepted length of a single line in bytes
+     * @throws IllegalArgumentException if {@code maxLineLength} is not positive
+     */
+    public LineMessageCodec(int maxLineLength) {
+        if (maxLineLength < 1) {
+            throw new IllegalArgumentException("maxLineLength must be positive: " + maxLineLength);
+        }
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Encodes a message followed by the line delimiter.
+     *
+     * @param message the message to encode
+     * @return the encoded frame
+     */
+    @Override
+    public ByteBuffer encode(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = Arrays.copyOf(payload, payload.length + 1);
+        frame[payload.length] = LINE_DELIMITER; // Message followed by the line delimiter
+        return ByteBuffer.wrap(frame);
+    }
+
+    /**
+     * Creates a decoder splitting the received bytes into lines.
+     *
+     * @return a new line decoder
+     */
+    @Override
+    public MessageDecoder newDecoder() {
+        return new LineDecoder();
+    }
+
+    /**
+     * Decoder keeping the bytes of a line that has not been completed yet.
+     */
+    private final class LineDecoder implements MessageDecoder {
+        private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream(); // Incomplete line bytes
+
+        @Override
+        public String decode(ByteBuffer data) throws IOException {
+            int start = data.position();
+            int end = indexOfDelimiter(data); // Position of the delimiter, or -1 if the line is incomplete
+            int available = (end < 0 ? data.limit() : end) - start;
+            if (partialLine.size() + available > maxLineLength) {
+                throw new IOException("Line exceeds maximum length of " + maxLineLength + " bytes");
+            }
+
+            if (end < 0) {
+                append(data, available); // Keep the incomplete line until the rest arrives
+                return null;
+            }
+
+            String line;
+            if (partialLine.size() == 0) {
+                line = decodeLine(data, available); // Whole line in the buffer, decode it in place
+            } else {
+                append(data, available);
+                byte[] bytes = partialLine.toByteArray();
+                partialLine.reset();
+                line = toLine(bytes, 0, bytes.length);
+            }
+            data.position(end + 1); // Skip the delimiter
+            return line;
+        }
+
+        /**
+         * Appends bytes from the current position of the data to the incomplete line.
+         *
+         * @param data the received bytes
+         * @param length the amount of bytes to append
+         */
+        private void append(ByteBuffer data, int length) {
+            if (data.hasArray()) {
+                partialLine.write(data.array(), data.arrayOffset() + data.position(), length);
+                data.position(data.position() + length);
+                return;
+            }
+
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            partialLine.writeBytes(bytes);
+        }
+
+        /**
+         * Decodes a line stored entirely in the data, starting at its current position.
+         *
+         * @param data the received bytes
+         * @param length the length of the line without its delimiter
+         * @return the decoded line
+         */
+        private String decodeLine(ByteBuffer data, int length) {
+            if (data.hasArray()) {
+                return toLine(data.array(), data.arrayOffset() + data.position(), length);
+            }
+
+            byte[] bytes = new byte[length];
+            data.get(data.position(), bytes);
+            return toLine(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Returns the position of the next line delimiter in the data.
+     *
+     * @param data the received bytes
+     * @return the position of the delimiter, or {@code -1} if there is none
+     */
+    private static int indexOfDelimiter(ByteBuffer data) {
+        for (int i = data.position(); i < data.limit(); i++) {
+            if (data.get(i) == LINE_DELIMITER) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts the bytes of a line into a String, removing a trailing carriage return.
+     *
+     * @param bytes the line bytes
+     * @param offset the offset of the line
+     * @param length the length of the line
+     * @return the decoded line
+     */
+    private static String toLine(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == CARRIAGE_RETURN) {
+            length--; // Accept CRLF terminated lines
+        }
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+}
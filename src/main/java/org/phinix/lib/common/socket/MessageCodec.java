@@ -0,0 +1,40 @@
+package org.phinix.lib.common.socket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@code MessageCodec} interface defines how messages are framed on the wire.
+ * <p>
+ * The codec is selected per server through {@code ServerOptions} and per client through
+ * {@code AbstractClient}, and both sides of a connection must use the same one.
+ * Codecs are stateless and can be shared by every connection; the per-connection decoding state lives in
+ * the {@link MessageDecoder} returned by {@link #newDecoder()}.
+ * <p>
+ * Implementations provided:
+ * <ul>
+ *     <li>{@link LineMessageCodec}: UTF-8 text terminated by a line delimiter (default).</li>
+ *     <li>{@link LengthPrefixedMessageCodec}: UTF-8 payload preceded by its length, so messages may contain
+ *     line delimiters and frames are extracted without scanning their content.</li>
+ * </ul>
+ *
+ * @see MessagesManager
+ * @see MessageDecoder
+ */
+public interface MessageCodec {
+    /**
+     * Encodes a message into a frame.
+     * <p>
+     * The returned buffer is ready to be read and may be shared between recipients, so it must not be modified.
+     *
+     * @param message the message to encode
+     * @return the encoded frame
+     */
+    ByteBuffer encode(String message);
+
+    /**
+     * Creates a decoder holding the decoding state of a single connection.
+     *
+     * @return a new decoder
+     */
+    MessageDecoder newDecoder();
+}
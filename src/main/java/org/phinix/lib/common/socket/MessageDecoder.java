@@ -0,0 +1,26 @@
+package org.phinix.lib.common.socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@code MessageDecoder} interface extracts messages from the bytes received on a single connection.
+ * <p>
+ * A decoder keeps the state of a message that has only been partially received, so a new decoder must be
+ * created through {@link MessageCodec#newDecoder()} for every connection.
+ *
+ * @see MessageCodec
+ */
+public interface MessageDecoder {
+    /**
+     * Decodes the next complete message from the given data.
+     * <p>
+     * Bytes following the returned message are left in {@code data} for the next call. When no complete message
+     * is available, every remaining byte is consumed and kept until the rest of the message arrives.
+     *
+     * @param data the received bytes, ready to be read
+     * @return the next complete message, or {@code null} if more data is needed
+     * @throws IOException if the data is not a valid frame, for example if it exceeds the maximum frame length
+     */
+    String decode(ByteBuffer data) throws IOException;
+}
@@ -9,27 +9,99 @@ import org.phinix.lib.server.core.worker.AbstractWorker;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@code MessageManager} class manages messages sent to and received from a client socket.
  * <p>
  * This class encapsulates the logic for handling socket-based message transfers, making it easier to read and maintain.
  * It allows for sending and receiving messages to/from clients through a socket.
+ * <p>
+ * Sending never blocks the caller: messages are encoded into an {@link OutboundQueue} and written by a single
+ * writer at a time, so a slow peer cannot stall a broadcast or the lock of a room. The queue watermarks are
+ * set with {@link #setWriteBufferWatermarks(int, int)} and {@link #isWritable()} reports whether the peer
+ * is keeping up. Beyond the hard limit set with {@link #setWriteBufferLimit(int, OverflowPolicy)}, messages are
+ * dropped or the connection is closed, so a peer that stops reading cannot grow the heap without bound.
+ * <p>
+ * In stream mode the queue is drained on a virtual writer thread that is only alive while there is data to write.
+ * Reads and writes borrow their buffers from the shared {@link ByteBufferPool#heap()} pool: writes only while data
+ * is being written, reads only once data has arrived and until it is decoded, so an idle connection holds no
+ * buffer while its reader waits.
+ * When the socket is backed by a non-blocking {@link SocketChannel} (NIO transport), the manager works in
+ * channel mode: the event loop owning the channel writes the queue through {@link #writePending()} once it is
+ * notified by the listener set with {@link #setWriteRequestListener(Runnable)}.
+ * In this mode messages are read by the event loop, so {@link #receiveMessage()} must not be used.
+ * <p>
+ * Reading can be paused with {@link #pauseReading()} when the messages already received cannot be processed as
+ * fast as they arrive, so the peer is slowed down by TCP flow control instead of growing a backlog. In stream mode
+ * {@link #receiveMessage()} waits until {@link #resumeReading()}; in channel mode the event loop stops reading the
+ * channel once notified by the listener set with {@link #setReadInterestListener(Runnable)}.
+ * <p>
+ * Messages sent between {@link #beginBatch()} and {@link #endBatch()} are only queued, and are written together
+ * when the outermost batch ends, in as few system calls as possible. {@code CommandProcessor} wraps every command
+ * in a batch, so all the output of a command leaves in a single write. A batch belongs to the thread that opened
+ * it: messages sent to the same client by other threads, such as room broadcasts, are written right away, along
+ * with whatever the batch has queued so far.
+ * <p>
+ * Messages are framed by a {@link MessageCodec}, newline terminated text by default. A different codec is set with
+ * {@link #setCodec(MessageCodec)} before any message is exchanged.
  *
  * @see Worker
  * @see AbstractWorker
+ * @see OutboundQueue
+ * @see MessageCodec
  */
 public class MessagesManager {
     private static final Logger logger = LogManager.getLogger();
 
+    private static final int READ_BUFFER_SIZE = 8 * 1024; // Size of the buffer borrowed for a read in stream mode
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024; // Size of the buffer borrowed for a write in stream mode
+    private static final int MAX_GATHERED_FRAMES = 64; // Maximum amount of messages written by one gathering write
+    private static final int MAX_RECEIVED_BATCH = 256; // Maximum amount of messages returned by receiveMessages()
+
+    // Writer threads draining outbound queues in stream mode, one at a time per manager
+    private static final ExecutorService writerExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("writer-", 0).factory());
+
     private final Socket socket; // Client socket for communication
-    private final BufferedReader input; // Input stream for receiving messages
-    private final PrintWriter output; // Output stream for sending messages
+    private final SocketChannel channel; // Non-blocking channel of the socket, null in stream mode
+    private final InputStream input; // Input stream for receiving messages
+    private final OutputStream output; // Output stream for sending messages
+    private final Queue<String> receivedMessages; // Messages decoded and not returned yet, used by the reading thread only
+    private volatile OverflowPolicy overflowPolicy; // Applied to messages refused by the outbound queue
+    private volatile MessageCodec codec; // Codec framing the messages
+    private MessageDecoder decoder; // Decoding state of the input stream, used by the reading thread only
+    private final OutboundQueue outboundQueue; // Encoded messages waiting to be written
+    private final ReentrantLock writeLock; // Serializes writers of the outbound queue, never pins a virtual writer
+    private final AtomicBoolean draining; // Flag indicating whether a writer thread is draining the queue
+    private final AtomicBoolean closing; // Flag indicating whether the connection is being closed
+    private final AtomicInteger batchingThreads; // Threads with an open batch on this manager, zero on the fast path
+    private volatile long writeCalls; // Write system calls issued, updated under writeLock
+    private volatile long bytesWritten; // Bytes written to the socket, updated under writeLock
+    private volatile Runnable writeRequestListener; // Notified when new messages are queued in channel mode
+    private final ReentrantLock readPauseLock; // Guards the wait of a paused reader in stream mode
+    private final Condition readResumed; // Signalled when reading is resumed or the connection closes
+    private volatile boolean readingPaused; // Flag indicating whether no more messages should be read
+    private volatile Runnable readInterestListener; // Notified when reading is paused or resumed in channel mode
 
     /**
      * Constructs a new MessagesManager with the specified client socket.
@@ -43,9 +115,43 @@ public class MessagesManager {
         logger.log(Level.DEBUG, "Initializing MessagesManager for socket: {}", socket);
 
         this.socket = socket;
+        this.channel = resolveNonBlockingChannel(socket);
+        this.outboundQueue = new OutboundQueue();
+        this.writeLock = new ReentrantLock();
+        this.draining = new AtomicBoolean(false);
+        this.closing = new AtomicBoolean(false);
+        this.batchingThreads = new AtomicInteger();
+        this.readPauseLock = new ReentrantLock();
+        this.readResumed = readPauseLock.newCondition();
+        this.overflowPolicy = OverflowPolicy.CLOSE_CONNECTION;
+        this.codec = new LineMessageCodec();
+        this.decoder = codec.newDecoder();
 
-        this.input = createSocketInput(); // Creates input stream for receiving messages
-        this.output = createSocketOutput(); // Creates output stream for sending messages
+        if (channel != null) {
+            // Channel mode: the event loop reads and writes the channel, no streams are needed
+            this.input = null;
+            this.output = null;
+            this.receivedMessages = null;
+        } else {
+            this.input = openSocketInput(); // Opens input stream for receiving messages
+            this.output = openSocketOutput(); // Opens output stream for sending messages
+            this.receivedMessages = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Returns the non-blocking channel backing the socket, if any.
+     *
+     * @param socket the client socket
+     * @return the non-blocking channel of the socket, or {@code null} if the socket is stream based
+     */
+    private static SocketChannel resolveNonBlockingChannel(Socket socket) {
+        if (socket == null) {
+            return null;
+        }
+
+        SocketChannel socketChannel = socket.getChannel();
+        return socketChannel != null && !socketChannel.isBlocking() ? socketChannel : null;
     }
 
     /**
@@ -56,7 +162,7 @@ public class MessagesManager {
      * @param message the message to send
      */
     public void sendMessage(String message) {
-        output.println(message); // Sends the message to the client
+        write(message); // Sends the message to the client
         logger.log(Level.DEBUG, "Sent message to client: {}", message); // Logs the sent message
     }
 
@@ -71,75 +177,688 @@ public class MessagesManager {
      */
     public void sendMessageAndLog(Level level, String message, Object... args) {
         logger.log(level, message, args); // Logs the message with the provided log level and arguments
-        output.println(message); // Sends the message to the client
+        write(message); // Sends the message to the client
+    }
+
+    /**
+     * Sends a message that has already been encoded with the codec of this manager.
+     * <p>
+     * The frame is shared, not copied: every recipient queues its own view of the same bytes, so one encoded
+     * message can be sent to many clients. The frame must not be modified afterwards.
+     *
+     * @param frame the encoded message
+     * @see MessageCodec#encode(String)
+     */
+    public void sendEncoded(ByteBuffer frame) {
+        write(frame.duplicate()); // Independent position over the shared bytes
+    }
+
+    /**
+     * Encodes and queues a message to be written to the client.
+     *
+     * @param message the message to write
+     */
+    private void write(String message) {
+        write(codec.encode(message));
+    }
+
+    /**
+     * Queues an encoded message to be written to the client without blocking.
+     * <p>
+     * In stream mode a writer thread is scheduled to drain the queue; in channel mode the write request listener
+     * is notified so the owning event loop flushes it. If the queue is full, the {@link OverflowPolicy} applies.
+     *
+     * @param frame the encoded message
+     */
+    private void write(ByteBuffer frame) {
+        if (closing.get()) {
+            logger.log(Level.DEBUG, "Dropping message to closed connection: {}", socket);
+            return;
+        }
+
+        if (!outboundQueue.offer(frame)) { // Queue the encoded message
+            overflow();
+            return;
+        }
+        if (batchingThreads.get() == 0 || BatchScope.current().depth(this) == 0) {
+            flush(); // Not batching on this thread, write right away
+        }
+    }
+
+    /**
+     * Applies the overflow policy to a message refused because the peer has stopped reading.
+     */
+    private void overflow() {
+        if (overflowPolicy == OverflowPolicy.DROP_MESSAGE) {
+            logger.log(Level.DEBUG, "Outbound queue full, dropping message to {}", socket);
+            return;
+        }
+
+        if (!closing.compareAndSet(false, true)) {
+            return; // Already closing
+        }
+        signalReaders(); // A paused reader must see the end of the stream
+        logger.log(Level.WARN, "Outbound queue full with {} bytes pending, closing connection {}",
+                outboundQueue.getPendingBytes(), socket);
+        closeSocket(); // Discard the backlog, the reader or the event loop then sees the connection closed
+
+        Runnable listener = writeRequestListener;
+        if (listener != null) {
+            listener.run(); // Let the event loop notice the closed channel
+        }
+    }
+
+    /**
+     * Requests every queued message to be written without blocking.
+     * <p>
+     * In stream mode a writer thread is scheduled to drain the queue; in channel mode the write request listener
+     * is notified so the owning event loop flushes it.
+     */
+    public void flush() {
+        if (channel == null) {
+            if (!outboundQueue.isEmpty()) {
+                scheduleDrain(); // Let a writer thread write the messages
+            }
+            return;
+        }
+
+        Runnable listener = writeRequestListener;
+        if (listener != null) {
+            listener.run(); // Notify the event loop that there is data to write
+        }
+    }
+
+    /**
+     * Starts a batch on the calling thread: messages it sends until the matching {@link #endBatch()} are queued but
+     * not written. Batches can be nested; messages are written when the outermost batch ends. Messages sent by other
+     * threads meanwhile are written right away.
+     */
+    public void beginBatch() {
+        if (BatchScope.current().enter(this)) {
+            batchingThreads.incrementAndGet(); // Outermost batch of this thread
+        }
+    }
+
+    /**
+     * Ends a batch started with {@link #beginBatch()} on the calling thread, writing the queued messages if it was
+     * the outermost one.
+     *
+     * @throws IllegalStateException if the calling thread has no open batch
+     */
+    public void endBatch() {
+        int depth = BatchScope.current().exit(this);
+        if (depth < 0) {
+            throw new IllegalStateException("endBatch() called without a matching beginBatch()");
+        }
+        if (depth == 0) {
+            batchingThreads.decrementAndGet();
+            flush(); // Write everything queued during the batch at once
+        }
+    }
+
+    /**
+     * Schedules a writer thread to drain the outbound queue in stream mode, unless one is already draining it.
+     */
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            writerExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes every queued message to the output stream, closing the socket afterwards if a close was requested.
+     * Runs on a writer thread.
+     */
+    private void drain() {
+        try {
+            do {
+                writeQueueToStream(); // Write until the queue is empty
+                draining.set(false);
+                // Messages queued after the last check are written here unless another writer took over
+            } while (!outboundQueue.isEmpty() && draining.compareAndSet(false, true));
+        } catch (IOException e) {
+            draining.set(false);
+            outboundQueue.clear(); // The connection is broken, nothing else can be written
+            logger.log(Level.DEBUG, "Error writing to socket {}: {}", socket, e.getMessage());
+        }
+
+        if (closing.get() && !draining.get()) {
+            closeSocket(); // Close requested while data was pending, close now that it is written
+        }
+    }
+
+    /**
+     * Writes every queued message to the output stream through a pooled buffer.
+     * <p>
+     * Messages are copied into the buffer and written each time it fills up, and once more at the end.
+     *
+     * @throws IOException if an I/O error occurs while writing to the socket
+     */
+    private void writeQueueToStream() throws IOException {
+        writeLock.lock(); // Not a monitor: a virtual writer blocked in write() releases its carrier thread
+        try {
+            ByteBuffer buffer = ByteBufferPool.heap().acquire(WRITE_BUFFER_SIZE); // Borrowed only while writing
+            try {
+                ByteBuffer frame;
+                while ((frame = outboundQueue.peek()) != null) {
+                    int length = frame.remaining();
+                    while (frame.hasRemaining()) {
+                        if (!buffer.hasRemaining()) {
+                            writeToStream(buffer); // Buffer full, write it out
+                        }
+                        int chunk = Math.min(frame.remaining(), buffer.remaining());
+                        buffer.put(buffer.position(), frame, frame.position(), chunk); // Copy without changing the frame
+                        buffer.position(buffer.position() + chunk);
+                        frame.position(frame.position() + chunk);
+                    }
+                    outboundQueue.remove();
+                    outboundQueue.onWritten(length);
+                }
+                writeToStream(buffer); // Write what is left
+            } finally {
+                ByteBufferPool.heap().release(buffer);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the content of a buffer to the output stream and clears it.
+     *
+     * @param buffer the buffer to write, in write mode
+     * @throws IOException if an I/O error occurs while writing to the socket
+     */
+    private void writeToStream(ByteBuffer buffer) throws IOException {
+        if (buffer.position() > 0) {
+            output.write(buffer.array(), buffer.arrayOffset(), buffer.position()); // Parks only this virtual writer
+            writeCalls++;
+            bytesWritten += buffer.position();
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes queued messages to the channel until all of them are written or the socket send buffer is full.
+     * <p>
+     * Up to {@value #MAX_GATHERED_FRAMES} messages are written by a single gathering write.
+     * This method is only meaningful in channel mode and must be called from the event loop owning the channel.
+     *
+     * @return {@code true} if every queued message was written, {@code false} if data is still pending
+     * @throws IOException if an I/O error occurs while writing to the channel
+     */
+    public boolean writePending() throws IOException {
+        if (channel == null) {
+            return true; // Stream mode queues are drained by writer threads
+        }
+
+        writeLock.lock();
+        try {
+            ByteBuffer[] frames = null;
+            while (!outboundQueue.isEmpty()) {
+                if (frames == null) {
+                    frames = new ByteBuffer[MAX_GATHERED_FRAMES];
+                }
+                int count = outboundQueue.peek(frames);
+                long written = channel.write(frames, 0, count); // Write as much as the socket send buffer accepts
+                writeCalls++;
+                bytesWritten += written;
+                outboundQueue.onWritten(written);
+
+                for (int i = 0; i < count; i++) {
+                    if (frames[i].hasRemaining()) {
+                        return false; // Socket send buffer is full, wait until it is writable again
+                    }
+                    outboundQueue.remove(); // Frame fully written, remove it from the queue
+                }
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the connection once the messages already queued are written.
+     * <p>
+     * In stream mode, if a writer thread is still draining the queue, the input is shut down and the socket is
+     * closed by that writer when it finishes. In channel mode the queue is written as far as the socket accepts without blocking and the socket
+     * is closed right away. Messages sent after this call are dropped.
+     */
+    public void close() {
+        if (!closing.compareAndSet(false, true)) {
+            return; // Already closing
+        }
+        signalReaders(); // A paused reader must see the end of the stream
+
+        if (channel != null) {
+            try {
+                writePending(); // Best effort, never blocks
+            } catch (IOException e) {
+                logger.log(Level.DEBUG, "Error flushing socket {} before closing: {}", socket, e.getMessage());
+            }
+            closeSocket();
+            return;
+        }
+
+        if (outboundQueue.isEmpty() && !draining.get()) {
+            closeSocket(); // Nothing pending, close right away
+            return;
+        }
+
+        try {
+            socket.shutdownInput(); // Stop reading so the reader sees the end of the stream
+        } catch (IOException e) {
+            logger.log(Level.DEBUG, "Error shutting down input of socket {}: {}", socket, e.getMessage());
+        }
+        scheduleDrain(); // The writer closes the socket once the queue is written
+    }
+
+    /**
+     * Closes the socket, discarding anything still queued.
+     */
+    private void closeSocket() {
+        try {
+            if (socket != null && !socket.isClosed()) {
+                socket.close(); // Close the client socket
+            }
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Error closing socket {}: ", socket, e);
+        }
+        outboundQueue.clear();
+    }
+
+    /**
+     * Returns whether {@link #close()} has been called.
+     *
+     * @return {@code true} if the connection is closed or being closed, {@code false} otherwise
+     */
+    public boolean isClosed() {
+        return closing.get();
+    }
+
+    /**
+     * Returns whether the outbound queue is within its watermarks, that is, whether the peer keeps up with
+     * the messages sent to it.
+     *
+     * @return {@code true} if the peer keeps up, {@code false} if too much data is pending
+     */
+    public boolean isWritable() {
+        return outboundQueue.isWritable();
+    }
+
+    /**
+     * Returns the amount of bytes queued but not written yet.
+     *
+     * @return the pending bytes
+     */
+    public long getPendingWriteBytes() {
+        return outboundQueue.getPendingBytes();
+    }
+
+    /**
+     * Returns the amount of write system calls issued to the socket.
+     *
+     * @return the write calls
+     */
+    public long getWriteCalls() {
+        return writeCalls;
+    }
+
+    /**
+     * Returns the amount of bytes written to the socket.
+     *
+     * @return the bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the codec framing the messages of this manager.
+     *
+     * @return the message codec
+     */
+    public MessageCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Sets the codec framing the messages of this manager.
+     * <p>
+     * The codec must be set before any message is sent or received, and must match the codec of the peer.
+     *
+     * @param codec the message codec
+     */
+    public void setCodec(MessageCodec codec) {
+        this.codec = codec;
+        this.decoder = codec.newDecoder(); // Fresh decoding state for the new framing
+    }
+
+    /**
+     * Sets the watermarks of the outbound queue.
+     *
+     * @param lowWatermark the pending bytes below which the connection becomes writable again
+     * @param highWatermark the pending bytes above which the connection stops being writable
+     * @throws IllegalArgumentException if a watermark is negative or the low watermark exceeds the high one
+     */
+    public void setWriteBufferWatermarks(int lowWatermark, int highWatermark) {
+        outboundQueue.setWatermarks(lowWatermark, highWatermark);
+    }
+
+    /**
+     * Sets the hard limit of the outbound queue and what happens to messages that would exceed it.
+     *
+     * @param maxPendingBytes the pending bytes beyond which messages are refused
+     * @param overflowPolicy the policy applied to refused messages
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public void setWriteBufferLimit(int maxPendingBytes, OverflowPolicy overflowPolicy) {
+        outboundQueue.setMaxPendingBytes(maxPendingBytes);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Sets the listener notified every time a message is queued in channel mode.
+     *
+     * @param writeRequestListener the listener to notify, or {@code null} to remove it
+     */
+    public void setWriteRequestListener(Runnable writeRequestListener) {
+        this.writeRequestListener = writeRequestListener;
+    }
+
+    /**
+     * Sets the listener notified every time reading is paused or resumed in channel mode. The listener checks
+     * {@link #isReadingPaused()} to update the read interest of the channel.
+     *
+     * @param readInterestListener the listener to notify, or {@code null} to remove it
+     */
+    public void setReadInterestListener(Runnable readInterestListener) {
+        this.readInterestListener = readInterestListener;
+    }
+
+    /**
+     * Stops reading messages until {@link #resumeReading()}. Messages already read are still delivered. Can be
+     * called from any thread.
+     */
+    public void pauseReading() {
+        if (readingPaused) {
+            return;
+        }
+        readingPaused = true;
+        logger.log(Level.DEBUG, "Reading paused for socket: {}", socket);
+        notifyReadInterest();
+    }
+
+    /**
+     * Resumes reading messages after {@link #pauseReading()}. Can be called from any thread.
+     */
+    public void resumeReading() {
+        if (!readingPaused) {
+            return;
+        }
+        readingPaused = false;
+        logger.log(Level.DEBUG, "Reading resumed for socket: {}", socket);
+        signalReaders();
+        notifyReadInterest();
+    }
+
+    /**
+     * Returns whether reading is paused.
+     *
+     * @return {@code true} if no more messages should be read
+     */
+    public boolean isReadingPaused() {
+        return readingPaused;
+    }
+
+    /**
+     * Notifies the read interest listener, in channel mode.
+     */
+    private void notifyReadInterest() {
+        Runnable listener = readInterestListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Wakes up a reader waiting for reading to be resumed.
+     */
+    private void signalReaders() {
+        readPauseLock.lock();
+        try {
+            readResumed.signalAll();
+        } finally {
+            readPauseLock.unlock();
+        }
+    }
+
+    /**
+     * Waits while reading is paused, unless the connection is closing.
+     *
+     * @throws IOException if interrupted while waiting
+     */
+    private void awaitReadingResumed() throws IOException {
+        if (!readingPaused) {
+            return; // Fast path, no lock
+        }
+        readPauseLock.lock();
+        try {
+            while (readingPaused && !closing.get()) {
+                readResumed.await(); // Parks a virtual reader without pinning its carrier
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading is paused", e);
+        } finally {
+            readPauseLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether this manager works over a non-blocking channel.
+     *
+     * @return {@code true} in channel mode, {@code false} in stream mode
+     */
+    public boolean isChannelMode() {
+        return channel != null;
     }
 
     /**
      * Receives a message from the client.
      * <p>
-     * This method reads a line of text from the input stream and returns it.
-     * If an error occurs during the reception, it logs the error and returns {@code null}.
+     * This method reads from the input stream until the codec decodes a complete message and returns it.
+     * If an error occurs during the reception, it logs the error and returns {@code null}. While reading is paused,
+     * it waits for {@link #resumeReading()} first.
      *
      * @return the received message, or {@code null} if an error occurs
      * @throws IOException if an I/O error occurs while reading the message
+     * @throws IllegalStateException if this manager works in channel mode
      */
     public String receiveMessage() throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("Messages are received by the event loop in channel mode");
+        }
+
+        awaitReadingResumed(); // Slow the peer down while its messages cannot be processed
         try {
-            String message = input.readLine(); // Reads a line of text from the input stream
+            String message;
+            while ((message = receivedMessages.poll()) == null) { // Return messages decoded by a previous read first
+                if (!readAvailable()) {
+                    return null; // End of stream, the peer has disconnected
+                }
+            }
             logger.log(Level.DEBUG, "Received message: {}", message); // Logs the received message
             return message;
         } catch (SocketException e) {
+            if (closing.get()) {
+                logger.log(Level.DEBUG, "Stopped receiving messages, connection closed locally"); // Expected after close()
+                return null;
+            }
             logger.log(Level.ERROR, "Unable to receive client message due to socket exception: ", e); // Logs socket exceptions
             return null;
         }
     }
 
     /**
-     * Creates the input stream for receiving messages from the client socket.
+     * Receives every message already sent by the client, waiting only for the first one.
+     * <p>
+     * After the first message arrives, data already available on the socket is decoded too, without blocking,
+     * up to {@value #MAX_RECEIVED_BATCH} messages or until reading is paused. Messages are returned in the order they were sent.
+     *
+     * @return the received messages, or an empty list if the client has disconnected or an error occurs
+     * @throws IOException if an I/O error occurs while reading the messages
+     * @throws IllegalStateException if this manager works in channel mode
+     */
+    public List<String> receiveMessages() throws IOException {
+        String first = receiveMessage(); // Blocks until a message arrives
+        if (first == null) {
+            return List.of();
+        }
+
+        List<String> messages = new ArrayList<>();
+        messages.add(first);
+        try {
+            while (messages.size() < MAX_RECEIVED_BATCH && !readingPaused) {
+                String message = receivedMessages.poll();
+                if (message == null) {
+                    if (input.available() == 0 || !readAvailable()) {
+                        break; // Nothing else received yet
+                    }
+                    continue;
+                }
+                messages.add(message);
+            }
+        } catch (SocketException e) {
+            logger.log(Level.ERROR, "Unable to receive client message due to socket exception: ", e);
+        }
+        logger.log(Level.DEBUG, "Received {} pipelined messages", messages.size());
+        return messages;
+    }
+
+    /**
+     * Reads the data received so far into a pooled buffer, waiting for it if none is available, and decodes it.
+     * <p>
+     * The wait is a single byte read, without any buffer, so idle connections do not keep a pooled buffer out of
+     * the pool. Once that byte arrives a buffer is borrowed and the data already available is read straight into
+     * its backing array, without blocking. The buffer is given back to the pool as soon as the data is decoded.
+     * Every decoded message is kept until it is returned by {@link #receiveMessage()}.
+     *
+     * @return {@code true} if data was read, {@code false} at the end of the stream
+     * @throws IOException if an I/O error occurs or the data is not a valid frame
+     */
+    private boolean readAvailable() throws IOException {
+        int first = input.read(); // Blocks until data arrives
+        if (first < 0) {
+            return false;
+        }
+
+        ByteBuffer buffer = ByteBufferPool.heap().acquire(READ_BUFFER_SIZE); // Borrowed only while reading and decoding
+        try {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            array[offset] = (byte) first;
+            int length = 1;
+            int available = Math.min(input.available(), buffer.remaining() - 1);
+            if (available > 0) {
+                length += Math.max(input.read(array, offset + 1, available), 0); // Already received, does not block
+            }
+            buffer.limit(length);
+
+            String message;
+            while ((message = decoder.decode(buffer)) != null) {
+                receivedMessages.offer(message); // Keep every complete message
+            }
+            return true;
+        } finally {
+            ByteBufferPool.heap().release(buffer);
+        }
+    }
+
+    /**
+     * Opens the input stream for receiving messages from the client socket.
      * <p>
-     * This method creates and returns a BufferedReader for reading messages from the client socket.
+     * This method returns the raw socket input stream; buffering is done with pooled buffers while reading.
      *
      * @return the input stream
-     * @throws IOException if an I/O error occurs while creating the input stream
+     * @throws IOException if an I/O error occurs while opening the input stream
      */
-    public BufferedReader createSocketInput() throws IOException {
+    private InputStream openSocketInput() throws IOException {
         if (socket == null) {
             logger.log(Level.DEBUG, "Socket is null, returning null for input stream.");
             return null;
         }
 
-        return new BufferedReader(new InputStreamReader(socket.getInputStream())); // Creates and returns a BufferedReader for the socket input
+        return socket.getInputStream(); // Returns the socket input
     }
 
     /**
-     * Creates the output stream for sending messages to the client socket.
+     * Opens the output stream for sending messages to the client socket.
      * <p>
-     * This method creates and returns a PrintWriter for sending messages to the client socket.
+     * This method returns the raw socket output stream; buffering is done with pooled buffers while writing.
      *
      * @return the output stream
-     * @throws IOException if an I/O error occurs while creating the output stream
+     * @throws IOException if an I/O error occurs while opening the output stream
      */
-    public PrintWriter createSocketOutput() throws IOException {
+    private OutputStream openSocketOutput() throws IOException {
         if (socket == null) {
             logger.log(Level.DEBUG, "Socket is null, returning null for output stream.");
             return null;
         }
 
-        return new PrintWriter(socket.getOutputStream(), true); // Creates and returns a PrintWriter for the socket output
+        return socket.getOutputStream(); // Returns the socket output
+    }
+
+    /**
+     * Creates a BufferedReader over the input stream of the client socket.
+     * <p>
+     * The manager no longer reads through it, and overriding this method has no effect. Reading from the returned
+     * reader takes data away from {@link #receiveMessage()}.
+     *
+     * @return the reader, or {@code null} if there is no socket
+     * @throws IOException if an I/O error occurs while creating the input stream
+     * @deprecated messages are decoded by the {@link MessageCodec} from pooled buffers, use
+     *             {@link #receiveMessage()}; to be removed in the next release
+     */
+    @Deprecated
+    public BufferedReader createSocketInput() throws IOException {
+        InputStream socketInput = openSocketInput();
+        return socketInput == null ? null : new BufferedReader(new InputStreamReader(socketInput));
+    }
+
+    /**
+     * Creates an auto-flushing PrintWriter over the output stream of the client socket.
+     * <p>
+     * The manager no longer writes through it, and overriding this method has no effect. Writing to the returned
+     * writer bypasses the outbound queue and the codec, and may interleave with queued messages.
+     *
+     * @return the writer, or {@code null} if there is no socket
+     * @throws IOException if an I/O error occurs while creating the output stream
+     * @deprecated messages are framed by the {@link MessageCodec} and written from the outbound queue, use
+     *             {@link #sendMessage(String)}; to be removed in the next release
+     */
+    @Deprecated
+    public PrintWriter createSocketOutput() throws IOException {
+        OutputStream socketOutput = openSocketOutput();
+        return socketOutput == null ? null : new PrintWriter(socketOutput, true);
     }
 
     /**
      * Broadcasts a message to all clients in the collection.
      * <p>
-     * This method iterates over all clients and sends the specified message to each client.
+     * The message is encoded once per codec and the same frame is queued to each client, so it never
+     * blocks on a slow client and the payload is not copied per recipient.
      *
      * @param clients the collection of clients to broadcast the message to
      * @param message the message to broadcast
      * @param <W> the type of worker representing clients
      */
     public static <W extends Worker> void broadcast(Collection<W> clients, String message) {
+        FrameCache frames = new FrameCache(message); // Encode once for every recipient
         for (Worker client : clients) {
-            client.getMessagesManager().sendMessage(message); // Sends the message to each client
+            MessagesManager messagesManager = client.getMessagesManager();
+            messagesManager.sendEncoded(frames.encode(messagesManager.getCodec())); // Sends the message to each client
         }
         logger.log(Level.DEBUG, "Broadcasted message to {} clients", clients.size()); // Logs the broadcast action
     }
@@ -148,6 +867,7 @@ public class MessagesManager {
      * Broadcasts a message to all clients in the collection except one.
      * <p>
      * This method iterates over all clients, excluding the specified client, and sends the message to the others.
+     * As in {@link #broadcast(Collection, String)}, the message is encoded only once.
      *
      * @param clients the collection of clients to broadcast the message to
      * @param less the client to exclude from the broadcast
@@ -155,11 +875,129 @@ public class MessagesManager {
      * @param <W> the type of worker representing clients
      */
     public static <W extends Worker> void broadcastLess(Collection<W> clients, W less, String message) {
+        FrameCache frames = new FrameCache(message); // Encode once for every recipient
         for (Worker client : clients) {
             if (!client.equals(less)) {
-                client.getMessagesManager().sendMessage(message); // Sends the message to each client except the excluded one
+                MessagesManager messagesManager = client.getMessagesManager();
+                messagesManager.sendEncoded(frames.encode(messagesManager.getCodec())); // Sends the message to each client except the excluded one
             }
         }
         logger.log(Level.DEBUG, "Broadcasted message to {} clients, excluding one.", clients.size() - 1); // Logs the broadcast action excluding one client
     }
+
+    /**
+     * Batches opened by a thread, with their nesting depth per manager. A thread rarely batches more than one
+     * manager at once, so the entries are kept in small arrays reused for the life of the thread.
+     */
+    private static final class BatchScope {
+        private static final ThreadLocal<BatchScope> SCOPES = ThreadLocal.withInitial(BatchScope::new);
+
+        private MessagesManager[] managers = new MessagesManager[2]; // Managers with an open batch
+        private int[] depths = new int[2]; // Nesting depth of the batch of each manager
+        private int size; // Amount of managers with an open batch
+
+        /**
+         * Returns the batches of the calling thread.
+         *
+         * @return the batch scope of the thread
+         */
+        private static BatchScope current() {
+            return SCOPES.get();
+        }
+
+        /**
+         * Returns the nesting depth of the batch of a manager.
+         *
+         * @param manager the manager
+         * @return the depth, {@code 0} if the thread has no batch open on it
+         */
+        private int depth(MessagesManager manager) {
+            int index = indexOf(manager);
+            return index < 0 ? 0 : depths[index];
+        }
+
+        /**
+         * Opens a batch on a manager.
+         *
+         * @param manager the manager
+         * @return {@code true} if it is the outermost batch of the thread on this manager
+         */
+        private boolean enter(MessagesManager manager) {
+            int index = indexOf(manager);
+            if (index >= 0) {
+                depths[index]++;
+                return false;
+            }
+            if (size == managers.length) {
+                managers = Arrays.copyOf(managers, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            managers[size] = manager;
+            depths[size++] = 1;
+            return true;
+        }
+
+        /**
+         * Closes a batch on a manager, forgetting the manager once its outermost batch is closed.
+         *
+         * @param manager the manager
+         * @return the remaining depth, or {@code -1} if the thread had no batch open on it
+         */
+        private int exit(MessagesManager manager) {
+            int index = indexOf(manager);
+            if (index < 0) {
+                return -1;
+            }
+            int depth = --depths[index];
+            if (depth == 0) {
+                size--;
+                managers[index] = managers[size]; // Order does not matter, move the last entry here
+                depths[index] = depths[size];
+                managers[size] = null; // Do not retain a closed manager
+            }
+            return depth;
+        }
+
+        /**
+         * Returns the entry of a manager.
+         *
+         * @param manager the manager
+         * @return the index of the manager, or {@code -1} if the thread has no batch open on it
+         */
+        private int indexOf(MessagesManager manager) {
+            for (int i = 0; i < size; i++) {
+                if (managers[i] == manager) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Frame of a broadcast message, encoded again only when a recipient uses a different codec.
+     */
+    private static final class FrameCache {
+        private final String message; // Message being broadcast
+        private MessageCodec codec; // Codec of the cached frame
+        private ByteBuffer frame; // Cached frame
+
+        private FrameCache(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Returns the message encoded with the given codec.
+         *
+         * @param codec the codec of the recipient
+         * @return the encoded frame
+         */
+        private ByteBuffer encode(MessageCodec codec) {
+            if (codec != this.codec) {
+                this.codec = codec;
+                this.frame = codec.encode(message); // Recipients normally share one codec
+            }
+            return frame;
+        }
+    }
 }
@@ -0,0 +1,246 @@
+package org.phinix.lib.common.socket;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code OutboundQueue} class holds the encoded messages waiting to be written to a single connection.
+ * <p>
+ * Any thread can queue messages without blocking, while a single writer at a time removes them once they are
+ * written. The queue tracks the amount of pending bytes against a pair of watermarks: it stops being writable
+ * when the pending bytes exceed the high watermark and becomes writable again once they drop below the low
+ * watermark. Producers can check {@link #isWritable()} to avoid piling up data for a slow peer.
+ * <p>
+ * Beyond the watermarks, the queue enforces a hard limit on the pending bytes: {@link #offer(ByteBuffer)} refuses a
+ * message that would exceed it, and the owning {@link MessagesManager} applies its {@link OverflowPolicy}. A peer
+ * that stops reading therefore never holds more than the limit in memory.
+ *
+ * @see MessagesManager
+ */
+public final class OutboundQueue {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Default low watermark in bytes.
+     */
+    public static final int DEFAULT_LOW_WATERMARK = 32 * 1024;
+    /**
+     * Default high watermark in bytes.
+     */
+    public static final int DEFAULT_HIGH_WATERMARK = 64 * 1024;
+    /**
+     * Default hard limit on the pending bytes.
+     */
+    public static final int DEFAULT_MAX_PENDING_BYTES = 4 * 1024 * 1024;
+
+    private final Queue<ByteBuffer> frames; // Encoded messages in write order
+    private final AtomicLong pendingBytes; // Bytes queued but not written yet
+    private volatile int lowWatermark; // Pending bytes below which the queue becomes writable again
+    private volatile int highWatermark; // Pending bytes above which the queue stops being writable
+    private volatile int maxPendingBytes; // Pending bytes beyond which messages are refused
+    private volatile boolean writable; // Flag indicating whether the pending bytes are within the watermarks
+
+    /**
+     * Constructs a new OutboundQueue with the default watermarks.
+     */
+    public OutboundQueue() {
+        this.frames = new ConcurrentLinkedQueue<>();
+        this.pendingBytes = new AtomicLong();
+        this.lowWatermark = DEFAULT_LOW_WATERMARK;
+        this.highWatermark = DEFAULT_HIGH_WATERMARK;
+        this.maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+        this.writable = true;
+    }
+
+    /**
+     * Queues an encoded message, unless it would take the pending bytes beyond the hard limit.
+     * Can be called from any thread and never blocks.
+     *
+     * @param frame the encoded message, ready to be read
+     * @return {@code true} if the message was queued, {@code false} if the limit would be exceeded
+     */
+    public boolean offer(ByteBuffer frame) {
+        int length = frame.remaining();
+        long pending = pendingBytes.addAndGet(length); // Reserve the bytes before queueing
+        if (pending > maxPendingBytes && pending > length) {
+            pendingBytes.addAndGet(-length); // Refused, the peer has stopped reading
+            return false;
+        }
+        frames.offer(frame); // Queue the message
+        if (writable && pending > highWatermark) {
+            writable = false; // Too much data pending, the peer is not keeping up
+            logger.log(Level.DEBUG, "Outbound queue above high watermark: {} bytes pending", pending);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the next message to write without removing it.
+     *
+     * @return the next message, or {@code null} if the queue is empty
+     */
+    public ByteBuffer peek() {
+        return frames.peek();
+    }
+
+    /**
+     * Copies references to the next messages, in write order, without removing them.
+     *
+     * @param into the array receiving the messages
+     * @return the amount of messages copied
+     */
+    public int peek(ByteBuffer[] into) {
+        int count = 0;
+        for (ByteBuffer frame : frames) {
+            if (count == into.length) {
+                break;
+            }
+            into[count++] = frame;
+        }
+        return count;
+    }
+
+    /**
+     * Removes the next message once it has been fully written.
+     */
+    public void remove() {
+        frames.poll();
+    }
+
+    /**
+     * Records bytes written by the writer, updating the writability of the queue.
+     *
+     * @param bytes the amount of bytes written
+     */
+    public void onWritten(long bytes) {
+        long pending = pendingBytes.addAndGet(-bytes);
+        if (!writable && pending < lowWatermark) {
+            writable = true; // The peer caught up
+            logger.log(Level.DEBUG, "Outbound queue below low watermark: {} bytes pending", pending);
+        }
+    }
+
+    /**
+     * Discards every queued message, for example once the connection is closed.
+     */
+    public void clear() {
+        ByteBuffer frame;
+        while ((frame = frames.poll()) != null) {
+            onWritten(frame.remaining()); // Account the discarded bytes
+        }
+    }
+
+    /**
+     * Returns whether the queue has no messages.
+     *
+     * @return {@code true} if the queue is empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    /**
+     * Returns whether the pending bytes are within the watermarks.
+     *
+     * @return {@code true} if more data can be queued without overloading the peer, {@code false} otherwise
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Returns the amount of bytes queued but not written yet.
+     *
+     * @return the pending bytes
+     */
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+
+    /**
+     * Returns the low watermark in bytes.
+     *
+     * @return the low watermark
+     */
+    public int getLowWatermark() {
+        return lowWatermark;
+    }
+
+    /**
+     * Returns the high watermark in bytes.
+     *
+     * @return the high watermark
+     */
+    public int getHighWatermark() {
+        return highWatermark;
+    }
+
+    /**
+     * Returns the hard limit on the pending bytes.
+     *
+     * @return the maximum pending bytes
+     */
+    public int getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    /**
+     * Sets the hard limit on the pending bytes. A single message larger than the limit is still accepted when
+     * nothing else is pending.
+     *
+     * @param maxPendingBytes the pending bytes beyond which messages are refused
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public void setMaxPendingBytes(int maxPendingBytes) {
+        if (maxPendingBytes < 1) {
+            throw new IllegalArgumentException("Invalid write buffer limit: " + maxPendingBytes);
+        }
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Sets the watermarks of the queue.
+     *
+     * @param lowWatermark the pending bytes below which the queue becomes writable again
+     * @param highWatermark the pending bytes above which the queue stops being writable
+     * @throws IllegalArgumentException if a watermark is negative or the low watermark exceeds the high one
+     */
+    public void setWatermarks(int lowWatermark, int highWatermark) {
+        validateWatermarks(lowWatermark, highWatermark);
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    /**
+     * Validates a pair of watermarks.
+     *
+     * @param lowWatermark the low watermark
+     * @param highWatermark the high watermark
+     * @throws IllegalArgumentException if a watermark is negative or the low watermark exceeds the high one
+     */
+    public static void validateWatermarks(int lowWatermark, int highWatermark) {
+        if (lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Invalid watermarks: low " + lowWatermark + ", high " + highWatermark);
+        }
+    }
+
+    /**
+     * Validates a hard limit against the high watermark it must not be below.
+     *
+     * @param highWatermark the high watermark
+     * @param maxPendingBytes the hard limit
+     * @throws IllegalArgumentException if the limit is below the high watermark
+     */
+    public static void validateLimit(int highWatermark, int maxPendingBytes) {
+        if (maxPendingBytes < highWatermark) {
+            throw new IllegalArgumentException("Invalid write buffer limit: " + maxPendingBytes
+                    + " is below the high watermark " + highWatermark);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.phinix.lib.common.socket;
+
+/**
+ * {@code OverflowPolicy} enum defines what a {@link MessagesManager} does with a message that would take the pending
+ * bytes of its {@link OutboundQueue} beyond the hard limit, that is, when the peer has stopped reading.
+ *
+ * @see OutboundQueue
+ * @see MessagesManager#setWriteBufferLimit(int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+    /**
+     * Drop the message and keep the connection, so the peer may miss messages but catches up once it reads again.
+     */
+    DROP_MESSAGE,
+    /**
+     * Close the connection right away, discarding everything still queued, so a stalled peer cannot hold memory.
+     */
+    CLOSE_CONNECTION
+}
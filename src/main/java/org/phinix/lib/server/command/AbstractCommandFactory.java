@@ -6,8 +6,14 @@ import org.apache.logging.log4j.Logger;
 
 import org.phinix.lib.server.core.worker.Worker;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * {@code AbstractCommandFactory} abstract class for managing the registration and creation of commands.
@@ -16,6 +22,20 @@ import java.util.Map;
  * using {@link #createCommand(String)}. Commands are stored in a map where the key is the command name (a {@code String})
  * and the value is the class type of the command.
  * <p>
+ * The constructor of every command is resolved once, when it is registered, into a {@link Supplier} generated with
+ * {@link LambdaMetafactory}, so creating a command costs a map lookup and a direct constructor call rather than a
+ * reflective lookup. Commands implementing {@link StatelessCommand} are created once and the same instance is
+ * returned for every line.
+ * <p>
+ * Once {@link #initCommands()} returns, the factories are gathered in an immutable {@link CommandDispatchTable}
+ * keyed by the command names as they appear in a line, {@link #commandPrefix()} included. Commands are then found
+ * directly in the received line with {@link #findCommand(String, int, int)}, without creating a string.
+ * <p>
+ * A command can be registered with an {@link ArgumentSchema} declaring the arguments it accepts. They are then
+ * checked before the command runs, and lines with invalid arguments are answered with a help message built once.
+ * Commands implementing {@link BlockingCommand} or {@link CpuBoundCommand} are recorded as such, see
+ * {@link RegisteredCommand#getExecution()}.
+ * <p>
  * Example of a generic implementation:
  * <pre>{@code
  * public class MyCommandFactory extends AbstractCommandFactory<MyWorker> {
@@ -40,7 +60,12 @@ import java.util.Map;
 public abstract class AbstractCommandFactory<W extends Worker> {
     private static final Logger logger = LogManager.getLogger();
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup(); // Resolves the command constructors
+
     protected final Map<String, Class<? extends Command<W>>> commands; // Map of command names to command classes
+    private final Map<String, Supplier<? extends Command<W>>> suppliers; // Map of command names to cached factories
+    private final Map<String, ArgumentSchema> schemas; // Map of command names to their argument schemas
+    private volatile CommandDispatchTable<W> dispatchTable; // Lookup of the commands in the received lines
 
     /**
      * Constructs an AbstractCommandFactory and initializes the commands.
@@ -50,8 +75,11 @@ public abstract class AbstractCommandFactory<W extends Worker> {
         logger.log(Level.DEBUG, "Initializing AbstractCommandFactory");
 
         this.commands = new HashMap<>();
+        this.suppliers = new HashMap<>();
+        this.schemas = new HashMap<>();
 
         int amountRegisteredCommands = initCommands(); // Calls the abstract method to initialize the commands
+        buildDispatchTable(); // Freezes the registered commands into the lookup structure
         logger.log(Level.INFO, "{} registered commands in server", amountRegisteredCommands); // Logs the total number of registered commands
     }
 
@@ -63,48 +91,182 @@ public abstract class AbstractCommandFactory<W extends Worker> {
      */
     protected abstract int initCommands();
 
+    /**
+     * Returns the symbol that precedes every command name in a line, such as {@code "/"}. Lines whose first token
+     * does not start with it are not commands. Defaults to no symbol.
+     *
+     * @return the command prefix
+     */
+    protected String commandPrefix() {
+        return "";
+    }
+
+    /**
+     * Builds the dispatch table from the registered commands, prefixing their names with {@link #commandPrefix()}.
+     */
+    private void buildDispatchTable() {
+        String prefix = commandPrefix();
+        Map<String, RegisteredCommand<W>> entries = new HashMap<>();
+        suppliers.forEach((name, supplier) ->
+                entries.put(prefix + name, new RegisteredCommand<>(prefix + name, commands.get(name), supplier,
+                        schemas.get(name), CommandExecution.of(commands.get(name)))));
+
+        CommandDispatchTable<W> table = new CommandDispatchTable<>(entries);
+        dispatchTable = table;
+        logger.log(Level.DEBUG, "Command dispatch table built: {} commands, {} slots, perfect hash: {}",
+                entries.size(), table.getCapacity(), table.isPerfect());
+    }
+
     /**
      * Registers a command with the specified name and class.
-     * Adds the command name and its associated class to the commands map.
+     * Adds the command name and its associated class to the commands map, and resolves the factory creating
+     * its instances.
      *
      * @param commandName the name of the command
      * @param commandClass the class of the command
+     * @throws IllegalArgumentException if the class has no public no-argument constructor
      */
     protected void registerCommand(String commandName, Class<? extends Command<W>> commandClass) {
+        registerCommand(commandName, commandClass, null);
+    }
+
+    /**
+     * Registers a command with the specified name, class and argument schema.
+     * Lines whose arguments do not match the schema are answered with a help message and never reach the command.
+     *
+     * @param commandName the name of the command
+     * @param commandClass the class of the command
+     * @param schema the arguments the command accepts, or {@code null} if the command checks them itself
+     * @throws IllegalArgumentException if the class has no public no-argument constructor
+     */
+    protected void registerCommand(String commandName, Class<? extends Command<W>> commandClass,
+                                   ArgumentSchema schema) {
+        suppliers.put(commandName, newSupplier(commandClass)); // Resolves the constructor once
+        if (schema != null) {
+            schemas.put(commandName, schema); // Checked before every execution
+        } else {
+            schemas.remove(commandName);
+        }
         commands.put(commandName, commandClass); // Adds the command to the map
+        if (dispatchTable != null) {
+            buildDispatchTable(); // Registered after initCommands(), the table is rebuilt
+        }
         logger.log(Level.DEBUG, "Command registered: {}", commandName); // Logs the registration of the command
     }
 
     /**
      * Returns the class of the command with the specified name.
-     * This method is used to retrieve the command's class type from the map.
+     * The name is looked up as {@link #createCommand(String)} does, so both accept the same names.
      *
-     * @param commandName the name of the command
+     * @param commandName the name of the command as it appears in a line, {@link #commandPrefix()} included
      * @return the class of the command, or {@code null} if not found
      */
     public Class<? extends Command<W>> getCommandType(String commandName) {
-        return commands.get(commandName); // Retrieves the command class from the map
+        RegisteredCommand<W> registered = findCommand(commandName, 0, commandName.length());
+        return registered != null ? registered.getCommandType() : null; // Retrieves the command class from the table
     }
 
     /**
-     * Creates a new instance of the command with the specified name.
-     * This method uses reflection to instantiate the command class.
+     * Creates a new instance of the command with the specified name, or returns the shared instance of a
+     * {@link StatelessCommand}.
      *
-     * @param commandName the name of the command
+     * @param commandName the name of the command as it appears in a line, {@link #commandPrefix()} included
      * @return the created command, or {@code null} if not found
      * @throws Exception if an error occurs while creating the command
      */
     public Command<W> createCommand(String commandName) throws Exception {
         logger.log(Level.DEBUG, "Building command: {}", commandName); // Logs the creation attempt
-        Class<? extends Command<W>> commandClass = getCommandType(commandName); // Fetches the command class
+        return createCommand(commandName, 0, commandName.length());
+    }
+
+    /**
+     * Creates a new instance of the command whose name is the given region of a line, or returns the shared
+     * instance of a {@link StatelessCommand}. The name is matched in place, without creating a string.
+     *
+     * @param line the line holding the command name, {@link #commandPrefix()} included
+     * @param start the start of the name in the line, inclusive
+     * @param end the end of the name in the line, exclusive
+     * @return the created command, or {@code null} if not found
+     * @throws Exception if an error occurs while creating the command
+     */
+    public Command<W> createCommand(String line, int start, int end) throws Exception {
+        RegisteredCommand<W> registered = findCommand(line, start, end); // Fetches the command factory
 
-        if (commandClass != null) {
-            return commandClass.getConstructor().newInstance(); // Creates and returns a new instance of the command
+        if (registered != null) {
+            return registered.create(); // Creates and returns an instance of the command
         }
 
         return null; // Returns null if the command class was not found
     }
 
+    /**
+     * Returns the registered command whose name is the given region of a line, giving access to its factory and
+     * argument schema. The name is matched in place, without creating a string.
+     *
+     * @param line the line holding the command name, {@link #commandPrefix()} included
+     * @param start the start of the name in the line, inclusive
+     * @param end the end of the name in the line, exclusive
+     * @return the registered command, or {@code null} if not found
+     */
+    public RegisteredCommand<W> findCommand(String line, int start, int end) {
+        return dispatchTable.lookup(line, start, end);
+    }
+
+    /**
+     * Resolves the no-argument constructor of a command into a factory: a supplier of the single instance of a
+     * {@link StatelessCommand}, otherwise a supplier generated by {@link LambdaMetafactory} calling the constructor
+     * directly, falling back to the constructor handle if the class cannot be linked against.
+     *
+     * @param commandClass the class of the command
+     * @param <C> the type of the command
+     * @return the factory creating the command
+     * @throws IllegalArgumentException if the class has no public no-argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    private static <C extends Command<?>> Supplier<C> newSupplier(Class<C> commandClass) {
+        MethodHandle constructor;
+        try {
+            constructor = LOOKUP.findConstructor(commandClass, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Command " + commandClass.getName()
+                    + " has no public no-argument constructor", e);
+        }
+
+        if (StatelessCommand.class.isAssignableFrom(commandClass)) {
+            C instance = invokeConstructor(constructor);
+            return () -> instance; // Shared by every line
+        }
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), constructor, MethodType.methodType(commandClass));
+            return (Supplier<C>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            logger.log(Level.DEBUG, "Cannot generate a factory for command {}, using its constructor handle: {}",
+                    commandClass.getName(), e.getMessage());
+            return () -> invokeConstructor(constructor);
+        }
+    }
+
+    /**
+     * Calls a command constructor.
+     *
+     * @param constructor the constructor handle
+     * @param <C> the type of the command
+     * @return the created command
+     * @throws IllegalStateException if the constructor throws a checked exception
+     */
+    @SuppressWarnings("unchecked")
+    private static <C> C invokeConstructor(MethodHandle constructor) {
+        try {
+            return (C) constructor.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Error creating command", e);
+        }
+    }
+
     /**
      * Returns the number of registered commands.
      * This method provides the total count of commands that have been registered.
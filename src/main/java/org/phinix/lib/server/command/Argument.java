@@ -0,0 +1,189 @@
+package org.phinix.lib.server.command;
+
+/**
+ * {@code Argument} class describes one positional argument of an {@link ArgumentSchema}: a fixed keyword, any word,
+ * or an integer within bounds.
+ * <p>
+ * Arguments are checked directly against a region of the received line, so validating them creates no string and
+ * never throws: an integer that does not parse or falls out of its bounds is simply rejected. The value of an
+ * accepted integer is handed to the command through {@link CommandArguments#getInt(int)}.
+ *
+ * @see ArgumentSchema
+ */
+public final class Argument {
+    private enum Kind {
+        LITERAL, // Fixed keyword, such as a subcommand
+        WORD, // Any token
+        INTEGER // Decimal integer within bounds
+    }
+
+    private final Kind kind; // What the argument accepts
+    private final String name; // Name shown in the usage, or the keyword of a literal
+    private final long min; // Smallest integer accepted
+    private final long max; // Largest integer accepted
+
+    private static final long NOT_AN_INTEGER = Long.MIN_VALUE; // Out of reach of ten digits, marks a parse failure
+
+    /**
+     * Constructs a new Argument.
+     *
+     * @param kind what the argument accepts
+     * @param name the name shown in the usage, or the keyword of a literal
+     * @param min the smallest integer accepted
+     * @param max the largest integer accepted
+     */
+    private Argument(Kind kind, String name, long min, long max) {
+        this.kind = kind;
+        this.name = name;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Returns an argument accepting only the given keyword, such as a subcommand.
+     *
+     * @param keyword the keyword
+     * @return the argument
+     */
+    public static Argument literal(String keyword) {
+        return new Argument(Kind.LITERAL, keyword, 0, 0);
+    }
+
+    /**
+     * Returns an argument accepting any word.
+     *
+     * @param name the name shown in the usage
+     * @return the argument
+     */
+    public static Argument word(String name) {
+        return new Argument(Kind.WORD, name, 0, 0);
+    }
+
+    /**
+     * Returns an argument accepting any {@code int}.
+     *
+     * @param name the name shown in the usage
+     * @return the argument
+     */
+    public static Argument integer(String name) {
+        return integer(name, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an argument accepting an {@code int} not smaller than a bound.
+     *
+     * @param name the name shown in the usage
+     * @param min the smallest value accepted
+     * @return the argument
+     */
+    public static Argument integer(String name, int min) {
+        return integer(name, min, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an argument accepting an {@code int} within bounds.
+     *
+     * @param name the name shown in the usage
+     * @param min the smallest value accepted
+     * @param max the largest value accepted
+     * @return the argument
+     * @throws IllegalArgumentException if {@code min} is greater than {@code max}
+     */
+    public static Argument integer(String name, int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Invalid bounds for " + name + ": " + min + ".." + max);
+        }
+        return new Argument(Kind.INTEGER, name, min, max);
+    }
+
+    /**
+     * Returns whether a region of a line is a valid value for this argument.
+     *
+     * @param line the line
+     * @param start the start of the value, inclusive
+     * @param end the end of the value, exclusive
+     * @return {@code true} if the value is accepted
+     */
+    boolean accepts(String line, int start, int end) {
+        return switch (kind) {
+            case LITERAL -> end - start == name.length() && line.regionMatches(start, name, 0, name.length());
+            case WORD -> true;
+            case INTEGER -> acceptsInteger(line, start, end);
+        };
+    }
+
+    /**
+     * Parses a decimal integer in place and checks its bounds.
+     *
+     * @param line the line
+     * @param start the start of the value, inclusive
+     * @param end the end of the value, exclusive
+     * @return {@code true} if the value is an integer within the bounds
+     */
+    private boolean acceptsInteger(String line, int start, int end) {
+        long value = parseDecimal(line, start, end);
+        return value != NOT_AN_INTEGER && value >= min && value <= max;
+    }
+
+    /**
+     * Returns whether the argument is an integer.
+     *
+     * @return {@code true} for an argument created with {@link #integer(String, int, int)}
+     */
+    boolean isInteger() {
+        return kind == Kind.INTEGER;
+    }
+
+    /**
+     * Returns the value of an integer argument already accepted by {@link #accepts(String, int, int)}.
+     *
+     * @param line the line
+     * @param start the start of the value, inclusive
+     * @param end the end of the value, exclusive
+     * @return the value
+     */
+    int parseInt(String line, int start, int end) {
+        return (int) parseDecimal(line, start, end);
+    }
+
+    /**
+     * Parses a decimal integer of up to ten digits in place.
+     *
+     * @param line the line
+     * @param start the start of the value, inclusive
+     * @param end the end of the value, exclusive
+     * @return the value, or {@code NOT_AN_INTEGER} if the region is not an integer
+     */
+    private static long parseDecimal(String line, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            return NOT_AN_INTEGER; // No digits, or more than any int has
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_AN_INTEGER;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns the argument as shown in a usage message: the keyword of a literal, the name between angle brackets
+     * otherwise.
+     *
+     * @return the usage of the argument
+     */
+    @Override
+    public String toString() {
+        return kind == Kind.LITERAL ? name : "<" + name + ">";
+    }
+}
@@ -0,0 +1,145 @@
+package org.phinix.lib.server.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@code ArgumentSchema} class declares the arguments a {@link Command} accepts, as one or more alternative lists of
+ * positional {@link Argument}s.
+ * <p>
+ * A schema is given to {@link AbstractCommandFactory#registerCommand(String, Class, ArgumentSchema)}. Before the
+ * command runs, the arguments of the line are checked in place against each alternative; if none matches, the
+ * command is not executed and the client receives a help message built once at registration. A command with a
+ * schema can therefore read its arguments without checking them again: the {@link CommandArguments} it is given
+ * hold the values of its integer arguments, parsed while they were checked. Schemas are immutable.
+ * <p>
+ * Example use:
+ * <pre>{@code
+ * ArgumentSchema schema = ArgumentSchema.of(Argument.literal("create"), Argument.word("roomName"),
+ *                 Argument.integer("maxPlayers", 2))
+ *         .or(Argument.literal("join"), Argument.word("roomName"))
+ *         .or(Argument.literal("leave"));
+ * }</pre>
+ *
+ * @see Argument
+ * @see AbstractCommandFactory
+ */
+public final class ArgumentSchema {
+    private final List<Argument[]> alternatives; // Accepted argument lists
+    private final String usage; // Usage shown in the help message, null to derive it from the alternatives
+
+    /**
+     * Constructs a new ArgumentSchema.
+     *
+     * @param alternatives the accepted argument lists
+     * @param usage the usage shown in the help message, or {@code null} to derive it
+     */
+    private ArgumentSchema(List<Argument[]> alternatives, String usage) {
+        this.alternatives = alternatives;
+        this.usage = usage;
+    }
+
+    /**
+     * Returns a schema accepting exactly the given arguments. Without arguments, the command accepts none.
+     *
+     * @param arguments the arguments, in order
+     * @return the schema
+     */
+    public static ArgumentSchema of(Argument... arguments) {
+        return new ArgumentSchema(List.<Argument[]>of(arguments.clone()), null);
+    }
+
+    /**
+     * Returns a schema also accepting the given arguments, as an alternative to the ones of this schema.
+     *
+     * @param arguments the arguments of the alternative, in order
+     * @return the new schema
+     */
+    public ArgumentSchema or(Argument... arguments) {
+        List<Argument[]> extended = new ArrayList<>(alternatives);
+        extended.add(arguments.clone());
+        return new ArgumentSchema(List.copyOf(extended), usage);
+    }
+
+    /**
+     * Returns a schema showing the given usage in its help message instead of the one derived from the arguments.
+     *
+     * @param usage the usage, following the command name
+     * @return the new schema
+     */
+    public ArgumentSchema withUsage(String usage) {
+        return new ArgumentSchema(alternatives, usage);
+    }
+
+    /**
+     * Returns the usage shown in the help message, following the command name. Unless set with
+     * {@link #withUsage(String)}, it lists the alternatives separated by {@code " | "}.
+     *
+     * @return the usage
+     */
+    public String getUsage() {
+        if (usage != null) {
+            return usage;
+        }
+        return alternatives.stream()
+                .map(arguments -> Arrays.stream(arguments).map(Argument::toString).collect(Collectors.joining(" ")))
+                .collect(Collectors.joining(" | "));
+    }
+
+    /**
+     * Returns whether the arguments of a tokenized line match one of the alternatives.
+     *
+     * @param tokenizer the tokenized line, the command name being its first token
+     * @return {@code true} if the arguments are valid
+     */
+    public boolean accepts(CommandTokenizer tokenizer) {
+        return match(tokenizer) >= 0;
+    }
+
+    /**
+     * Returns the arguments of a tokenized line if they match one of the alternatives.
+     *
+     * @param tokenizer the tokenized line, the command name being its first token
+     * @return the arguments, with their integers parsed, or {@code null} if they are not valid
+     */
+    public CommandArguments parse(CommandTokenizer tokenizer) {
+        int alternative = match(tokenizer);
+        return alternative < 0 ? null : CommandArguments.of(tokenizer, alternatives.get(alternative), alternative);
+    }
+
+    /**
+     * Returns the first alternative the arguments of a tokenized line match.
+     *
+     * @param tokenizer the tokenized line, the command name being its first token
+     * @return the index of the alternative, or {@code -1} if none matches
+     */
+    private int match(CommandTokenizer tokenizer) {
+        int count = tokenizer.getArgumentCount();
+        for (int i = 0; i < alternatives.size(); i++) {
+            Argument[] arguments = alternatives.get(i);
+            if (arguments.length == count && matches(arguments, tokenizer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether every argument of a line is accepted by the argument at the same position.
+     *
+     * @param arguments the arguments of an alternative
+     * @param tokenizer the tokenized line
+     * @return {@code true} if every argument is accepted
+     */
+    private static boolean matches(Argument[] arguments, CommandTokenizer tokenizer) {
+        String line = tokenizer.getLine();
+        for (int i = 0; i < arguments.length; i++) {
+            if (!arguments[i].accepts(line, tokenizer.getTokenStart(i + 1), tokenizer.getTokenEnd(i + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code BlockingCommand} interface marks a {@link Command} that blocks on I/O while it runs, such as one rewriting a
+ * file or querying a remote service.
+ * <p>
+ * {@code CommandProcessor} runs such a command on its pool of blocking commands instead of the thread reading the
+ * connection, which keeps reading and serving the other clients meanwhile. The lines a client sends while one of
+ * its commands runs there wait for it, so the client still receives the responses in order.
+ *
+ * @param <W> the type of worker that executes the command
+ * @see CommandExecution#BLOCKING
+ * @see CpuBoundCommand
+ */
+public interface BlockingCommand<W extends Worker> extends Command<W> {
+}
@@ -40,4 +40,15 @@ public interface Command<W extends Worker> {
      * @param worker the worker executing the command
      */
     void execute(String[] args, W worker);
+
+    /**
+     * Executes the command with the arguments of a line, as validated by its {@link ArgumentSchema}.
+     * Passes the raw strings to {@link #execute(String[], Worker)} unless overridden, see {@link TypedCommand}.
+     *
+     * @param args the command arguments
+     * @param worker the worker executing the command
+     */
+    default void execute(CommandArguments args, W worker) {
+        execute(args.toArray(), worker);
+    }
 }
\ No newline at end of file
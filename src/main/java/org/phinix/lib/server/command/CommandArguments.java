@@ -0,0 +1,130 @@
+package org.phinix.lib.server.command;
+
+/**
+ * {@code CommandArguments} class holds the arguments of a line as given to a {@link Command}: the raw strings, and
+ * for a command registered with an {@link ArgumentSchema}, the alternative of the schema they matched and the values
+ * of its {@link Argument#integer(String) integer} arguments, parsed once while the line was validated.
+ * <p>
+ * Commands implementing {@link TypedCommand} receive them directly, so they read typed values instead of parsing
+ * the strings again:
+ * <pre>{@code
+ * // Registered with ArgumentSchema.of(Argument.literal("create"), Argument.word("roomName"),
+ * //         Argument.integer("maxPlayers", 2))
+ * String roomName = args.getString(1);
+ * int maxPlayers = args.getInt(2); // Already checked against its bounds
+ * }</pre>
+ *
+ * @see TypedCommand
+ * @see ArgumentSchema
+ */
+public final class CommandArguments {
+    private static final int[] NO_INTEGERS = new int[0]; // Shared by every line without integer arguments
+
+    private final String[] values; // Argument of every position
+    private final Argument[] declared; // Matched alternative of the schema, null if the command has none
+    private final int[] integers; // Parsed value of every integer argument, by position
+    private final int alternative; // Index of the matched alternative, -1 without schema
+
+    /**
+     * Constructs a new CommandArguments.
+     *
+     * @param values the argument of every position
+     * @param declared the matched alternative of the schema, or {@code null}
+     * @param integers the parsed value of every integer argument, by position
+     * @param alternative the index of the matched alternative, or {@code -1}
+     */
+    private CommandArguments(String[] values, Argument[] declared, int[] integers, int alternative) {
+        this.values = values;
+        this.declared = declared;
+        this.integers = integers;
+        this.alternative = alternative;
+    }
+
+    /**
+     * Returns the arguments of a command without schema.
+     *
+     * @param values the argument of every position
+     * @return the arguments
+     */
+    public static CommandArguments of(String[] values) {
+        return new CommandArguments(values, null, NO_INTEGERS, -1);
+    }
+
+    /**
+     * Returns the arguments of a tokenized line matching an alternative of a schema, parsing its integers.
+     *
+     * @param tokenizer the tokenized line, the command name being its first token
+     * @param declared the matched alternative
+     * @param alternative the index of the matched alternative
+     * @return the arguments
+     */
+    static CommandArguments of(CommandTokenizer tokenizer, Argument[] declared, int alternative) {
+        String line = tokenizer.getLine();
+        int[] integers = NO_INTEGERS;
+        for (int i = 0; i < declared.length; i++) {
+            if (declared[i].isInteger()) {
+                if (integers == NO_INTEGERS) {
+                    integers = new int[declared.length];
+                }
+                integers[i] = declared[i].parseInt(line, tokenizer.getTokenStart(i + 1), tokenizer.getTokenEnd(i + 1));
+            }
+        }
+        return new CommandArguments(tokenizer.getArguments(), declared, integers, alternative);
+    }
+
+    /**
+     * Returns the amount of arguments.
+     *
+     * @return the amount of arguments
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns an argument as it appears in the line.
+     *
+     * @param index the position of the argument, zero being the token after the command name
+     * @return the argument
+     * @throws IndexOutOfBoundsException if there is no such argument
+     */
+    public String getString(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns an argument as an {@code int}. The value of an integer argument of the schema was already parsed and
+     * checked against its bounds; any other argument is parsed now.
+     *
+     * @param index the position of the argument, zero being the token after the command name
+     * @return the value of the argument
+     * @throws IndexOutOfBoundsException if there is no such argument
+     * @throws NumberFormatException if the argument is not declared as an integer and does not parse as one
+     */
+    public int getInt(int index) {
+        if (declared != null && declared[index].isInteger()) {
+            return integers[index];
+        }
+        return Integer.parseInt(values[index]);
+    }
+
+    /**
+     * Returns which alternative of the schema the arguments matched, in the order they were declared with
+     * {@link ArgumentSchema#of(Argument...)} and {@link ArgumentSchema#or(Argument...)}.
+     *
+     * @return the index of the alternative, or {@code -1} if the command has no schema
+     */
+    public int getAlternative() {
+        return alternative;
+    }
+
+    /**
+     * Returns the arguments as the array given to {@link Command#execute(String[], org.phinix.lib.server.core.worker.Worker)}.
+     * The array is not copied.
+     *
+     * @return the arguments
+     */
+    public String[] toArray() {
+        return values;
+    }
+}
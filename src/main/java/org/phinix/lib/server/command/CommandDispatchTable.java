@@ -0,0 +1,155 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+import java.util.Map;
+
+/**
+ * {@code CommandDispatchTable} class is the immutable lookup structure of an {@link AbstractCommandFactory}, mapping
+ * the command names as they appear in a line, prefix symbol included, to the {@link RegisteredCommand}s.
+ * <p>
+ * Names are matched directly against a region of the received line, so finding a command creates no string. The
+ * table is an open addressing hash table whose capacity is grown, within a bound, until every name has a slot of
+ * its own, making it a perfect hash for the registered names: a lookup hashes the region, reads one slot and
+ * compares its characters. Lines whose first token has a length no registered name has are rejected before hashing,
+ * so chat lines fall through almost for free.
+ *
+ * @param <W> the type of worker that executes the commands
+ * @see AbstractCommandFactory
+ */
+final class CommandDispatchTable<W extends Worker> {
+    private static final int MAX_LOAD_FACTOR_INVERSE = 64; // Capacity per name beyond which collisions are probed
+
+    private final String[] names; // Command name of every slot, null if empty
+    private final RegisteredCommand<W>[] entries; // Registered command of every slot
+    private final int mask; // Capacity minus one, the capacity being a power of two
+    private final int maxProbes; // Longest probe sequence, one if the hash is perfect
+    private final long lengths; // Bit i set if a name has length i, bit 63 for length 63 and longer
+
+    /**
+     * Builds the table.
+     *
+     * @param commands the registered commands by name, prefix symbol included
+     */
+    @SuppressWarnings("unchecked")
+    CommandDispatchTable(Map<String, RegisteredCommand<W>> commands) {
+        int capacity = Integer.highestOneBit(Math.max(1, commands.size() * 2 - 1)) << 1; // At least twice the names
+        int maxCapacity = Math.max(capacity, Integer.highestOneBit(commands.size() * MAX_LOAD_FACTOR_INVERSE));
+        while (capacity < maxCapacity && !isCollisionFree(commands, capacity - 1)) {
+            capacity <<= 1; // Spread the names until each hashes to a slot of its own
+        }
+
+        this.names = new String[capacity];
+        this.entries = (RegisteredCommand<W>[]) new RegisteredCommand<?>[capacity];
+        this.mask = capacity - 1;
+
+        int longestProbe = 1;
+        long lengthBits = 0;
+        for (Map.Entry<String, RegisteredCommand<W>> entry : commands.entrySet()) {
+            String name = entry.getKey();
+            int slot = hash(name, 0, name.length()) & mask;
+            int probes = 1;
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask; // Linear probing when no perfect capacity was found
+                probes++;
+            }
+            names[slot] = name;
+            entries[slot] = entry.getValue();
+            longestProbe = Math.max(longestProbe, probes);
+            lengthBits |= lengthBit(name.length());
+        }
+        this.maxProbes = longestProbe;
+        this.lengths = lengthBits;
+    }
+
+    /**
+     * Returns whether every name hashes to a different slot.
+     *
+     * @param commands the registered commands by name
+     * @param mask the capacity minus one
+     * @return {@code true} if no two names share a slot
+     */
+    private static boolean isCollisionFree(Map<String, ?> commands, int mask) {
+        boolean[] used = new boolean[mask + 1];
+        for (String name : commands.keySet()) {
+            int slot = hash(name, 0, name.length()) & mask;
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the command whose name is the given region of a line.
+     *
+     * @param line the line
+     * @param start the start of the name in the line, inclusive
+     * @param end the end of the name in the line, exclusive
+     * @return the registered command, or {@code null} if no command has that name
+     */
+    RegisteredCommand<W> lookup(String line, int start, int end) {
+        int length = end - start;
+        if ((lengths & lengthBit(length)) == 0) {
+            return null; // No name has this length
+        }
+
+        int slot = hash(line, start, end) & mask;
+        for (int probe = 0; probe < maxProbes; probe++) {
+            String name = names[slot];
+            if (name == null) {
+                return null;
+            }
+            if (name.length() == length && line.regionMatches(start, name, 0, length)) {
+                return entries[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the amount of slots of the table.
+     *
+     * @return the capacity
+     */
+    int getCapacity() {
+        return names.length;
+    }
+
+    /**
+     * Returns whether every name has a slot of its own, so lookups never probe.
+     *
+     * @return {@code true} if the hash is perfect
+     */
+    boolean isPerfect() {
+        return maxProbes == 1;
+    }
+
+    /**
+     * Hashes a region of a string, spreading the high bits into the low ones.
+     *
+     * @param s the string
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return the hash
+     */
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the bit recording a name length.
+     *
+     * @param length the length
+     * @return the bit
+     */
+    private static long lengthBit(int length) {
+        return 1L << Math.min(length, 63);
+    }
+}
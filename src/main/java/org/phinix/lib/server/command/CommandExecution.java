@@ -0,0 +1,41 @@
+package org.phinix.lib.server.command;
+
+/**
+ * {@code CommandExecution} enum lists where {@code CommandProcessor} runs a command, as declared by the marker
+ * interfaces the command implements.
+ *
+ * @see BlockingCommand
+ * @see CpuBoundCommand
+ */
+public enum CommandExecution {
+    /**
+     * Runs on the thread that received the line. The default, for commands that return quickly.
+     */
+    INLINE,
+
+    /**
+     * Runs on the pool of blocking commands, see {@link BlockingCommand}.
+     */
+    BLOCKING,
+
+    /**
+     * Runs on the pool of CPU-bound commands, see {@link CpuBoundCommand}.
+     */
+    CPU_BOUND;
+
+    /**
+     * Returns where a command class runs. A class implementing both markers is considered blocking.
+     *
+     * @param commandClass the class of the command
+     * @return the execution of the command
+     */
+    public static CommandExecution of(Class<?> commandClass) {
+        if (BlockingCommand.class.isAssignableFrom(commandClass)) {
+            return BLOCKING;
+        }
+        if (CpuBoundCommand.class.isAssignableFrom(commandClass)) {
+            return CPU_BOUND;
+        }
+        return INLINE;
+    }
+}
@@ -0,0 +1,256 @@
+package org.phinix.lib.server.command;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code CommandExecutor} class is a bounded pool running the commands that {@code CommandProcessor} takes off the
+ * threads reading the connections, see {@link CommandExecution}.
+ * <p>
+ * Both the threads and the queue of waiting commands are bounded. When the queue is full,
+ * {@link #tryExecute(Runnable)} refuses the command, while {@link #execute(Runnable)} holds it back and submits it
+ * as soon as a running command completes, so it never runs on the caller, which may be an event loop.
+ * {@code CommandProcessor} offloads at most one command per connection at a time and pauses reading a connection
+ * whose lines pile up, so the held back commands are bounded by the amount of connections. Idle threads are
+ * retired after a minute, and threads are daemons, so the pool never keeps the JVM alive.
+ * <p>
+ * The queue depth, the active threads and the refused and held back commands are exposed as metrics through the
+ * getters.
+ *
+ * @see CommandExecution
+ */
+public final class CommandExecutor {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Default maximum amount of commands waiting for a thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final String name; // Prefix of the pool thread names
+    private final int queueCapacity; // Maximum amount of commands waiting for a thread
+    private final ThreadPoolExecutor pool; // Threads running the commands
+    private final AtomicLong threadCount; // Amount of threads started, numbering their names
+    private final AtomicLong rejectedCount; // Amount of commands refused because the queue was full
+    private final ConcurrentLinkedDeque<Runnable> heldBack; // Commands waiting for room in the queue, oldest first
+    private final AtomicInteger heldBackCount; // Amount of commands in heldBack
+
+    /**
+     * Constructs a new CommandExecutor.
+     *
+     * @param name the prefix of the pool thread names
+     * @param threads the maximum amount of threads running commands, must be positive
+     * @param queueCapacity the maximum amount of commands waiting for a thread, must be positive
+     * @throws IllegalArgumentException if {@code threads} or {@code queueCapacity} is not positive
+     */
+    public CommandExecutor(String name, int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid command executor: threads " + threads
+                    + ", queue capacity " + queueCapacity);
+        }
+
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.threadCount = new AtomicLong();
+        this.rejectedCount = new AtomicLong();
+        this.heldBack = new ConcurrentLinkedDeque<>();
+        this.heldBackCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> Thread.ofPlatform()
+                        .name(name + "-" + threadCount.getAndIncrement())
+                        .daemon() // Never keep the JVM alive on its own
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy() // Refused commands are held back or returned to the caller
+        );
+        this.pool.allowCoreThreadTimeOut(true); // Retire idle threads
+    }
+
+    /**
+     * Runs a command on the pool, unless its queue is full. Can be called from any thread.
+     *
+     * @param command the command to run
+     * @return {@code true} if the command was accepted, {@code false} if the caller must run it
+     */
+    public boolean tryExecute(Runnable command) {
+        if (submit(command)) {
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        logger.log(Level.DEBUG, "Command executor {} is saturated, the command runs on the caller", name);
+        return false;
+    }
+
+    /**
+     * Runs a command on the pool. If its queue is full, the command is held back and submitted once a running
+     * command completes, never on the caller. Can be called from any thread.
+     *
+     * @param command the command to run
+     * @return {@code true} if the command was accepted right away, {@code false} if it was held back, or
+     *         discarded because the pool is shut down
+     */
+    public boolean execute(Runnable command) {
+        if (submit(command)) {
+            return true;
+        }
+        if (pool.isShutdown()) {
+            logger.log(Level.DEBUG, "Command executor {} is shut down, the command is discarded", name);
+            return false;
+        }
+
+        heldBack.offerLast(command);
+        heldBackCount.incrementAndGet();
+        logger.log(Level.DEBUG, "Command executor {} is saturated, the command is held back", name);
+        submitHeldBack(); // The queue may have drained meanwhile, with nobody left to submit the command
+        return false;
+    }
+
+    /**
+     * Hands a command to the pool, submitting the held back commands once it completes.
+     *
+     * @param command the command to run
+     * @return {@code true} if the command was accepted, {@code false} if the queue is full or the pool shut down
+     */
+    private boolean submit(Runnable command) {
+        try {
+            pool.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    submitHeldBack(); // A thread is about to free a slot of the queue
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Submits the held back commands, oldest first, until the queue is full again.
+     */
+    private void submitHeldBack() {
+        Runnable command;
+        while ((command = heldBack.pollFirst()) != null) {
+            if (!submit(command) && !pool.isShutdown()) {
+                heldBack.offerFirst(command); // Keep its turn, the next completed command retries
+                return;
+            }
+            heldBackCount.decrementAndGet(); // Submitted, or discarded by a shut down pool
+        }
+    }
+
+    /**
+     * Stops accepting new commands. Commands already accepted still run, held back ones are discarded.
+     */
+    public void shutdown() {
+        pool.shutdown();
+        int discarded = heldBackCount.getAndSet(0);
+        heldBack.clear(); // No completed command will submit them anymore
+        if (discarded > 0) {
+            logger.log(Level.DEBUG, "Command executor {} discarded {} held back commands", name, discarded);
+        }
+        logger.log(Level.DEBUG, "Command executor shut down: {}", name);
+    }
+
+    /**
+     * Returns whether the pool was shut down, after which every command given to it is discarded.
+     *
+     * @return {@code true} if shut down
+     */
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    /**
+     * Returns the prefix of the pool thread names.
+     *
+     * @return the executor name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the maximum amount of threads running commands.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaxPoolSize() {
+        return pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the amount of threads currently started, including idle ones.
+     *
+     * @return the pool size
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * Returns an estimate of the amount of threads currently running commands.
+     *
+     * @return the active threads
+     */
+    public int getActiveThreadCount() {
+        return pool.getActiveCount();
+    }
+
+    /**
+     * Returns the amount of commands waiting for a thread.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Returns the maximum amount of commands waiting for a thread.
+     *
+     * @return the queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns an estimate of the amount of commands run by the pool.
+     *
+     * @return the completed commands
+     */
+    public long getCompletedCount() {
+        return pool.getCompletedTaskCount();
+    }
+
+    /**
+     * Returns the amount of commands held back until the queue has room.
+     *
+     * @return the held back commands
+     */
+    public int getHeldBackCount() {
+        return heldBackCount.get();
+    }
+
+    /**
+     * Returns the amount of commands refused because the queue was full, and run by their caller instead.
+     *
+     * @return the rejected commands
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,225 @@
+package org.phinix.lib.server.command;
+
+/**
+ * {@code CommandTokenizer} class splits a command line into whitespace separated tokens: the command name followed
+ * by its arguments.
+ * <p>
+ * Tokens are recorded as offsets into the line rather than copied, and the offset array is kept between lines, so
+ * tokenizing does not allocate once the array has grown to the longest line seen. Strings are only created when a
+ * token is requested, and a line made of a single token is returned as is. Whitespace is the set matched by the
+ * {@code \s} regular expression class; leading and trailing whitespace is ignored.
+ * <p>
+ * An instance is not thread-safe and is meant to be reused by one thread, for example:
+ * <pre>{@code
+ * CommandTokenizer tokenizer = new CommandTokenizer();
+ * tokenizer.tokenize("/room create lobby 4 10");
+ * tokenizer.getCommandName(); // "/room"
+ * tokenizer.getArguments();   // ["create", "lobby", "4", "10"]
+ * }</pre>
+ *
+ * @see Command
+ * @see org.phinix.lib.server.service.services.CommandProcessor
+ */
+public final class CommandTokenizer {
+    private static final String[] NO_ARGUMENTS = new String[0]; // Shared by every command without arguments
+    private static final int INITIAL_TOKENS = 8; // Tokens the offset array holds before growing
+
+    private String line; // Line being tokenized
+    private int[] bounds; // Start and end offset of every token, in pairs
+    private int tokenCount; // Amount of tokens in the line
+
+    /**
+     * Constructs a new CommandTokenizer.
+     */
+    public CommandTokenizer() {
+        this.line = "";
+        this.bounds = new int[INITIAL_TOKENS * 2];
+    }
+
+    /**
+     * Tokenizes a line, replacing the previous one.
+     *
+     * @param line the line to tokenize
+     * @return this instance
+     */
+    public CommandTokenizer tokenize(String line) {
+        this.line = line;
+        int count = 0;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(line.charAt(i))) {
+                i++; // Skip the separator
+            }
+            if (i == length) {
+                break; // Trailing whitespace
+            }
+            int start = i;
+            while (i < length && !isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (count * 2 == bounds.length) {
+                int[] grown = new int[bounds.length * 2]; // Only for lines longer than any seen so far
+                System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                bounds = grown;
+            }
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = i;
+            count++;
+        }
+        tokenCount = count;
+        return this;
+    }
+
+    /**
+     * Returns whether a character separates tokens, matching the {@code \s} regular expression class.
+     *
+     * @param c the character
+     * @return {@code true} if the character is whitespace
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Returns the line being tokenized.
+     *
+     * @return the line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Returns whether the line has no tokens, being empty or only whitespace.
+     *
+     * @return {@code true} if there are no tokens
+     */
+    public boolean isEmpty() {
+        return tokenCount == 0;
+    }
+
+    /**
+     * Returns the amount of tokens, including the command name.
+     *
+     * @return the amount of tokens
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns the offset in the line where a token starts.
+     *
+     * @param index the index of the token, zero being the command name
+     * @return the start offset, inclusive
+     * @throws IndexOutOfBoundsException if there is no such token
+     */
+    public int getTokenStart(int index) {
+        return bounds[checkIndex(index) * 2];
+    }
+
+    /**
+     * Returns the offset in the line where a token ends.
+     *
+     * @param index the index of the token, zero being the command name
+     * @return the end offset, exclusive
+     * @throws IndexOutOfBoundsException if there is no such token
+     */
+    public int getTokenEnd(int index) {
+        return bounds[checkIndex(index) * 2 + 1];
+    }
+
+    /**
+     * Returns whether a token is equal to the given text, without creating a string for the token.
+     *
+     * @param index the index of the token, zero being the command name
+     * @param text the text to compare with
+     * @return {@code true} if the token is equal to the text
+     * @throws IndexOutOfBoundsException if there is no such token
+     */
+    public boolean tokenEquals(int index, String text) {
+        int start = getTokenStart(index);
+        int length = bounds[index * 2 + 1] - start;
+        return length == text.length() && line.regionMatches(start, text, 0, length);
+    }
+
+    /**
+     * Returns a token.
+     *
+     * @param index the index of the token, zero being the command name
+     * @return the token, the line itself if it is its only content
+     * @throws IndexOutOfBoundsException if there is no such token
+     */
+    public String getToken(int index) {
+        int start = getTokenStart(index);
+        int end = bounds[index * 2 + 1];
+        return start == 0 && end == line.length() ? line : line.substring(start, end);
+    }
+
+    /**
+     * Returns the command name, the first token.
+     *
+     * @return the command name
+     * @throws IndexOutOfBoundsException if the line has no tokens
+     */
+    public String getCommandName() {
+        return getToken(0);
+    }
+
+    /**
+     * Returns the amount of arguments following the command name.
+     *
+     * @return the amount of arguments
+     */
+    public int getArgumentCount() {
+        return Math.max(0, tokenCount - 1);
+    }
+
+    /**
+     * Returns an argument.
+     *
+     * @param index the index of the argument, zero being the token after the command name
+     * @return the argument
+     * @throws IndexOutOfBoundsException if there is no such argument
+     */
+    public String getArgument(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Argument index out of range: " + index);
+        }
+        return getToken(index + 1);
+    }
+
+    /**
+     * Returns the arguments following the command name, in the form taken by
+     * {@link Command#execute(String[], org.phinix.lib.server.core.worker.Worker)}. A shared empty array is returned
+     * when there are none.
+     *
+     * @return the arguments
+     */
+    public String[] getArguments() {
+        int count = getArgumentCount();
+        if (count == 0) {
+            return NO_ARGUMENTS;
+        }
+        String[] arguments = new String[count];
+        for (int i = 0; i < count; i++) {
+            arguments[i] = line.substring(bounds[(i + 1) * 2], bounds[(i + 1) * 2 + 1]);
+        }
+        return arguments;
+    }
+
+    /**
+     * Checks that a token exists.
+     *
+     * @param index the index of the token
+     * @return the index
+     * @throws IndexOutOfBoundsException if there is no such token
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= tokenCount) {
+            throw new IndexOutOfBoundsException("Token index out of range: " + index + ", tokens: " + tokenCount);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,18 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code CpuBoundCommand} interface marks a {@link Command} that keeps a processor busy for a noticeable time while
+ * it runs, such as one parsing and evaluating expressions.
+ * <p>
+ * {@code CommandProcessor} runs such a command on its pool of CPU-bound commands, sized to the available processors,
+ * instead of the thread reading the connection. The lines a client sends while one of its commands runs there wait
+ * for it, so the client still receives the responses in order.
+ *
+ * @param <W> the type of worker that executes the command
+ * @see CommandExecution#CPU_BOUND
+ * @see BlockingCommand
+ */
+public interface CpuBoundCommand<W extends Worker> extends Command<W> {
+}
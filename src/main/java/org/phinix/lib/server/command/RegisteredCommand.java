@@ -0,0 +1,130 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+import java.util.function.Supplier;
+
+/**
+ * {@code RegisteredCommand} class is an entry of the dispatch table of an {@link AbstractCommandFactory}: the
+ * class of a command, the factory creating it, its optional {@link ArgumentSchema}, the help message sent when the arguments of a
+ * line do not match the schema, built once when the table is built, and the {@link CommandExecution} telling where
+ * the command runs.
+ *
+ * @param <W> the type of worker that executes the command
+ * @see AbstractCommandFactory
+ * @see ArgumentSchema
+ */
+public final class RegisteredCommand<W extends Worker> {
+    private final String name; // Name as it appears in a line, prefix symbol included
+    private final Class<? extends Command<W>> commandType; // Class of the command
+    private final Supplier<? extends Command<W>> supplier; // Creates the command
+    private final ArgumentSchema schema; // Accepted arguments, null if the command checks them itself
+    private final String helpMessage; // Sent when the arguments do not match the schema
+    private final CommandExecution execution; // Where the command runs
+
+    /**
+     * Constructs a new RegisteredCommand.
+     *
+     * @param name the name as it appears in a line, prefix symbol included
+     * @param commandType the class of the command
+     * @param supplier the factory creating the command
+     * @param schema the accepted arguments, or {@code null} if the command checks them itself
+     * @param execution where the command runs
+     */
+    RegisteredCommand(String name, Class<? extends Command<W>> commandType, Supplier<? extends Command<W>> supplier,
+                      ArgumentSchema schema, CommandExecution execution) {
+        this.name = name;
+        this.commandType = commandType;
+        this.supplier = supplier;
+        this.schema = schema;
+        this.helpMessage = schema == null ? null : helpMessage(name, schema.getUsage());
+        this.execution = execution;
+    }
+
+    /**
+     * Builds the help message of a command.
+     *
+     * @param name the name of the command
+     * @param usage the usage following the name
+     * @return the help message
+     */
+    private static String helpMessage(String name, String usage) {
+        return usage.isEmpty() ? "Help: " + name : "Help: " + name + " " + usage;
+    }
+
+    /**
+     * Returns the name of the command as it appears in a line, prefix symbol included.
+     *
+     * @return the command name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the class of the command.
+     *
+     * @return the command class
+     */
+    public Class<? extends Command<W>> getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Creates an instance of the command, or returns the shared instance of a {@link StatelessCommand}.
+     *
+     * @return the command
+     */
+    public Command<W> create() {
+        return supplier.get();
+    }
+
+    /**
+     * Returns whether the arguments of a tokenized line are valid for the command. Always {@code true} for a
+     * command without schema.
+     *
+     * @param tokenizer the tokenized line
+     * @return {@code true} if the command can run with these arguments
+     */
+    public boolean accepts(CommandTokenizer tokenizer) {
+        return schema == null || schema.accepts(tokenizer);
+    }
+
+    /**
+     * Returns the arguments of a tokenized line if they are valid for the command. A command without schema
+     * accepts any arguments.
+     *
+     * @param tokenizer the tokenized line
+     * @return the arguments, or {@code null} if the command cannot run with them
+     */
+    public CommandArguments parseArguments(CommandTokenizer tokenizer) {
+        return schema == null ? CommandArguments.of(tokenizer.getArguments()) : schema.parse(tokenizer);
+    }
+
+    /**
+     * Returns the schema of the accepted arguments.
+     *
+     * @return the schema, or {@code null} if the command checks its arguments itself
+     */
+    public ArgumentSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the help message sent when the arguments do not match the schema.
+     *
+     * @return the help message, or {@code null} if the command has no schema
+     */
+    public String getHelpMessage() {
+        return helpMessage;
+    }
+
+    /**
+     * Returns where the command runs, as declared by the marker interfaces it implements.
+     *
+     * @return the execution of the command
+     */
+    public CommandExecution getExecution() {
+        return execution;
+    }
+}
@@ -0,0 +1,18 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code StatelessCommand} interface marks a {@link Command} that keeps no state between executions, so a single
+ * instance can serve every client concurrently.
+ * <p>
+ * {@link AbstractCommandFactory} creates one instance of such a command when it is registered and returns it for
+ * every line, instead of creating a new instance each time. Implementations must be thread-safe, which holds when
+ * they have no mutable fields and work only with the arguments and worker they are given.
+ *
+ * @param <W> the type of worker that executes the command
+ * @see Command
+ * @see AbstractCommandFactory
+ */
+public interface StatelessCommand<W extends Worker> extends Command<W> {
+}
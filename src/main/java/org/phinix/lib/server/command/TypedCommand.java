@@ -0,0 +1,37 @@
+package org.phinix.lib.server.command;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code TypedCommand} interface marks a {@link Command} that reads its arguments through {@link CommandArguments},
+ * receiving the values its {@link ArgumentSchema} already parsed instead of the raw strings.
+ * <p>
+ * Such a command implements {@link #execute(CommandArguments, Worker)} only. Called with raw strings, as a command
+ * without schema would be, it wraps them so integers are parsed on demand.
+ *
+ * @param <W> the type of worker that executes the command
+ * @see CommandArguments
+ * @see ArgumentSchema
+ */
+public interface TypedCommand<W extends Worker> extends Command<W> {
+
+    /**
+     * Executes the command with the specified arguments and worker.
+     *
+     * @param args the command arguments
+     * @param worker the worker executing the command
+     */
+    @Override
+    void execute(CommandArguments args, W worker);
+
+    /**
+     * Executes the command with raw arguments, wrapping them in {@link CommandArguments}.
+     *
+     * @param args the command arguments
+     * @param worker the worker executing the command
+     */
+    @Override
+    default void execute(String[] args, W worker) {
+        execute(CommandArguments.of(args), worker);
+    }
+}
@@ -7,18 +7,30 @@ import org.apache.logging.log4j.Logger;
 import org.phinix.lib.server.context.Context;
 import org.phinix.lib.server.context.ContextFactory;
 import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.TaskMetrics;
+import org.phinix.lib.server.core.transport.EventLoop;
+import org.phinix.lib.server.core.transport.LoadBalancing;
+import org.phinix.lib.server.core.transport.TransportMode;
 import org.phinix.lib.server.core.worker.Worker;
 import org.phinix.lib.server.core.worker.WorkerFactory;
 import org.phinix.lib.server.service.AbstractServiceRegister;
 import org.phinix.lib.server.service.ServiceRegisterWorker;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@code AbstractServer} class is an abstract implementation of the {@link Server} interface.
@@ -45,8 +57,18 @@ import java.util.concurrent.Executors;
  *         }
  *     }
  * }
+ * <p>
+ * Optional settings, such as the {@link TransportMode} or the {@link ExecutionMode}, are given through a
+ * {@link ServerOptions} instance passed to the constructor. Without it, the server uses the blocking
+ * thread-per-connection transport on platform threads.
+ * <p>
+ * The number of concurrent connections is limited by an {@link AdmissionController}: connections arriving
+ * while the server is full wait for a free slot in a bounded queue and are rejected with a
+ * {@link #SERVER_FULL_MESSAGE} line when the queue is full or their wait times out.
  *
  * @see Server
+ * @see ServerOptions
+ * @see AdmissionController
  * @see Manageable
  * @see Worker
  * @see WorkerFactory
@@ -57,18 +79,28 @@ import java.util.concurrent.Executors;
 public abstract class AbstractServer implements Server {
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Line sent to connections rejected because the server is full.
+     */
+    public static final String SERVER_FULL_MESSAGE = "Server is full, try again later";
+
     protected final int port; // Port number on which the server listens
     protected final int maxUsers; // Maximum number of concurrent users
+    protected final ServerOptions options; // Optional server settings
     protected final AbstractServiceRegister serviceRegister; // Service manager for saving current running service in server
     protected final AbstractTaskExecutor asyncGlobalTaskExecutor; // Executor for global asynchronous tasks
     protected ServerSocket serverSocket; // Server socket for accepting client connections
-    protected boolean isRunning; // Flag indicating whether the server is running
+    protected volatile boolean isRunning; // Flag indicating whether the server is running
 
     private final List<Worker> connectedClients; // List of connected clients
 
     private final WorkerFactory workerFactory; // Factory for creating Worker instances
     private final ContextFactory contextFactory; // Factory for creating Context instances
     private final ExecutorService threadPool; // Thread pool for handling client connections
+    private final AdmissionController admissionController; // Limits the number of concurrent connections
+    private final List<EventLoop> eventLoops; // Event loops serving connections in NIO transport mode
+    private final AtomicInteger nextEventLoop; // Index of the event loop receiving the next connection
+    private final List<ServerSocket> listeners; // Listening sockets bound to the server port
 
     /**
      * Constructs an AbstractServer with the specified parameters.
@@ -84,18 +116,45 @@ public abstract class AbstractServer implements Server {
                           WorkerFactory workerFactory,
                           ServiceRegisterWorker serviceRegisterWorker,
                           AbstractTaskExecutor taskExecutor) {
-        logger.log(Level.DEBUG, "Initializing");
+        this(port, maxUsers, new ServerOptions(), contextFactory, workerFactory, serviceRegisterWorker, taskExecutor);
+    }
+
+    /**
+     * Constructs an AbstractServer with the specified parameters and server options.
+     *
+     * @param port the port number on which the server listens
+     * @param maxUsers the maximum number of concurrent users
+     * @param options the optional server settings
+     * @param contextFactory the factory for creating Context instances
+     * @param workerFactory the factory for creating Worker instances
+     * @param taskExecutor the executor for global asynchronous tasks
+     */
+    public AbstractServer(int port, int maxUsers,
+                          ServerOptions options,
+                          ContextFactory contextFactory,
+                          WorkerFactory workerFactory,
+                          ServiceRegisterWorker serviceRegisterWorker,
+                          AbstractTaskExecutor<?> taskExecutor) {
+        logger.log(Level.DEBUG, "Initializing with {} transport on {} threads",
+                options.getTransportMode(), options.getExecutionMode());
 
         this.port = port;
         this.maxUsers = maxUsers;
+        this.options = options;
         this.workerFactory = workerFactory;
         this.contextFactory = contextFactory;
         this.asyncGlobalTaskExecutor = taskExecutor;
+        this.asyncGlobalTaskExecutor.setExecutionMode(options.getExecutionMode()); // Run global tasks on the configured threads
+        this.asyncGlobalTaskExecutor.setTaskPool(options.getTaskPool()); // Share the configured task pool
 
         this.serviceRegister = serviceRegisterWorker.createServiceRegister(); // Instantiating new ServiceRegister
 
-        threadPool = Executors.newFixedThreadPool(maxUsers); // ThreadPool with client limit
+        threadPool = createWorkerThreadPool(); // ThreadPool running blocking workers
+        admissionController = createAdmissionController(); // Connection permits limited to the maximum number of users
         connectedClients = new CopyOnWriteArrayList<>(); // Initialize the list of connected clients
+        eventLoops = new CopyOnWriteArrayList<>(); // Event loops are created when the server starts
+        nextEventLoop = new AtomicInteger();
+        listeners = new CopyOnWriteArrayList<>(); // Listening sockets are bound when the server starts
 
         isRunning = false; // initializing running as false
     }
@@ -117,21 +176,37 @@ public abstract class AbstractServer implements Server {
                           ServiceRegisterWorker serviceRegisterWorker,
                           AbstractTaskExecutor taskExecutor,
                           ServerSocket serverSocket) {
+        this(port, maxUsers, new ServerOptions(), contextFactory, workerFactory, serviceRegisterWorker, taskExecutor);
         logger.log(Level.DEBUG, "Initializing with external socket");
 
-        this.port = port;
-        this.maxUsers = maxUsers;
-        this.workerFactory = workerFactory;
-        this.contextFactory = contextFactory;
-        this.asyncGlobalTaskExecutor = taskExecutor;
         this.serverSocket = serverSocket;
+    }
 
-        this.serviceRegister = serviceRegisterWorker.createServiceRegister(); // Instantiating new ServiceRegister
+    /**
+     * Creates the thread pool running blocking workers according to the execution mode.
+     * <p>
+     * Platform threads are limited to the maximum number of users, while virtual threads are created
+     * per worker without a pool size limit.
+     *
+     * @return the worker thread pool
+     */
+    private ExecutorService createWorkerThreadPool() {
+        if (options.getExecutionMode() == ExecutionMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("worker-", 0).factory());
+        }
 
-        threadPool = Executors.newFixedThreadPool(maxUsers); // ThreadPool with client limit
-        connectedClients = new CopyOnWriteArrayList<>(); // Initialize the list of connected clients
+        return Executors.newFixedThreadPool(maxUsers); // ThreadPool with client limit
+    }
 
-        isRunning = false; // initializing running as false
+    /**
+     * Creates the admission controller limiting the concurrent connections to the maximum number of users.
+     *
+     * @return the admission controller
+     */
+    private AdmissionController createAdmissionController() {
+        return new AdmissionController(maxUsers,
+                options.getPendingAcceptQueueSize(),
+                options.getPendingAcceptTimeoutMillis());
     }
 
     /**
@@ -140,52 +215,373 @@ public abstract class AbstractServer implements Server {
      * <p>
      * Method override from {@link Server} interface
      */
-    @Override @SuppressWarnings("unchecked")
+    @Override
     public void start() {
+        if (options.getTransportMode() == TransportMode.NIO) {
+            startEventLoopTransport(); // Serve connections with selector based event loops
+            return;
+        }
+
+        startBlockingTransport(); // Serve connections with a thread per connection
+    }
+
+    /**
+     * Accepts client connections and runs each worker in its own pooled thread.
+     * This method blocks until the server is stopped.
+     */
+    @SuppressWarnings("unchecked")
+    private void startBlockingTransport() {
         try {
-            serverSocket = new ServerSocket(port); // Create a new ServerSocket to listen on the specified port
-            logger.log(Level.INFO, "Initializing server on port: {}", port);
+            int acceptThreads = resolveAcceptThreads();
+            List<ServerSocket> sockets = new ArrayList<>();
+            for (int i = 0; i < acceptThreads; i++) {
+                ServerSocket listener = new ServerSocket(); // Create a new ServerSocket to listen on the specified port
+                listeners.add(listener); // Keep the socket so stop() can close it
+                if (acceptThreads > 1) {
+                    listener.setOption(StandardSocketOptions.SO_REUSEPORT, true); // Share the port with the other listeners
+                }
+                listener.bind(new InetSocketAddress(port));
+                sockets.add(listener);
+            }
+            serverSocket = sockets.get(0);
+            logger.log(Level.INFO, "Initializing server on port: {} with {} accept thread(s)", port, acceptThreads);
 
             isRunning = true; // Set the server running flag to true
 
+            admissionController.start(); // Start admitting connections
             asyncGlobalTaskExecutor.start(this); // Start the asynchronous global task executor
 
-            while (isRunning) {
-                // Check if the maximum number of users is reached
-                if (Thread.activeCount() > maxUsers) {
-                    logger.log(Level.WARN, "Max users amount reached: {}. Waiting to accept new connections", maxUsers);
-                    continue; // Skip accepting new connections if the limit is reached
-                }
+            runAcceptors(sockets, this::acceptBlockingConnections);
+        } catch (IOException e) {
+            if (isRunning) {
+                logger.log(Level.FATAL, "Error initializing server: ", e); // Log the error if the server fails
+            }
+        } finally {
+            logger.log(Level.INFO, "Closing server...");
+            stop(); // Stop the server in the finally block to ensure it always gets executed
+        }
+    }
 
-                Socket clientSocket = serverSocket.accept(); // Accept a new client connection
-                logger.log(Level.INFO, "New connection accepted from: {}", clientSocket.getInetAddress());
+    /**
+     * Accepts connections from a listening socket and submits them for admission as blocking connections,
+     * until the server is stopped.
+     *
+     * @param listener the listening socket
+     * @throws IOException if an I/O error occurs while accepting
+     */
+    private void acceptBlockingConnections(ServerSocket listener) throws IOException {
+        while (isRunning) {
+            Socket clientSocket = listener.accept(); // Accept a new client connection
+            logger.log(Level.INFO, "New connection accepted from: {}", clientSocket.getInetAddress());
+
+            admissionController.submit( // Run the worker once a connection permit is available
+                    () -> admitBlockingClient(clientSocket),
+                    () -> rejectClient(clientSocket)
+            );
+        }
+    }
 
-                threadPool.submit(createNewClientWorker(clientSocket)); // Submit the new client worker to the thread pool
+    /**
+     * Accepts client connections and hands them to a group of {@link EventLoop} threads that
+     * multiplex them. This method blocks until the server is stopped.
+     */
+    @SuppressWarnings("unchecked")
+    private void startEventLoopTransport() {
+        try {
+            int acceptThreads = resolveAcceptThreads();
+            List<ServerSocketChannel> channels = new ArrayList<>();
+            for (int i = 0; i < acceptThreads; i++) {
+                ServerSocketChannel listener = ServerSocketChannel.open();
+                listeners.add(listener.socket()); // Keep the socket so stop() can close it
+                if (acceptThreads > 1) {
+                    listener.setOption(StandardSocketOptions.SO_REUSEPORT, true); // Share the port with the other listeners
+                }
+                listener.bind(new InetSocketAddress(port)); // Listen on the specified port
+                channels.add(listener);
             }
+            serverSocket = channels.get(0).socket();
+            logger.log(Level.INFO, "Initializing server on port: {} with {} accept thread(s) and {} event loop(s)",
+                    port, acceptThreads, options.getIoThreads());
+
+            isRunning = true; // Set the server running flag to true
+
+            startEventLoops(); // Start the threads serving connections
+            admissionController.start(); // Start admitting connections
+            asyncGlobalTaskExecutor.start(this); // Start the asynchronous global task executor
+
+            runAcceptors(channels, this::acceptEventLoopConnections);
         } catch (IOException e) {
-            logger.log(Level.FATAL, "Error initializing server: ", e); // Log the error if the server fails to initialize
+            if (isRunning) {
+                logger.log(Level.FATAL, "Error initializing server: ", e); // Log the error if the server fails
+            }
         } finally {
             logger.log(Level.INFO, "Closing server...");
             stop(); // Stop the server in the finally block to ensure it always gets executed
         }
     }
 
+    /**
+     * Accepts connections from a listening channel and submits them for admission as event loop connections,
+     * until the server is stopped.
+     *
+     * @param listener the listening channel
+     * @throws IOException if an I/O error occurs while accepting
+     */
+    private void acceptEventLoopConnections(ServerSocketChannel listener) throws IOException {
+        while (isRunning) {
+            SocketChannel clientChannel = listener.accept(); // Accept a new client connection
+            logger.log(Level.INFO, "New connection accepted from: {}", clientChannel.socket().getInetAddress());
+
+            admissionController.submit( // Register the connection once a connection permit is available
+                    () -> admitEventLoopClient(clientChannel),
+                    () -> rejectClient(clientChannel.socket())
+            );
+        }
+    }
+
+    /**
+     * Returns the amount of listening sockets to bind, falling back to a single one when more are configured
+     * but the platform does not support {@link StandardSocketOptions#SO_REUSEPORT}.
+     *
+     * @return the amount of accept threads
+     */
+    private int resolveAcceptThreads() {
+        int acceptThreads = options.getAcceptThreads();
+        if (acceptThreads > 1 && !isReusePortSupported()) {
+            logger.log(Level.WARN, "SO_REUSEPORT is not supported, using a single accept thread instead of {}",
+                    acceptThreads);
+            return 1;
+        }
+        return acceptThreads;
+    }
+
+    /**
+     * Returns whether listening sockets support {@link StandardSocketOptions#SO_REUSEPORT} on this platform.
+     *
+     * @return {@code true} if the option is supported, {@code false} otherwise
+     */
+    private static boolean isReusePortSupported() {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false; // Unable to check, assume it is not supported
+        }
+    }
+
+    /**
+     * Serves every listening socket with its own accept thread. The calling thread serves the first one and
+     * this method returns once it stops accepting; the other threads are named {@code acceptor-<n>} and stop
+     * the server if they fail while it is running.
+     *
+     * @param listeners the listening sockets
+     * @param acceptLoop the loop accepting connections from a listening socket
+     * @param <T> the type of listening socket
+     * @throws IOException if an I/O error occurs while the calling thread accepts
+     */
+    private <T> void runAcceptors(List<T> listeners, AcceptLoop<T> acceptLoop) throws IOException {
+        for (int i = 1; i < listeners.size(); i++) {
+            T listener = listeners.get(i);
+            Thread acceptor = new Thread(() -> {
+                try {
+                    acceptLoop.accept(listener);
+                } catch (IOException e) {
+                    if (isRunning) {
+                        logger.log(Level.FATAL, "Error accepting connections: ", e);
+                        stop(); // Keep the same behaviour as a failure of the main accept thread
+                    }
+                }
+            }, "acceptor-" + i);
+            acceptor.start(); // Start accepting from this listening socket
+        }
+
+        acceptLoop.accept(listeners.get(0)); // The calling thread serves the first listening socket
+    }
+
+    /**
+     * Creates and starts the event loops configured in the server options.
+     *
+     * @throws IOException if a selector cannot be opened
+     */
+    private void startEventLoops() throws IOException {
+        for (int i = 0; i < options.getIoThreads(); i++) {
+            EventLoop eventLoop = new EventLoop("event-loop-" + i);
+            eventLoops.add(eventLoop);
+            eventLoop.start(); // Start the event loop thread
+        }
+    }
+
+    /**
+     * Returns the event loop that will receive the next connection, according to the configured
+     * {@link LoadBalancing} strategy.
+     *
+     * @return the next event loop
+     */
+    private EventLoop nextEventLoop() {
+        if (options.getLoadBalancing() == LoadBalancing.LEAST_CONNECTIONS) {
+            EventLoop leastLoaded = eventLoops.get(0);
+            for (EventLoop eventLoop : eventLoops) {
+                if (eventLoop.getConnectionCount() < leastLoaded.getConnectionCount()) {
+                    leastLoaded = eventLoop; // Fewer connections than the best so far
+                }
+            }
+            return leastLoaded;
+        }
+
+        return eventLoops.get(Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.size())); // Round-robin
+    }
+
+    /**
+     * Creates the worker of an admitted blocking connection and runs it in the thread pool.
+     * Called by the {@link AdmissionController} once a connection permit is held.
+     *
+     * @param clientSocket the client socket
+     * @throws IllegalStateException if the worker cannot be created
+     */
+    private void admitBlockingClient(Socket clientSocket) {
+        Worker client;
+        try {
+            client = createNewClientWorker(clientSocket);
+        } catch (IOException e) {
+            closeQuietly(clientSocket);
+            throw new IllegalStateException("Error creating worker for " + clientSocket.getInetAddress(), e);
+        }
+
+        try {
+            threadPool.submit(client); // Submit the new client worker to the thread pool
+        } catch (RuntimeException e) {
+            discardClient(client, clientSocket); // Never served, such as when the pool is shut down
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the worker of an admitted non-blocking connection and hands it to an event loop.
+     * Called by the {@link AdmissionController} once a connection permit is held.
+     *
+     * @param clientChannel the client channel
+     * @throws IllegalStateException if the worker cannot be created
+     */
+    private void admitEventLoopClient(SocketChannel clientChannel) {
+        Worker client;
+        try {
+            clientChannel.configureBlocking(false); // Event loops only work with non-blocking channels
+            client = createNewClientWorker(clientChannel.socket());
+        } catch (IOException e) {
+            closeQuietly(clientChannel.socket());
+            throw new IllegalStateException("Error creating worker for " + clientChannel.socket().getInetAddress(), e);
+        }
+
+        try {
+            nextEventLoop().register(clientChannel, client); // Hand the connection to an event loop
+        } catch (RuntimeException e) {
+            discardClient(client, clientChannel.socket()); // Never served, such as when the loop is stopped
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the {@link #SERVER_FULL_MESSAGE} message, framed by the configured codec, to a rejected connection
+     * and closes it.
+     *
+     * @param clientSocket the rejected client socket, still in blocking mode
+     */
+    private void rejectClient(Socket clientSocket) {
+        logger.log(Level.WARN, "Max users amount reached: {}. Rejecting connection from: {}",
+                maxUsers, clientSocket.getInetAddress());
+        try {
+            OutputStream output = clientSocket.getOutputStream();
+            ByteBuffer frame = options.getMessageCodec().encode(SERVER_FULL_MESSAGE); // Framed as the client expects
+            byte[] bytes = new byte[frame.remaining()];
+            frame.duplicate().get(bytes); // The frame may be shared, read it through a view
+            output.write(bytes); // Tell the client why it is closed
+            output.flush();
+        } catch (IOException e) {
+            logger.log(Level.DEBUG, "Error notifying rejected connection: {}", e.getMessage());
+        } finally {
+            closeQuietly(clientSocket);
+        }
+    }
+
+    /**
+     * Closes a client socket, ignoring errors.
+     *
+     * @param clientSocket the client socket
+     */
+    private void closeQuietly(Socket clientSocket) {
+        try {
+            clientSocket.close();
+        } catch (IOException e) {
+            logger.log(Level.DEBUG, "Error closing client socket: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets a worker whose connection could not be served and closes its socket.
+     * <p>
+     * Its close listeners do not run, the {@link AdmissionController} gives the connection permit back.
+     *
+     * @param client the client worker
+     * @param clientSocket the client socket
+     */
+    private void discardClient(Worker client, Socket clientSocket) {
+        removeClient(client);
+        closeQuietly(clientSocket);
+    }
+
     /**
      * Creates a new client worker for the specified client socket.
+     * <p>
+     * The worker is added to the connected clients list and removed from it when its connection is closed,
+     * which also releases its connection permit. If the worker cannot be set up it is discarded and its socket
+     * is closed.
      *
      * @param clientSocket the client socket
      * @return the created Worker
      * @throws IOException if an I/O error occurs
+     * @throws RuntimeException if the worker cannot be set up
      */
     private Worker createNewClientWorker(Socket clientSocket) throws IOException {
         Context context = contextFactory.createServerContext(this); // Create a new context for the server
         Worker client = workerFactory.createWorker(clientSocket, context, serviceRegister); // Create a new worker for the client
 
-        addClient(client); // Add the new client to the connected clients list
+        try {
+            configureClient(client);
+            client.addCloseListener(() -> {
+                removeClient(client); // Remove the client once its connection is closed
+                admissionController.release(); // Give the connection permit back
+            });
+            addClient(client); // Add the new client to the connected clients list once it can be removed again
+        } catch (RuntimeException e) {
+            discardClient(client, clientSocket);
+            throw e;
+        }
 
         return client; // Return the newly created client worker
     }
 
+    /**
+     * Applies the server options to a new client worker.
+     *
+     * @param client the client worker
+     */
+    private void configureClient(Worker client) {
+        AbstractTaskExecutor<?> clientTaskExecutor = client.getAsyncClientTaskExecutor();
+        if (clientTaskExecutor != null) {
+            clientTaskExecutor.setExecutionMode(options.getExecutionMode()); // Run worker tasks on the configured threads
+            clientTaskExecutor.setTaskPool(options.getTaskPool()); // Share the configured task pool
+        }
+        client.getMessagesManager().setWriteBufferWatermarks( // Apply the configured outbound queue limits
+                options.getWriteBufferLowWatermark(),
+                options.getWriteBufferHighWatermark()
+        );
+        client.getMessagesManager().setWriteBufferLimit( // Bound the memory held by a peer that stops reading
+                options.getWriteBufferLimit(),
+                options.getWriteOverflowPolicy()
+        );
+        client.getMessagesManager().setCodec(options.getMessageCodec()); // Frame messages with the configured codec
+        client.setPipelining(options.isPipelining()); // Process message bursts at once if configured
+    }
+
     /**
      * Stops the server and closes all client connections.
      * <p>
@@ -194,16 +590,24 @@ public abstract class AbstractServer implements Server {
     @Override
     public void stop() {
         isRunning = false; // Set the server running flag to false
+        admissionController.stop(); // Reject connections still waiting for a permit
         asyncGlobalTaskExecutor.stop(); // Stop the asynchronous global task executor
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close(); // Close the server socket if it's not already closed
                 logger.log(Level.INFO, "Server stopped.");
             }
+            for (ServerSocket listener : listeners) {
+                listener.close(); // Close the listening sockets sharing the port, if any
+            }
         } catch (IOException e) {
             logger.log(Level.ERROR, "Error closing server: ", e); // Log an error if there's an issue closing the server
         }
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.stop(); // Stop every event loop, closing its connections
+        }
         threadPool.shutdown(); // Shutdown the thread pool to clean up resources
+        serviceRegister.shutdownServices(); // Release the threads of the services, such as the command pools
     }
 
     /**
@@ -213,10 +617,6 @@ public abstract class AbstractServer implements Server {
      * @return {@code true} if the client was added successfully, {@code false} otherwise
      */
     public final boolean addClient(Worker worker) {
-        if (connectedClients.isEmpty()) {
-            return false; // Return false if the connected clients list is empty
-        }
-
         return connectedClients.add(worker); // Add the client worker to the connected clients list
     }
 
@@ -227,10 +627,6 @@ public abstract class AbstractServer implements Server {
      * @return {@code true} if the client was removed successfully, {@code false} otherwise
      */
     public final boolean removeClient(Worker worker) {
-        if (connectedClients.size() >= maxUsers) {
-            return false; // Return false if the number of connected clients is at the maximum limit
-        }
-
         return connectedClients.remove(worker); // Remove the client worker from the connected clients list
     }
 
@@ -256,6 +652,23 @@ public abstract class AbstractServer implements Server {
         return asyncGlobalTaskExecutor; // Return the global asynchronous task executor
     }
 
+    /**
+     * Returns the metrics of the global tasks and of the tasks of every connected worker added together.
+     * The result is a snapshot, not updated afterwards.
+     *
+     * @return the aggregated task metrics
+     */
+    public TaskMetrics getTaskMetrics() {
+        TaskMetrics aggregated = asyncGlobalTaskExecutor.getTaskMetrics(); // Global tasks
+        for (Worker worker : connectedClients) {
+            AbstractTaskExecutor<?> clientTaskExecutor = worker.getAsyncClientTaskExecutor();
+            if (clientTaskExecutor != null) {
+                aggregated.add(clientTaskExecutor.getTaskMetrics()); // Tasks of each worker
+            }
+        }
+        return aggregated;
+    }
+
     /**
      * Returns the port number on which the server listens.
      *
@@ -273,4 +686,49 @@ public abstract class AbstractServer implements Server {
     public final int getMaxUsers() {
         return maxUsers; // Return the maximum number of concurrent users
     }
+
+    /**
+     * Returns the event loops serving connections in NIO transport mode, empty in blocking mode or before
+     * the server starts. Their counters are available through {@link EventLoop#getStats()}.
+     *
+     * @return an unmodifiable list of event loops
+     */
+    public final List<EventLoop> getEventLoops() {
+        return List.copyOf(eventLoops); // Return an unmodifiable copy of the event loops
+    }
+
+    /**
+     * Returns the admission controller limiting the concurrent connections, which exposes
+     * the connection permit counters for monitoring.
+     *
+     * @return the admission controller
+     */
+    public final AdmissionController getAdmissionController() {
+        return admissionController; // Return the admission controller
+    }
+
+    /**
+     * Returns the optional settings of the server.
+     *
+     * @return the server options
+     */
+    public final ServerOptions getOptions() {
+        return options; // Return the server options
+    }
+
+    /**
+     * Loop accepting connections from a listening socket until the server is stopped.
+     *
+     * @param <T> the type of listening socket
+     */
+    @FunctionalInterface
+    private interface AcceptLoop<T> {
+        /**
+         * Accepts connections from the listening socket.
+         *
+         * @param listener the listening socket
+         * @throws IOException if an I/O error occurs while accepting
+         */
+        void accept(T listener) throws IOException;
+    }
 }
@@ -0,0 +1,255 @@
+package org.phinix.lib.server.core;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.phinix.lib.server.core.worker.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code AdmissionController} class limits the number of concurrent connections of an {@link AbstractServer}.
+ * <p>
+ * Each admitted connection holds a permit until its {@link Worker} is closed. When no permit is available,
+ * new connections wait in a bounded pending queue for at most the configured timeout; connections that
+ * find the queue full, or whose timeout expires, are rejected right away. The accepting thread never
+ * blocks or spins on admission: waiting connections are served by a dedicated admission thread.
+ * <p>
+ * Permit counters are exposed for monitoring through {@link #getActiveConnections()},
+ * {@link #getAvailablePermits()}, {@link #getPendingConnections()}, {@link #getAdmittedConnections()}
+ * and {@link #getRejectedConnections()}.
+ *
+ * @see AbstractServer
+ * @see ServerOptions
+ */
+public class AdmissionController {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final int maxConnections; // Maximum number of concurrent connections
+    private final int pendingQueueSize; // Maximum number of connections waiting for a permit
+    private final long pendingTimeoutMillis; // Maximum time a connection waits for a permit
+    private final Semaphore permits; // One permit per admitted connection
+    private final BlockingQueue<PendingConnection> pendingConnections; // Connections waiting for a permit
+    private final AtomicInteger pendingCount; // Waiting connections, including the one being admitted
+    private final AtomicLong admittedConnections; // Total number of admitted connections
+    private final AtomicLong rejectedConnections; // Total number of rejected connections
+    private Thread admissionThread; // Thread admitting pending connections
+    private volatile boolean running; // Flag indicating whether the controller is running
+
+    /**
+     * Constructs a new AdmissionController.
+     *
+     * @param maxConnections the maximum number of concurrent connections
+     * @param pendingQueueSize the maximum number of connections waiting for a permit
+     * @param pendingTimeoutMillis the maximum time in milliseconds a connection waits for a permit
+     */
+    public AdmissionController(int maxConnections, int pendingQueueSize, long pendingTimeoutMillis) {
+        this.maxConnections = maxConnections;
+        this.pendingQueueSize = pendingQueueSize;
+        this.pendingTimeoutMillis = pendingTimeoutMillis;
+        this.permits = new Semaphore(maxConnections);
+        this.pendingConnections = new LinkedBlockingQueue<>(); // Bounded by pendingCount
+        this.pendingCount = new AtomicInteger();
+        this.admittedConnections = new AtomicLong();
+        this.rejectedConnections = new AtomicLong();
+        this.running = false;
+    }
+
+    /**
+     * Starts the thread admitting pending connections.
+     */
+    public void start() {
+        running = true; // Set the controller as running
+        if (pendingQueueSize > 0) {
+            admissionThread = new Thread(this::admitPendingConnections, "admission");
+            admissionThread.setDaemon(true);
+            admissionThread.start(); // Start admitting pending connections
+        }
+        logger.log(Level.DEBUG, "Admission controller started with {} permits", maxConnections);
+    }
+
+    /**
+     * Submits a new connection for admission.
+     * <p>
+     * If no connection is waiting and a permit is available, {@code admit} runs immediately on the calling thread.
+     * Otherwise the connection is queued behind the waiting ones and later admitted or rejected by the admission
+     * thread, so a released permit goes to the oldest waiting connection rather than to a newer arrival; if the
+     * queue is full, {@code reject} runs immediately on the calling thread. This method never blocks.
+     *
+     * @param admit the action creating the connection worker, run once a permit is held
+     * @param reject the action rejecting the connection
+     */
+    public void submit(Runnable admit, Runnable reject) {
+        if (pendingCount.get() == 0 && permits.tryAcquire()) {
+            admit(admit); // Nobody waits and a permit is available, admit right away
+            return;
+        }
+
+        int pending = pendingCount.incrementAndGet(); // Reserve a place in the pending queue
+        if (!running || pending > pendingQueueSize) {
+            pendingCount.decrementAndGet();
+            reject(reject); // No room to wait, reject right away
+            return;
+        }
+
+        pendingConnections.offer(new PendingConnection(admit, reject,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pendingTimeoutMillis)));
+        logger.log(Level.DEBUG, "Connection waiting for a permit, {} pending", pending);
+    }
+
+    /**
+     * Releases the permit held by a closed connection.
+     */
+    public void release() {
+        permits.release(); // Give the permit back
+        logger.log(Level.DEBUG, "Connection permit released, {} available", permits.availablePermits());
+    }
+
+    /**
+     * Stops the admission thread and rejects every connection still waiting for a permit.
+     */
+    public void stop() {
+        running = false; // Set the controller as stopped
+        if (admissionThread != null) {
+            admissionThread.interrupt(); // Stop waiting for permits
+        }
+
+        List<PendingConnection> remaining = new ArrayList<>();
+        pendingConnections.drainTo(remaining);
+        for (PendingConnection pending : remaining) {
+            pendingCount.decrementAndGet();
+            reject(pending.reject()); // Reject connections that were still waiting
+        }
+        logger.log(Level.DEBUG, "Admission controller stopped");
+    }
+
+    /**
+     * Admits pending connections in arrival order as permits are released.
+     */
+    private void admitPendingConnections() {
+        while (running) {
+            PendingConnection pending;
+            try {
+                pending = pendingConnections.take(); // Wait for a pending connection
+            } catch (InterruptedException e) {
+                break; // Stopped while idle
+            }
+
+            boolean acquired;
+            try {
+                long remaining = pending.deadlineNanos() - System.nanoTime();
+                acquired = permits.tryAcquire(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                acquired = false; // Stopped while waiting, the connection is rejected
+            }
+
+            pendingCount.decrementAndGet(); // The connection no longer waits
+            if (acquired) {
+                admit(pending.admit()); // A permit was released in time
+            } else {
+                reject(pending.reject()); // Timeout expired while waiting for a permit
+            }
+        }
+        logger.log(Level.DEBUG, "Admission thread stopped");
+    }
+
+    /**
+     * Runs an admission action, releasing the permit if the action fails.
+     *
+     * @param admit the admission action
+     */
+    private void admit(Runnable admit) {
+        try {
+            admit.run(); // Create the connection worker
+            admittedConnections.incrementAndGet();
+        } catch (RuntimeException e) {
+            release(); // The connection was not established, give the permit back
+            logger.log(Level.ERROR, "Error admitting connection: ", e);
+        }
+    }
+
+    /**
+     * Runs a rejection action.
+     *
+     * @param reject the rejection action
+     */
+    private void reject(Runnable reject) {
+        rejectedConnections.incrementAndGet();
+        try {
+            reject.run(); // Notify and close the connection
+        } catch (RuntimeException e) {
+            logger.log(Level.ERROR, "Error rejecting connection: ", e);
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections.
+     *
+     * @return the maximum number of concurrent connections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Returns the number of permits currently available.
+     *
+     * @return the available permits
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of connections currently holding a permit.
+     *
+     * @return the active connections
+     */
+    public int getActiveConnections() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of connections waiting for a permit.
+     *
+     * @return the pending connections
+     */
+    public int getPendingConnections() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Returns the total number of admitted connections since the server started.
+     *
+     * @return the admitted connections
+     */
+    public long getAdmittedConnections() {
+        return admittedConnections.get();
+    }
+
+    /**
+     * Returns the total number of rejected connections since the server started.
+     *
+     * @return the rejected connections
+     */
+    public long getRejectedConnections() {
+        return rejectedConnections.get();
+    }
+
+    /**
+     * A connection waiting for a permit.
+     *
+     * @param admit the action admitting the connection
+     * @param reject the action rejecting the connection
+     * @param deadlineNanos the {@link System#nanoTime()} value after which the connection is rejected
+     */
+    private record PendingConnection(Runnable admit, Runnable reject, long deadlineNanos) {}
+}
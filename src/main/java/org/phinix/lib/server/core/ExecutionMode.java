@@ -0,0 +1,40 @@
+package org.phinix.lib.server.core;
+
+import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.Task;
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code ExecutionMode} enum defines which kind of threads run server workers and asynchronous tasks.
+ * <p>
+ * The mode is selected server-wide through {@link ServerOptions}. It applies to the {@link Worker}
+ * threads of the blocking transport and to every {@link Task} started by the server and worker
+ * {@link AbstractTaskExecutor} instances.
+ *
+ * @see ServerOptions
+ * @see AbstractServer
+ * @see AbstractTaskExecutor
+ */
+public enum ExecutionMode {
+    /**
+     * Platform threads. Blocking workers run on a fixed pool sized by the maximum number of users and
+     * tasks run on the shared, bounded {@link org.phinix.lib.server.core.task.TaskPool} configured in
+     * {@link ServerOptions}.
+     */
+    PLATFORM,
+    /**
+     * Virtual threads. Each blocking worker and each task runs on its own virtual thread, so blocking
+     * reads and task delays do not hold a platform thread and the pool size limit disappears. Steps of
+     * {@link org.phinix.lib.server.core.task.ScheduledTask}s run on a new virtual thread each.
+     */
+    VIRTUAL;
+
+    /**
+     * Returns a thread builder creating threads of this mode.
+     *
+     * @return a new thread builder
+     */
+    public Thread.Builder threadBuilder() {
+        return this == VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+    }
+}
@@ -0,0 +1,380 @@
+package org.phinix.lib.server.core;
+
+import org.phinix.lib.common.socket.LineMessageCodec;
+import org.phinix.lib.common.socket.MessageCodec;
+import org.phinix.lib.common.socket.OutboundQueue;
+import org.phinix.lib.common.socket.OverflowPolicy;
+import org.phinix.lib.server.core.task.TaskPool;
+import org.phinix.lib.server.core.transport.EventLoop;
+import org.phinix.lib.server.core.transport.LoadBalancing;
+import org.phinix.lib.server.core.transport.TransportMode;
+import org.phinix.lib.server.core.worker.Worker;
+
+/**
+ * {@code ServerOptions} class groups the optional tuning parameters of an {@link AbstractServer}.
+ * <p>
+ * Every option has a default value that keeps the original behaviour of the server, so subclasses
+ * only need to pass an instance of this class when they want to opt in to a different configuration.
+ * Setters return the same instance, allowing chained configuration.
+ * <p>
+ * Use example:
+ * <pre>{@code
+ * public class MyServer extends AbstractServer {
+ *
+ *         public MyServer(int port, int maxUsers) {
+ *             super(
+ *                 port,
+ *                 maxUsers,
+ *                 new ServerOptions()
+ *                      .setTransportMode(TransportMode.NIO)
+ *                      .setIoThreads(2),
+ *                 ...
+ *             );
+ *         }
+ *     }
+ * }
+ *
+ * @see AbstractServer
+ * @see TransportMode
+ */
+public class ServerOptions {
+    private static final int DEFAULT_IO_THREADS = Runtime.getRuntime().availableProcessors(); // One event loop per core
+    private static final int DEFAULT_PENDING_ACCEPT_QUEUE_SIZE = 50; // Default amount of connections waiting for a permit
+    private static final long DEFAULT_PENDING_ACCEPT_TIMEOUT_MILLIS = 10_000; // Default time a connection waits for a permit
+
+    private TransportMode transportMode; // Transport used to serve client connections
+    private int ioThreads; // Amount of event loop threads for the NIO transport
+    private LoadBalancing loadBalancing; // Distribution of new connections among event loops
+    private int acceptThreads; // Amount of listening sockets bound to the server port, each with its own accept thread
+    private ExecutionMode executionMode; // Kind of threads running workers and tasks
+    private TaskPool taskPool; // Pool running the tasks of the server and its workers
+    private int pendingAcceptQueueSize; // Amount of connections waiting for a permit once the server is full
+    private long pendingAcceptTimeoutMillis; // Time a connection waits for a permit before being rejected
+    private int writeBufferLowWatermark; // Pending outbound bytes below which a connection is writable again
+    private int writeBufferHighWatermark; // Pending outbound bytes above which a connection stops being writable
+    private int writeBufferLimit; // Pending outbound bytes beyond which the overflow policy applies
+    private OverflowPolicy writeOverflowPolicy; // What happens to messages beyond the write buffer limit
+    private MessageCodec messageCodec; // Codec framing the messages of every connection
+    private boolean pipelining; // Whether workers process every available message at once
+
+    /**
+     * Constructs a new ServerOptions with default values.
+     */
+    public ServerOptions() {
+        this.transportMode = TransportMode.BLOCKING;
+        this.ioThreads = DEFAULT_IO_THREADS;
+        this.loadBalancing = LoadBalancing.ROUND_ROBIN;
+        this.acceptThreads = 1;
+        this.executionMode = ExecutionMode.PLATFORM;
+        this.taskPool = TaskPool.shared();
+        this.pendingAcceptQueueSize = DEFAULT_PENDING_ACCEPT_QUEUE_SIZE;
+        this.pendingAcceptTimeoutMillis = DEFAULT_PENDING_ACCEPT_TIMEOUT_MILLIS;
+        this.writeBufferLowWatermark = OutboundQueue.DEFAULT_LOW_WATERMARK;
+        this.writeBufferHighWatermark = OutboundQueue.DEFAULT_HIGH_WATERMARK;
+        this.writeBufferLimit = OutboundQueue.DEFAULT_MAX_PENDING_BYTES;
+        this.writeOverflowPolicy = OverflowPolicy.CLOSE_CONNECTION;
+        this.messageCodec = new LineMessageCodec();
+        this.pipelining = false;
+    }
+
+    /**
+     * Returns the transport mode used to serve client connections.
+     *
+     * @return the transport mode
+     */
+    public TransportMode getTransportMode() {
+        return transportMode; // Return the transport mode
+    }
+
+    /**
+     * Sets the transport mode used to serve client connections.
+     *
+     * @param transportMode the transport mode
+     * @return this options instance
+     */
+    public ServerOptions setTransportMode(TransportMode transportMode) {
+        this.transportMode = transportMode; // Set the transport mode
+        return this;
+    }
+
+    /**
+     * Returns the amount of {@link EventLoop} threads used by the NIO transport.
+     *
+     * @return the amount of event loop threads
+     */
+    public int getIoThreads() {
+        return ioThreads; // Return the amount of event loop threads
+    }
+
+    /**
+     * Sets the amount of {@link EventLoop} threads used by the NIO transport.
+     * Defaults to the number of available processors.
+     *
+     * @param ioThreads the amount of event loop threads, must be positive
+     * @return this options instance
+     * @throws IllegalArgumentException if {@code ioThreads} is not positive
+     */
+    public ServerOptions setIoThreads(int ioThreads) {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("ioThreads must be positive: " + ioThreads);
+        }
+        this.ioThreads = ioThreads; // Set the amount of event loop threads
+        return this;
+    }
+
+    /**
+     * Returns how new connections are distributed among the {@link EventLoop} threads.
+     *
+     * @return the load balancing strategy
+     */
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing; // Return the load balancing strategy
+    }
+
+    /**
+     * Sets how new connections are distributed among the {@link EventLoop} threads.
+     *
+     * @param loadBalancing the load balancing strategy
+     * @return this options instance
+     */
+    public ServerOptions setLoadBalancing(LoadBalancing loadBalancing) {
+        this.loadBalancing = loadBalancing; // Set the load balancing strategy
+        return this;
+    }
+
+    /**
+     * Returns the amount of listening sockets bound to the server port, each served by its own accept thread.
+     *
+     * @return the amount of accept threads
+     */
+    public int getAcceptThreads() {
+        return acceptThreads; // Return the amount of accept threads
+    }
+
+    /**
+     * Sets the amount of listening sockets bound to the server port, each served by its own accept thread.
+     * <p>
+     * With more than one, every socket is bound with {@link java.net.StandardSocketOptions#SO_REUSEPORT} and the
+     * kernel spreads incoming connections among them, so a burst of reconnections is not serialized behind a
+     * single accept thread. Platforms without {@code SO_REUSEPORT} fall back to a single listening socket.
+     * Defaults to 1.
+     *
+     * @param acceptThreads the amount of accept threads, must be positive
+     * @return this options instance
+     * @throws IllegalArgumentException if {@code acceptThreads} is not positive
+     */
+    public ServerOptions setAcceptThreads(int acceptThreads) {
+        if (acceptThreads < 1) {
+            throw new IllegalArgumentException("acceptThreads must be positive: " + acceptThreads);
+        }
+        this.acceptThreads = acceptThreads; // Set the amount of accept threads
+        return this;
+    }
+
+    /**
+     * Returns the kind of threads running workers and asynchronous tasks.
+     *
+     * @return the execution mode
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode; // Return the execution mode
+    }
+
+    /**
+     * Sets the kind of threads running workers and asynchronous tasks.
+     *
+     * @param executionMode the execution mode
+     * @return this options instance
+     */
+    public ServerOptions setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode; // Set the execution mode
+        return this;
+    }
+
+    /**
+     * Returns the pool running the tasks of the server and its workers in platform mode.
+     *
+     * @return the task pool
+     */
+    public TaskPool getTaskPool() {
+        return taskPool; // Return the task pool
+    }
+
+    /**
+     * Sets the pool running the tasks of the server and its workers in platform mode.
+     * The global task executor and the executor of every worker share it. Defaults to {@link TaskPool#shared()}.
+     *
+     * @param taskPool the task pool
+     * @return this options instance
+     */
+    public ServerOptions setTaskPool(TaskPool taskPool) {
+        this.taskPool = taskPool; // Set the task pool
+        return this;
+    }
+
+    /**
+     * Returns the amount of connections allowed to wait for a permit once the server is full.
+     *
+     * @return the pending accept queue size
+     */
+    public int getPendingAcceptQueueSize() {
+        return pendingAcceptQueueSize; // Return the pending accept queue size
+    }
+
+    /**
+     * Sets the amount of connections allowed to wait for a permit once the server is full.
+     * A size of zero rejects new connections as soon as the server is full.
+     *
+     * @param pendingAcceptQueueSize the pending accept queue size, must not be negative
+     * @return this options instance
+     * @throws IllegalArgumentException if {@code pendingAcceptQueueSize} is negative
+     * @see AdmissionController
+     */
+    public ServerOptions setPendingAcceptQueueSize(int pendingAcceptQueueSize) {
+        if (pendingAcceptQueueSize < 0) {
+            throw new IllegalArgumentException("pendingAcceptQueueSize must not be negative: " + pendingAcceptQueueSize);
+        }
+        this.pendingAcceptQueueSize = pendingAcceptQueueSize; // Set the pending accept queue size
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds a connection waits for a permit before being rejected.
+     *
+     * @return the pending accept timeout in milliseconds
+     */
+    public long getPendingAcceptTimeoutMillis() {
+        return pendingAcceptTimeoutMillis; // Return the pending accept timeout
+    }
+
+    /**
+     * Sets the time in milliseconds a connection waits for a permit before being rejected.
+     *
+     * @param pendingAcceptTimeoutMillis the pending accept timeout in milliseconds, must not be negative
+     * @return this options instance
+     * @throws IllegalArgumentException if {@code pendingAcceptTimeoutMillis} is negative
+     * @see AdmissionController
+     */
+    public ServerOptions setPendingAcceptTimeoutMillis(long pendingAcceptTimeoutMillis) {
+        if (pendingAcceptTimeoutMillis < 0) {
+            throw new IllegalArgumentException("pendingAcceptTimeoutMillis must not be negative: " + pendingAcceptTimeoutMillis);
+        }
+        this.pendingAcceptTimeoutMillis = pendingAcceptTimeoutMillis; // Set the pending accept timeout
+        return this;
+    }
+
+    /**
+     * Returns the pending outbound bytes below which a connection becomes writable again.
+     *
+     * @return the write buffer low watermark in bytes
+     */
+    public int getWriteBufferLowWatermark() {
+        return writeBufferLowWatermark; // Return the low watermark
+    }
+
+    /**
+     * Returns the pending outbound bytes above which a connection stops being writable.
+     *
+     * @return the write buffer high watermark in bytes
+     */
+    public int getWriteBufferHighWatermark() {
+        return writeBufferHighWatermark; // Return the high watermark
+    }
+
+    /**
+     * Sets the watermarks of the outbound queue of every client connection.
+     *
+     * @param lowWatermark the pending bytes below which a connection becomes writable again
+     * @param highWatermark the pending bytes above which a connection stops being writable
+     * @return this options instance
+     * @throws IllegalArgumentException if a watermark is negative, the low watermark exceeds the high one or the high
+     *                                  watermark exceeds the write buffer limit
+     * @see OutboundQueue
+     */
+    public ServerOptions setWriteBufferWatermarks(int lowWatermark, int highWatermark) {
+        OutboundQueue.validateWatermarks(lowWatermark, highWatermark);
+        OutboundQueue.validateLimit(highWatermark, writeBufferLimit);
+        this.writeBufferLowWatermark = lowWatermark; // Set the low watermark
+        this.writeBufferHighWatermark = highWatermark; // Set the high watermark
+        return this;
+    }
+
+    /**
+     * Returns the pending outbound bytes beyond which the overflow policy applies to new messages.
+     *
+     * @return the write buffer limit in bytes
+     */
+    public int getWriteBufferLimit() {
+        return writeBufferLimit; // Return the write buffer limit
+    }
+
+    /**
+     * Returns what happens to messages sent to a connection whose pending outbound bytes reached the limit.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getWriteOverflowPolicy() {
+        return writeOverflowPolicy; // Return the overflow policy
+    }
+
+    /**
+     * Sets the hard limit of the outbound queue of every client connection, and what happens to messages that
+     * would exceed it. By default, a connection holding {@value OutboundQueue#DEFAULT_MAX_PENDING_BYTES} pending
+     * bytes is closed.
+     *
+     * @param maxPendingBytes the pending bytes beyond which the overflow policy applies
+     * @param overflowPolicy the policy applied to messages beyond the limit
+     * @return this options instance
+     * @throws IllegalArgumentException if the limit is below the high watermark
+     * @see OverflowPolicy
+     */
+    public ServerOptions setWriteBufferLimit(int maxPendingBytes, OverflowPolicy overflowPolicy) {
+        OutboundQueue.validateLimit(writeBufferHighWatermark, maxPendingBytes);
+        this.writeBufferLimit = maxPendingBytes; // Set the write buffer limit
+        this.writeOverflowPolicy = overflowPolicy; // Set the overflow policy
+        return this;
+    }
+
+    /**
+     * Returns the codec framing the messages of every connection.
+     *
+     * @return the message codec
+     */
+    public MessageCodec getMessageCodec() {
+        return messageCodec; // Return the message codec
+    }
+
+    /**
+     * Sets the codec framing the messages of every connection. Clients must use the same codec.
+     *
+     * @param messageCodec the message codec
+     * @return this options instance
+     * @see MessageCodec
+     */
+    public ServerOptions setMessageCodec(MessageCodec messageCodec) {
+        this.messageCodec = messageCodec; // Set the message codec
+        return this;
+    }
+
+    /**
+     * Returns whether workers process every available message at once.
+     *
+     * @return {@code true} if pipelining is enabled
+     */
+    public boolean isPipelining() {
+        return pipelining; // Return the pipelining flag
+    }
+
+    /**
+     * Sets whether workers process every available message at once. When enabled, the messages a client sends in
+     * a burst are dispatched together, in order, and all their responses are written with a single flush.
+     *
+     * @param pipelining {@code true} to enable pipelining
+     * @return this options instance
+     * @see Worker#listenBatch(java.util.List)
+     */
+    public ServerOptions setPipelining(boolean pipelining) {
+        this.pipelining = pipelining; // Set the pipelining flag
+        return this;
+    }
+}
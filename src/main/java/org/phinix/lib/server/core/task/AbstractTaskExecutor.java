@@ -4,10 +4,23 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.phinix.lib.server.core.ExecutionMode;
 import org.phinix.lib.server.core.Manageable;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * {@code AbstractTaskExecutor} abstract class for managing the execution of multiple tasks.
@@ -17,20 +30,47 @@ import java.util.ArrayList;
  * Additionally, the task executor can be stopped, and the number of tasks registered and running can be queried using
  * {@link #getAmountRegisteredTasks()} and {@link #getAmountRunningTasks()}.
  * <p>
+ * Tasks can also be added to, cancelled on and replaced in an executor that is already started, from any thread,
+ * with {@link #submit(Task)}, {@link #cancel(Task)} and {@link #replace(Task, Task)}. Submitting a task costs
+ * constant time. Tasks that finish on their own are released by the executor.
+ * <p>
+ * Tasks declaring dependencies with {@link Task#addDependency(Task)} are started once those have finished, while
+ * independent tasks start in parallel on the pool. Once every task registered before {@link #start(Manageable)} has
+ * completed its first execution, the executor logs the duration of the startup and its critical path, the longest
+ * chain of dependent tasks, also available through {@link #getCriticalPath()}.
+ * <p>
+ * Tasks run on a shared, bounded {@link TaskPool} unless the {@link ExecutionMode#VIRTUAL} mode is set with
+ * {@link #setExecutionMode(ExecutionMode)}. The pool is set with {@link #setTaskPool(TaskPool)}; servers set both
+ * from their options for the global executor and for the executor of every worker they create, so all of them
+ * share the same threads. Every run of a task, or step of a {@link ScheduledTask}, is accounted per executor
+ * through {@link #getSubmittedRuns()}, {@link #getActiveRuns()}, {@link #getCompletedRuns()},
+ * {@link #getFailedRuns()} and {@link #getBusyNanos()}, and the {@link TaskState} of every task through
+ * {@link #getTasks()} and {@link #getTaskStateCounts()}. The {@link TaskMetrics} of each task are read through
+ * {@link Task#getMetrics()}, and those of all the tasks of the executor through {@link #getTaskMetrics()}.
+ * <p>
  * Example use:
  * <pre>{@code
  * public class MyTaskExecutor extends AbstractTaskExecutor<MyServer> {
  *     @Override
  *     protected int initTasks() {
- *         registerTasks(new Task1<>());
- *         registerTasks(new Task2<>());
- *         registerTasks(new Task3<>());
+ *         Task<MyServer> loadData = new LoadDataTask<>();
+ *         Task<MyServer> rebuildIndices = new RebuildIndicesTask<>();
+ *         rebuildIndices.addDependency(loadData); // Starts once the data is loaded
+ *
+ *         registerTasks(loadData);
+ *         registerTasks(rebuildIndices);
+ *         registerTasks(new WarmCachesTask<>()); // Runs in parallel with the others
  *         registerTasks(new Task4<>());
  *
  *         // Return the number of registered tasks
  *         return getAmountRegisteredTasks();
  *     }
  * }
+ *
+ * // Later, while the server runs
+ * Task<MyServer> timer = new TurnTimerTask<>();
+ * server.getAsyncGlobalTaskExecutor().submit(timer);
+ * server.getAsyncGlobalTaskExecutor().cancel(timer);
  * }
  *
  * @param <M> the type of manageable component associated with the tasks
@@ -40,8 +80,18 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     private static final Logger logger = LogManager.getLogger();
 
     private final TaskQueue<M> taskQueue; // Queue of tasks to be executed
-    private final List<Task<M>> taskThreads; // List of running task threads
-    private boolean running; // Flag indicating whether the task executor is running
+    private final Set<Task<M>> taskThreads; // Started tasks, added and removed from any thread
+    private volatile boolean running; // Flag indicating whether the task executor is running
+    private volatile M serverContext; // Context the tasks are started with, once the executor is started
+    private volatile List<Task<?>> criticalPath; // Longest chain of dependent startup tasks
+    private volatile long criticalPathNanos; // Duration of the critical path
+    private volatile ExecutionMode executionMode; // Kind of threads running the tasks
+    private volatile TaskPool taskPool; // Pool running the tasks in platform mode
+    private final AtomicLong submittedRuns; // Task runs handed to the threads
+    private final AtomicInteger activeRuns; // Task runs currently running
+    private final AtomicLong completedRuns; // Task runs finished normally
+    private final AtomicLong failedRuns; // Task runs finished with an exception
+    private final AtomicLong busyNanos; // Total time spent running tasks
 
     /**
      * Constructs an AbstractTaskExecutor with the specified task queue.
@@ -51,8 +101,16 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     public AbstractTaskExecutor(TaskQueue<M> taskQueue) {
         this.taskQueue = taskQueue;
 
-        this.taskThreads = new ArrayList<>();
+        this.taskThreads = ConcurrentHashMap.newKeySet();
+        this.criticalPath = List.of();
         this.running = false;
+        this.executionMode = ExecutionMode.PLATFORM;
+        this.taskPool = TaskPool.shared();
+        this.submittedRuns = new AtomicLong();
+        this.activeRuns = new AtomicInteger();
+        this.completedRuns = new AtomicLong();
+        this.failedRuns = new AtomicLong();
+        this.busyNanos = new AtomicLong();
 
         // Initialize tasks and log the number of tasks registered
         int amountRegisteredTasks = initTasks();
@@ -84,29 +142,23 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     /**
      * Starts the task executor with the given server context.
      * <p>
-     * This method pulls tasks from the task queue and starts them in separate threads.
-     * It logs the task being added to the execution list.
+     * This method pulls tasks from the task queue and starts them in separate threads, each one once its
+     * dependencies have finished. It logs the task being added to the execution list and, once every task has
+     * completed its first execution, the duration of the startup and its critical path.
      *
      * @param serverContext the server context
      */
     public void start(M serverContext) {
+        this.serverContext = serverContext; // Context of the tasks submitted from now on
         running = true; // Set the running flag to true
         try {
-            // Process tasks in the task queue
-            while (taskQueue.hasTasks()) {
-                Task<M> task = taskQueue.getNextTask();
-                if (task != null) {
-                    taskThreads.add(task); // Add the task to the task execution list
-                    logger.log(Level.DEBUG, "Task added to execution list: {}", task.getName()); // Log the addition
-                }
-            }
-
-            // Start all tasks in the queue
-            startAllInQueue(serverContext);
-
-            // If there are no tasks, sleep for a while
-            if (!taskQueue.hasTasks()) {
-                Thread.sleep(100); // Sleep for 100 milliseconds before checking again
+            long startupBegin = System.nanoTime();
+            List<Task<M>> startupTasks = startAllInQueue(); // Start all tasks in the queue
+            if (!startupTasks.isEmpty()) {
+                CompletableFuture.allOf(startupTasks.stream()
+                                .map(Task::getFirstCompletion)
+                                .toArray(CompletableFuture[]::new))
+                        .thenRun(() -> reportStartup(startupTasks, startupBegin)); // Once every task ran once
             }
         } catch (Exception e) {
             Thread.currentThread().interrupt(); // Handle any interruptions
@@ -115,17 +167,216 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     }
 
     /**
-     * Starts all tasks in the queue with the given server context.
+     * Starts all tasks in the queue with the server context.
      * <p>
-     * This method iterates over all tasks in the execution list and starts them.
+     * This method pulls the tasks from the queue one by one, so concurrent callers never start a task twice.
+     */
+    private List<Task<M>> startAllInQueue() {
+        List<Task<M>> started = new ArrayList<>();
+        Task<M> task;
+        while ((task = taskQueue.getNextTask()) != null) {
+            startTask(task);
+            started.add(task);
+        }
+        return started;
+    }
+
+    /**
+     * Adds a task to the execution list and starts it on the configured threads, right away or once all its
+     * dependencies have finished.
      *
-     * @param serverContext the server context
+     * @param task the task to start
      */
-    private void startAllInQueue(M serverContext) {
-        for (Task<M> task : taskThreads) {
-            task.start(serverContext); // Start each task
-            logger.log(Level.DEBUG, "Task started: {}", task.getName()); // Log the start of the task
+    private void startTask(Task<M> task) {
+        taskThreads.add(task); // Add the task to the task execution list
+        logger.log(Level.DEBUG, "Task added to execution list: {}", task.getName()); // Log the addition
+
+        Set<Task<?>> dependencies = task.getDependencies();
+        if (dependencies.isEmpty()) {
+            launchTask(task);
+            return;
+        }
+        logger.log(Level.DEBUG, "Task {} waits for {} dependencies", task.getName(), dependencies.size());
+        CompletableFuture.allOf(dependencies.stream()
+                        .map(Task::getCompletion)
+                        .toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> launchTask(task), taskPool); // Start it on the pool once they have finished
+    }
+
+    /**
+     * Starts a task on the configured threads, unless it was cancelled meanwhile.
+     *
+     * @param task the task to start
+     */
+    private void launchTask(Task<M> task) {
+        if (task.getState() != TaskState.NEW) {
+            return; // Cancelled while waiting for its dependencies
+        }
+        task.start(serverContext, run -> execute(task, run)); // Start the task on the configured threads
+        logger.log(Level.DEBUG, "Task started: {}", task.getName()); // Log the start of the task
+
+        if (!running && taskThreads.remove(task)) {
+            task.stop(); // The executor was stopped meanwhile
+        }
+    }
+
+    /**
+     * Computes the critical path of the startup, the longest chain of dependent tasks, and logs it.
+     * <p>
+     * Each task of the chain weighs the time from its start to the end of its first execution, or to its end if it
+     * finished earlier.
+     *
+     * @param startupTasks the tasks started by {@link #start(Manageable)}
+     * @param startupBegin the {@link System#nanoTime()} value at which they were started
+     */
+    private void reportStartup(List<Task<M>> startupTasks, long startupBegin) {
+        long startupNanos = System.nanoTime() - startupBegin;
+        Map<Task<?>, Long> pathNanos = new HashMap<>(); // Longest chain ending with each task
+
+        Task<?> last = null;
+        long longest = -1;
+        for (Task<M> task : startupTasks) {
+            long path = criticalPathNanos(task, pathNanos);
+            if (path > longest) {
+                longest = path;
+                last = task;
+            }
+        }
+
+        List<Task<?>> path = new ArrayList<>();
+        for (Task<?> task = last; task != null; task = slowestDependency(task, pathNanos)) {
+            path.add(task); // Walk the chain back from its last task
+        }
+        Collections.reverse(path);
+
+        criticalPath = List.copyOf(path);
+        criticalPathNanos = longest;
+        logger.log(Level.INFO, "{} startup tasks completed in {} ms, critical path {} ms: {}",
+                startupTasks.size(),
+                TimeUnit.NANOSECONDS.toMillis(startupNanos),
+                TimeUnit.NANOSECONDS.toMillis(longest),
+                path.stream().map(Task::getName).collect(Collectors.joining(" -> ")));
+    }
+
+    /**
+     * Returns the duration of the longest chain of dependencies ending with a task.
+     *
+     * @param task the last task of the chain
+     * @param pathNanos the durations already computed
+     * @return the duration of the chain in nanoseconds
+     */
+    private static long criticalPathNanos(Task<?> task, Map<Task<?>, Long> pathNanos) {
+        Long known = pathNanos.get(task);
+        if (known != null) {
+            return known;
+        }
+
+        long longest = 0;
+        for (Task<?> dependency : task.getDependencies()) {
+            longest = Math.max(longest, criticalPathNanos(dependency, pathNanos));
+        }
+        long path = longest + task.getFirstCompletionNanos();
+        pathNanos.put(task, path);
+        return path;
+    }
+
+    /**
+     * Returns the dependency of a task ending the longest chain.
+     *
+     * @param task the task
+     * @param pathNanos the durations computed by {@link #criticalPathNanos(Task, Map)}
+     * @return the slowest dependency, or {@code null} if the task has none
+     */
+    private static Task<?> slowestDependency(Task<?> task, Map<Task<?>, Long> pathNanos) {
+        Task<?> slowest = null;
+        long longest = -1;
+        for (Task<?> dependency : task.getDependencies()) {
+            long path = pathNanos.getOrDefault(dependency, 0L);
+            if (path > longest) {
+                longest = path;
+                slowest = dependency;
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * Submits a task to the executor.
+     * <p>
+     * If the executor is running, the task is started right away with the server context; otherwise it is queued
+     * and started by {@link #start(Manageable)}. Can be called from any thread, in constant time.
+     *
+     * @param task the task to submit, not started yet
+     * @return {@code true} if the task was submitted, {@code false} if it was already started
+     */
+    public boolean submit(Task<M> task) {
+        if (task.getState() != TaskState.NEW) {
+            logger.log(Level.WARN, "Task already started, not submitted: {}", task.getName());
+            return false;
+        }
+
+        taskQueue.addTask(task); // Queue the task, start() picks it up if the executor is not running yet
+        if (running) {
+            startAllInQueue(); // Start it now
+        }
+        return true;
+    }
+
+    /**
+     * Cancels a task submitted to or registered in the executor, stopping it if it was started.
+     * Can be called from any thread.
+     *
+     * @param task the task to cancel
+     * @return {@code true} if the task was cancelled, {@code false} if it was not in the executor or had finished
+     */
+    public boolean cancel(Task<M> task) {
+        boolean cancelled = taskThreads.remove(task) || taskQueue.removeTask(task);
+        if (cancelled) {
+            task.stop(); // Stop the task and cancel its next step
+            logger.log(Level.DEBUG, "Task cancelled: {}", task.getName());
         }
+        return cancelled;
+    }
+
+    /**
+     * Replaces a task with another, cancelling the first one and submitting the second one.
+     * Can be called from any thread.
+     *
+     * @param task the task to cancel
+     * @param replacement the task to submit, not started yet
+     * @return {@code true} if the replacement was submitted, {@code false} if it was already started
+     */
+    public boolean replace(Task<M> task, Task<M> replacement) {
+        cancel(task);
+        return submit(replacement);
+    }
+
+    /**
+     * Runs a task run on the configured threads, accounting it, and releases the task once it has finished.
+     *
+     * @param task the task the run belongs to
+     * @param run the task run
+     */
+    private void execute(Task<M> task, Runnable run) {
+        submittedRuns.incrementAndGet();
+        Executor executor = executionMode == ExecutionMode.VIRTUAL ? TaskPool.virtualThreads() : taskPool;
+        executor.execute(() -> {
+            activeRuns.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                run.run(); // Run the task
+                completedRuns.incrementAndGet();
+            } catch (RuntimeException e) {
+                failedRuns.incrementAndGet();
+                logger.log(Level.ERROR, "Error running task: ", e); // Log the failure, the pool thread survives
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+                activeRuns.decrementAndGet();
+                if (task.getState() == TaskState.STOPPED) {
+                    taskThreads.remove(task); // Finished, nothing left to run
+                }
+            }
+        });
     }
 
     /**
@@ -137,10 +388,11 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     public void stop() {
         running = false; // Set the running flag to false
         for (Task<M> task : taskThreads) {
-            logger.log(Level.DEBUG, "Stopping task: {}:{}", task.getClass().getSimpleName(), task.getName()); // Log the task stop
-            task.stop(); // Stop the task
+            if (taskThreads.remove(task)) {
+                logger.log(Level.DEBUG, "Stopping task: {}:{}", task.getClass().getSimpleName(), task.getName()); // Log the task stop
+                task.stop(); // Stop the task
+            }
         }
-        taskThreads.clear(); // Clear the list of task threads
         logger.log(Level.DEBUG, "All tasks stopped and execution list cleared."); // Log clearing of task list
     }
 
@@ -158,12 +410,160 @@ public abstract class AbstractTaskExecutor<M extends Manageable> {
     /**
      * Returns the number of running tasks.
      * <p>
-     * This method returns the size of the task execution list, which represents the number of tasks currently running.
+     * This method counts the started tasks of the execution list that are running or paused.
      *
      * @return the number of running tasks
      */
     public int getAmountRunningTasks() {
-        return taskThreads.size(); // Return the size of the task execution list
+        int running = 0;
+        for (Task<M> task : taskThreads) {
+            if (task.isRunning()) {
+                running++; // Started and not stopped yet
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Returns the tasks started by this executor, whose state can be queried for monitoring.
+     *
+     * @return a copy of the started tasks
+     */
+    public List<Task<M>> getTasks() {
+        return List.copyOf(taskThreads);
+    }
+
+    /**
+     * Returns the amount of started tasks in each {@link TaskState}.
+     *
+     * @return the amount of tasks per state
+     */
+    public Map<TaskState, Integer> getTaskStateCounts() {
+        Map<TaskState, Integer> counts = new EnumMap<>(TaskState.class);
+        for (TaskState state : TaskState.values()) {
+            counts.put(state, 0);
+        }
+        for (Task<M> task : taskThreads) {
+            counts.merge(task.getState(), 1, Integer::sum); // Count the task in its current state
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the metrics of all the started tasks added together: executions, failures, durations and
+     * scheduling lags. The result is a snapshot, not updated afterwards.
+     *
+     * @return the aggregated task metrics
+     */
+    public TaskMetrics getTaskMetrics() {
+        TaskMetrics aggregated = new TaskMetrics();
+        for (Task<M> task : taskThreads) {
+            aggregated.add(task.getMetrics());
+        }
+        return aggregated;
+    }
+
+    /**
+     * Returns the longest chain of dependent tasks of the startup, from first to last, once every task started by
+     * {@link #start(Manageable)} has completed its first execution.
+     *
+     * @return the critical path, empty until the startup has completed
+     */
+    public List<Task<?>> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * Returns the duration of the critical path of the startup.
+     *
+     * @param unit the unit of the returned value
+     * @return the critical path duration, or zero until the startup has completed
+     */
+    public long getCriticalPathDuration(TimeUnit unit) {
+        return unit.convert(Math.max(0, criticalPathNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the kind of threads running the tasks.
+     *
+     * @return the execution mode
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode; // Return the execution mode
+    }
+
+    /**
+     * Sets the kind of threads running the tasks started from now on.
+     *
+     * @param executionMode the execution mode
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode; // Set the execution mode
+        logger.log(Level.DEBUG, "Task executor execution mode set to {}", executionMode);
+    }
+
+    /**
+     * Returns the pool running the tasks in platform mode.
+     *
+     * @return the task pool
+     */
+    public TaskPool getTaskPool() {
+        return taskPool; // Return the task pool
+    }
+
+    /**
+     * Sets the pool running the tasks started from now on in platform mode.
+     *
+     * @param taskPool the task pool
+     */
+    public void setTaskPool(TaskPool taskPool) {
+        this.taskPool = taskPool; // Set the task pool
+        logger.log(Level.DEBUG, "Task executor pool set to {}", taskPool.getName());
+    }
+
+    /**
+     * Returns the amount of task runs handed to the threads, including the steps of scheduled tasks.
+     *
+     * @return the submitted runs
+     */
+    public long getSubmittedRuns() {
+        return submittedRuns.get();
+    }
+
+    /**
+     * Returns the amount of task runs currently running.
+     *
+     * @return the active runs
+     */
+    public int getActiveRuns() {
+        return activeRuns.get();
+    }
+
+    /**
+     * Returns the amount of task runs finished normally.
+     *
+     * @return the completed runs
+     */
+    public long getCompletedRuns() {
+        return completedRuns.get();
+    }
+
+    /**
+     * Returns the amount of task runs finished with an exception.
+     *
+     * @return the failed runs
+     */
+    public long getFailedRuns() {
+        return failedRuns.get();
+    }
+
+    /**
+     * Returns the total time spent running tasks, in nanoseconds.
+     *
+     * @return the busy time
+     */
+    public long getBusyNanos() {
+        return busyNanos.get();
     }
 
     /**
@@ -0,0 +1,177 @@
+package org.phinix.lib.server.core.task;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code LatencyHistogram} class records durations in nanoseconds into a fixed set of log-linear buckets, without
+ * locks.
+ * <p>
+ * Each power of two is split into eight buckets, so a percentile is reported with an error of at most
+ * 12.5%, while the count, total, last and maximum values are exact. Values up to about 68 seconds have their own
+ * bucket; longer ones share the last bucket. Recording is a handful of atomic increments and can be done from any
+ * thread; reads are not atomic snapshots, but every recorded value is eventually visible.
+ *
+ * @see TaskMetrics
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3; // Buckets per power of two, as a power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Buckets per power of two
+    private static final int MAX_VALUE_BITS = 36; // Values below 2^36 ns (about 68 seconds) have their own bucket
+    private static final int BUCKETS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS; // Amount of buckets
+
+    private final AtomicLongArray counts; // Amount of values recorded in each bucket
+    private final AtomicLong count; // Amount of values recorded
+    private final AtomicLong total; // Sum of the values recorded
+    private final AtomicLong max; // Largest value recorded
+    private volatile long last; // Last value recorded
+
+    /**
+     * Constructs a new, empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a duration. Negative durations are recorded as zero.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        last = value;
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get(); // Another thread raised the maximum meanwhile
+        }
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = other.counts.get(i);
+            if (bucketCount > 0) {
+                counts.addAndGet(i, bucketCount);
+            }
+        }
+        count.addAndGet(other.count.get());
+        total.addAndGet(other.total.get());
+        long otherMax = other.max.get();
+        long current = max.get();
+        while (otherMax > current && !max.compareAndSet(current, otherMax)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the bucket holding a value.
+     *
+     * @param value the value, not negative
+     * @return the bucket index
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value; // Small values are exact
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int index = (exponent + 1) * SUB_BUCKETS + (int) (value >>> exponent) - SUB_BUCKETS;
+        return Math.min(index, BUCKETS - 1); // Longer values share the last bucket
+    }
+
+    /**
+     * Returns the largest value held by a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the upper bound of the bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << exponent) - 1;
+    }
+
+    /**
+     * Returns the amount of values recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the last value recorded.
+     *
+     * @param unit the unit of the returned value
+     * @return the last value, or zero if none was recorded
+     */
+    public long getLast(TimeUnit unit) {
+        return unit.convert(last, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @param unit the unit of the returned value
+     * @return the mean, or zero if none was recorded
+     */
+    public long getMean(TimeUnit unit) {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : unit.convert(total.get() / recorded, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @param unit the unit of the returned value
+     * @return the maximum, or zero if none was recorded
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall, rounded up to the bound of
+     * its bucket and never above the maximum.
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @param unit the unit of the returned value
+     * @return the percentile, or zero if none was recorded
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100)); // Values at or below the percentile
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return unit.convert(Math.min(upperBoundOf(i), max.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS); // Recorded while reading
+    }
+}
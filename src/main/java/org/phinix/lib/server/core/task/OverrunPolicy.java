@@ -0,0 +1,19 @@
+package org.phinix.lib.server.core.task;
+
+/**
+ * {@code OverrunPolicy} enum defines what a {@link PeriodMode#FIXED_RATE} task does when an execution finishes
+ * after the next one was due.
+ *
+ * @see ScheduledTask
+ * @see PeriodMode
+ */
+public enum OverrunPolicy {
+    /**
+     * Run the late executions back to back until the task is on schedule again, so no execution is lost.
+     */
+    CATCH_UP,
+    /**
+     * Drop the executions that were missed and wait for the next start on the original cadence.
+     */
+    SKIP
+}
@@ -0,0 +1,21 @@
+package org.phinix.lib.server.core.task;
+
+/**
+ * {@code PeriodMode} enum defines how the period of a periodic {@link ScheduledTask} is measured.
+ *
+ * @see ScheduledTask
+ * @see OverrunPolicy
+ */
+public enum PeriodMode {
+    /**
+     * The period is measured from the end of an execution to the start of the next one, so the effective
+     * period is the period plus the processing time.
+     */
+    FIXED_DELAY,
+    /**
+     * The period is measured from the intended start of an execution to the intended start of the next one,
+     * so the cadence is kept whatever the processing time. Executions finishing after the next one was due
+     * are handled by the {@link OverrunPolicy} of the task.
+     */
+    FIXED_RATE
+}
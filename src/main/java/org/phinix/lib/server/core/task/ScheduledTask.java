@@ -0,0 +1,287 @@
+package org.phinix.lib.server.core.task;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.phinix.lib.server.core.Manageable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ScheduledTask} abstract class representing a task made of steps separated by delays, driven by a
+ * {@link TimingWheel} instead of a thread of its own.
+ * <p>
+ * Once started, the task schedules its first step on the wheel after {@link #initialDelay()}. When the delay
+ * elapses the step runs on the executor the task was started on, usually a {@link TaskPool}, and returns the delay
+ * until the next step, or {@link #DONE}. Between steps the task holds no thread, so thousands of timers are served
+ * by the wheel thread and a handful of pool threads.
+ * <p>
+ * Periodic tasks compute the delay until their next step with {@link #periodDelay(long, PeriodMode, OverrunPolicy)},
+ * which supports fixed-delay and fixed-rate cadences and counts overruns.
+ * <p>
+ * The delay between the intended and actual start of every step is recorded as the scheduling lag in the
+ * {@link TaskMetrics} of the task.
+ * <p>
+ * A step coming due while the task is paused is held back without polling and runs as soon as the task is resumed.
+ * <p>
+ * The {@link #executeAsync(Manageable)} method runs the same steps on the calling thread, sleeping between them.
+ * <p>
+ * Example use:
+ * <pre>{@code
+ * public class MyTask extends ScheduledTask<MyServer> {
+ *     @Override
+ *     protected long runStep(MyServer server) {
+ *         runProcess(server);
+ *         return 1000; // Run again in 1 second
+ *     }
+ * }
+ * }
+ *
+ * @param <M> the type of manageable component associated with the task
+ * @see TimingWheel
+ * @see org.phinix.lib.server.core.task.tasks.LoopTask
+ * @see org.phinix.lib.server.core.task.tasks.FixedCountTask
+ * @see org.phinix.lib.server.core.task.tasks.DelayOneTimeTask
+ */
+public abstract class ScheduledTask<M extends Manageable> extends Task<M> {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Value returned by {@link #runStep(Manageable)} when the task has finished.
+     */
+    protected static final long DONE = -1;
+
+    private final TimingWheel timingWheel; // Wheel scheduling the steps
+    private final AtomicBoolean stepHeld; // Whether a due step waits for the task to be resumed
+    private volatile Executor stepExecutor; // Executor running the steps
+    private volatile M manageable; // Manageable component passed to the steps
+    private volatile Timeout nextStep; // Handle of the next scheduled step
+    private volatile long stepDeadlineNanos; // Intended start of the current step, as a System.nanoTime() value
+    private long plannedDeadlineNanos; // Exact start of the next step planned by periodDelay()
+    private boolean deadlinePlanned; // Whether plannedDeadlineNanos applies to the next step
+    private final AtomicLong overruns; // Executions that finished after the next one was due
+    private final AtomicLong skippedExecutions; // Executions dropped by the SKIP overrun policy
+
+    /**
+     * Constructs a new ScheduledTask driven by the {@link TimingWheel#shared()} wheel.
+     */
+    protected ScheduledTask() {
+        this(TimingWheel.shared());
+    }
+
+    /**
+     * Constructs a new ScheduledTask driven by the given wheel.
+     *
+     * @param timingWheel the wheel scheduling the steps
+     */
+    protected ScheduledTask(TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+        this.stepHeld = new AtomicBoolean(false);
+        this.overruns = new AtomicLong();
+        this.skippedExecutions = new AtomicLong();
+    }
+
+    /**
+     * Runs one step of the task.
+     *
+     * @param manageable the manageable component
+     * @return the delay in milliseconds until the next step, or {@link #DONE} if the task has finished
+     */
+    protected abstract long runStep(M manageable);
+
+    /**
+     * Returns the delay in milliseconds before the first step. Defaults to no delay.
+     *
+     * @return the initial delay
+     */
+    protected long initialDelay() {
+        return 0;
+    }
+
+    /**
+     * Starts the task, scheduling its first step on the wheel. Steps run on the given executor.
+     *
+     * @param serverContext the server context
+     * @param executor the executor running the steps
+     */
+    @Override
+    public void start(M serverContext, Executor executor) {
+        if (!begin()) {
+            logger.log(Level.DEBUG, "Task already started: {}", getName());
+            return;
+        }
+
+        manageable = serverContext;
+        stepExecutor = executor;
+        scheduleStep(initialDelay());
+        logger.log(Level.DEBUG, "Task scheduled: {}", getName()); // Log that the task has been scheduled
+    }
+
+    /**
+     * Runs the steps of the task on the calling thread, sleeping between them and waiting while paused, until the
+     * task finishes or is stopped.
+     *
+     * @param manageable the manageable component
+     */
+    @Override
+    protected void executeAsync(M manageable) {
+        begin(); // Called directly rather than through start()
+        long delay = initialDelay();
+        while (delay >= 0 && isRunning()) {
+            long deadline = planDeadline(delay);
+            delay(TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline - System.nanoTime()))); // Wait before the next step
+            if (!awaitResume()) {
+                break; // Stopped while waiting
+            }
+            getMetrics().recordSchedulingLag(System.nanoTime() - stepDeadlineNanos);
+            delay = runStep(manageable); // Run the step and get the delay until the next one
+        }
+        finish(); // Finished or stopped
+    }
+
+    /**
+     * Resumes the task, running right away a step held back while it was paused.
+     *
+     * @return {@code true} if the task was resumed, {@code false} if it was not paused
+     */
+    @Override
+    public boolean tryResume() {
+        if (!super.tryResume()) {
+            return false;
+        }
+        if (stepHeld.compareAndSet(true, false)) {
+            stepDeadlineNanos = System.nanoTime(); // The cadence restarts from the resume
+            stepExecutor.execute(this::runScheduledStep); // Run the held step now
+        }
+        return true;
+    }
+
+    /**
+     * Stops the task, cancelling its next step.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        Timeout timeout = nextStep;
+        if (timeout != null) {
+            timeout.cancel(); // Never run the pending step
+        }
+    }
+
+    /**
+     * Schedules the next step on the wheel, or finishes the task.
+     *
+     * @param delayMillis the delay in milliseconds until the step, or {@link #DONE}
+     */
+    private void scheduleStep(long delayMillis) {
+        if (delayMillis < 0 || !isRunning()) {
+            finish(); // Finished or stopped
+            return;
+        }
+
+        long delayNanos = planDeadline(delayMillis) - System.nanoTime();
+        nextStep = timingWheel.newTimeout(() -> stepExecutor.execute(this::runScheduledStep),
+                delayNanos, TimeUnit.NANOSECONDS); // Hand the step to the executor once the delay elapses
+    }
+
+    /**
+     * Sets the intended start of the next step: the deadline planned by {@link #periodDelay(long, PeriodMode,
+     * OverrunPolicy)} if any, so fixed-rate tasks do not accumulate rounding errors, or the given delay from now.
+     *
+     * @param delayMillis the delay in milliseconds until the step
+     * @return the intended start of the step, as a {@link System#nanoTime()} value
+     */
+    private long planDeadline(long delayMillis) {
+        long deadline = deadlinePlanned
+                ? plannedDeadlineNanos
+                : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        deadlinePlanned = false;
+        stepDeadlineNanos = deadline;
+        return deadline;
+    }
+
+    /**
+     * Returns the delay until the next execution of a periodic task, to be returned by {@link #runStep(Manageable)}.
+     * <p>
+     * In {@link PeriodMode#FIXED_DELAY} mode the delay is the period. In {@link PeriodMode#FIXED_RATE} mode the next
+     * execution starts one period after the intended start of the current one; if that moment has already passed,
+     * the overrun is counted and handled by the given policy: {@link OverrunPolicy#CATCH_UP} runs it right away,
+     * {@link OverrunPolicy#SKIP} drops the missed executions and waits for the next start on the original cadence.
+     *
+     * @param periodMillis the period in milliseconds
+     * @param periodMode how the period is measured
+     * @param overrunPolicy what to do when the next execution is already due
+     * @return the delay in milliseconds until the next step
+     */
+    protected final long periodDelay(long periodMillis, PeriodMode periodMode, OverrunPolicy overrunPolicy) {
+        if (periodMode == PeriodMode.FIXED_DELAY) {
+            return periodMillis; // Measured from now, after the execution
+        }
+
+        long now = System.nanoTime();
+        long period = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        long next = stepDeadlineNanos + period; // One period after the intended start of this execution
+        if (next - now < 0) {
+            overruns.incrementAndGet(); // The execution took longer than the time left in the period
+            if (overrunPolicy == OverrunPolicy.SKIP && period > 0) {
+                long missed = (now - next) / period + 1;
+                skippedExecutions.addAndGet(missed);
+                next += missed * period; // Next start on the original cadence
+                logger.log(Level.DEBUG, "Task {} overran, skipping {} execution(s)", getName(), missed);
+            }
+        }
+
+        plannedDeadlineNanos = next;
+        deadlinePlanned = true;
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(next - now));
+    }
+
+    /**
+     * Returns the amount of executions that finished after the next one was due, in fixed-rate mode.
+     *
+     * @return the overruns
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /**
+     * Returns the amount of executions dropped by the {@link OverrunPolicy#SKIP} policy.
+     *
+     * @return the skipped executions
+     */
+    public long getSkippedExecutions() {
+        return skippedExecutions.get();
+    }
+
+    /**
+     * Runs a step once its delay has elapsed and schedules the next one. A step coming due while the task is
+     * paused is held until {@link #resumeTask()}.
+     */
+    private void runScheduledStep() {
+        if (getState() == TaskState.PAUSED) {
+            stepHeld.set(true); // Let resumeTask() run the step
+            if (getState() == TaskState.PAUSED || !stepHeld.compareAndSet(true, false)) {
+                return; // Still paused, or already handed back by resumeTask()
+            }
+            stepDeadlineNanos = System.nanoTime(); // Resumed meanwhile, the cadence restarts now
+        }
+        if (!isRunning()) {
+            return; // Stopped while the step was being handed off
+        }
+        getMetrics().recordSchedulingLag(System.nanoTime() - stepDeadlineNanos); // Wheel and pool delay
+
+        long delay;
+        try {
+            delay = runStep(manageable);
+        } catch (RuntimeException e) {
+            logger.log(Level.ERROR, "Error running task {}: ", getName(), e);
+            delay = DONE; // A failing task stops, as it would on a thread of its own
+        }
+        scheduleStep(delay);
+    }
+}
@@ -3,11 +3,21 @@ package org.phinix.lib.server.core.task;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.phinix.lib.server.core.ExecutionMode;
 import org.phinix.lib.server.core.Manageable;
 import org.phinix.lib.server.core.Server;
 import org.phinix.lib.server.core.worker.Worker;
 import org.phinix.lib.server.session.Session;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * {@code Task} abstract class representing a task that can be executed asynchronously.
  * <p>
@@ -16,7 +26,8 @@ import org.phinix.lib.server.session.Session;
  * long as the lifecycle of these types permits.
  * <p>
  * There are more specific abstract Task implementations in the {@link org.phinix.lib.server.core.task.tasks} package
- * where the {@link #executeAsync(Manageable)} method is already implemented.
+ * where the {@link #executeAsync(Manageable)} method is already implemented. Those are {@link ScheduledTask}s, driven
+ * by a shared {@link TimingWheel} instead of sleeping on a thread of their own.
  * <p>
  * The method {@link #process(M)} is intended to be overridden by subclasses to define the specific task's logic.
  * It is responsible for performing the actual work of the task when it is executed.
@@ -25,6 +36,19 @@ import org.phinix.lib.server.session.Session;
  * for running the task in a separate thread, including pausing, delaying, and repeatedly executing the task
  * if applicable (in the case of looping tasks).
  * <p>
+ * Tasks run on the threads of a shared {@link TaskPool}, holding one while {@link #executeAsync(M)} runs. Tasks that
+ * loop for a long time should extend {@link ScheduledTask}, which releases the thread between executions.
+ * <p>
+ * The lifecycle of a task is a {@link TaskState} machine with atomic transitions. A paused task parks its thread in
+ * {@link #awaitResume()}, consuming no CPU, and continues as soon as {@link #resumeTask()} is called.
+ * {@link #tryPause()} and {@link #tryResume()} report whether the transition happened.
+ * <p>
+ * Every execution run through {@link #runProcess(Manageable)} is recorded in the {@link TaskMetrics} of the task,
+ * along with how late the task started, and can be read with {@link #getMetrics()}.
+ * <p>
+ * A task can depend on other tasks with {@link #addDependency(Task)}: an {@link AbstractTaskExecutor} starts it only
+ * once all of them have finished, so independent startup work runs in parallel while dependent work waits.
+ * <p>
  * Example use:
  *
  * <pre>{@code
@@ -39,13 +63,8 @@ import org.phinix.lib.server.session.Session;
  *
  *     @Override
  *     protected void executeAsync(MyServer server) {
- *         running = true;
- *         while (running) {
- *             if (paused) {
- *                 pauseDelay();
- *                 continue;
- *             }
- *             process(server);
+ *         while (awaitResume()) { // Wait while paused, leave once stopped
+ *             runProcess(server); // Run process() and record its metrics
  *             delay(1000); // Delay of 1 second between executions
  *         }
  *     }
@@ -57,15 +76,97 @@ import org.phinix.lib.server.session.Session;
 public abstract class Task<M extends Manageable> {
     private static final Logger logger = LogManager.getLogger();
 
-    protected static final long PAUSE_DELAY_MILLIS = 100; // Delay time for pausing
+    /**
+     * Delay time for pausing.
+     *
+     * @deprecated paused tasks park in {@link #awaitResume()} instead of polling; to be removed in the next release
+     */
+    @Deprecated
+    protected static final long PAUSE_DELAY_MILLIS = 100;
 
-    protected Thread threadTask; // The thread in which the task runs
-    protected boolean running; // Flag indicating whether the task is running
-    protected boolean paused; // Flag indicating whether the task is paused
+    private final AtomicReference<TaskState> state; // Current lifecycle state of the task
+    /**
+     * Flag indicating whether the task is running, mirroring {@link #isRunning()}.
+     *
+     * @deprecated read {@link #getState()} or {@link #isRunning()} instead, writing it has no effect; to be removed
+     *             in the next release
+     */
+    @Deprecated
+    protected volatile boolean running;
+    /**
+     * Flag indicating whether the task is paused, mirroring {@link #isPaused()}.
+     *
+     * @deprecated read {@link #getState()} or {@link #isPaused()} instead, writing it has no effect; to be removed
+     *             in the next release
+     */
+    @Deprecated
+    protected volatile boolean paused;
+    protected Thread threadTask; // The thread in which the task runs, while it runs
+    private volatile Thread pausedThread; // Thread parked in awaitResume(), if any
+    private final TaskMetrics metrics; // Execution metrics of the task
+    private final Set<Task<?>> dependencies; // Tasks that must finish before this one starts
+    private final CompletableFuture<Void> completion; // Completed once the task is stopped or finished
+    private final CompletableFuture<Long> firstCompletion; // System.nanoTime() value of the first completed execution
+    private volatile long startNanos; // System.nanoTime() value of the start, zero until started
 
     public Task() {
-        this.running = false; // Task is not running initially
-        this.paused = false; // Task is not paused initially
+        this.state = new AtomicReference<>(TaskState.NEW); // Task is not started initially
+        this.metrics = new TaskMetrics();
+        this.dependencies = new CopyOnWriteArraySet<>();
+        this.completion = new CompletableFuture<>();
+        this.firstCompletion = new CompletableFuture<>();
+    }
+
+    /**
+     * Adds a task that must finish before this one is started by an {@link AbstractTaskExecutor}. The dependency
+     * must be started by an executor too, and should be a task that finishes on its own: a task depending on a
+     * looping task only starts once the looping task is stopped.
+     *
+     * @param dependency the task to wait for
+     * @throws IllegalStateException if this task is already started
+     * @throws IllegalArgumentException if the dependency already depends on this task, directly or not
+     */
+    public void addDependency(Task<?> dependency) {
+        if (state.get() != TaskState.NEW) {
+            throw new IllegalStateException("Task already started: " + getName());
+        }
+        if (dependency == this || dependency.dependsOn(this)) {
+            throw new IllegalArgumentException("Dependency cycle between " + getName() + " and " + dependency.getName());
+        }
+        dependencies.add(dependency);
+    }
+
+    /**
+     * Returns whether this task depends on another, directly or through its dependencies.
+     *
+     * @param task the task to look for
+     * @return {@code true} if this task depends on the given one, {@code false} otherwise
+     */
+    private boolean dependsOn(Task<?> task) {
+        for (Task<?> dependency : dependencies) {
+            if (dependency == task || dependency.dependsOn(task)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the tasks that must finish before this one starts.
+     *
+     * @return an unmodifiable copy of the dependencies
+     */
+    public Set<Task<?>> getDependencies() {
+        return Set.copyOf(dependencies);
+    }
+
+    /**
+     * Returns a future completed once the task is stopped or has finished.
+     *
+     * @return the completion of the task
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion.copy(); // Callers cannot complete the task
     }
 
     /**
@@ -88,16 +189,36 @@ public abstract class Task<M extends Manageable> {
      */
     protected abstract void executeAsync(M manageable);
 
+    /**
+     * Runs {@link #process(Manageable)} once, recording its duration and whether it failed in the
+     * {@link TaskMetrics} of the task. Implementations of {@link #executeAsync(Manageable)} call it for each execution.
+     *
+     * @param manageable the manageable component
+     */
+    protected final void runProcess(M manageable) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            process(manageable); // Execute the task's work
+            failed = false;
+        } finally {
+            long end = System.nanoTime();
+            metrics.recordExecution(end - start, failed);
+            firstCompletion.complete(end); // Only the first execution counts
+        }
+    }
+
     /**
      * Delays the task for the given number of milliseconds.
      * <p>
-     * This method is used to introduce a delay before continuing with the next task execution.
+     * This method is used to introduce a delay before continuing with the next task execution. When the task
+     * runs on a {@link TaskPool}, the pool may start a spare thread while this one sleeps.
      *
      * @param millis the delay time in milliseconds
      */
     protected void delay(long millis) {
         try {
-            Thread.sleep(millis); // Sleep the current thread for the specified time
+            ForkJoinPool.managedBlock(new Sleeper(millis)); // Sleep, letting a work-stealing pool compensate
             logger.log(Level.DEBUG, "Task delayed for {} milliseconds.", millis); // Log delay for debugging purposes
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Interrupt current thread if interrupted during sleep
@@ -109,80 +230,379 @@ public abstract class Task<M extends Manageable> {
      * Pauses the task for a predefined delay time.
      * <p>
      * This method introduces a fixed delay (PAUSE_DELAY_MILLIS) before the task can resume.
+     *
+     * @deprecated call {@link #awaitResume()}, which waits exactly until the task is resumed or stopped; to be
+     *             removed in the next release
      */
+    @Deprecated
     protected void pauseDelay() {
         delay(PAUSE_DELAY_MILLIS); // Calls delay method with predefined pause delay time
     }
 
+    /**
+     * Waits while the task is paused.
+     * <p>
+     * The calling thread parks, consuming no CPU, until the task is resumed or stopped. When the task runs on a
+     * {@link TaskPool}, the pool may start a spare thread meanwhile.
+     *
+     * @return {@code true} if the task is still running, {@code false} once it is stopped
+     */
+    protected boolean awaitResume() {
+        if (state.get() == TaskState.PAUSED) {
+            pausedThread = Thread.currentThread(); // Let resumeTask() and stop() unpark this thread
+            try {
+                ForkJoinPool.managedBlock(new ResumeWaiter()); // Park until resumed or stopped
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Keep the interrupt, the task is being stopped
+            } finally {
+                pausedThread = null;
+            }
+        }
+        return isRunning();
+    }
+
     /**
      * Starts the task with the given server context.
      * <p>
-     * This method creates a new thread for the task and starts it.
+     * This method runs the task on the {@link TaskPool#shared()} pool.
      * It will log that the task has started.
      *
      * @param serverContext the server context
      */
     public void start(M serverContext) {
-        if (!running) { // If the task is not already running
-            threadTask = new Thread(() -> this.executeAsync(serverContext)); // Create a new thread to execute the task asynchronously
-            threadTask.start(); // Start the thread
-            logger.log(Level.DEBUG, "Task started: {}", getName()); // Log that the task has started
+        start(serverContext, ExecutionMode.PLATFORM);
+    }
+
+    /**
+     * Starts the task with the given server context on a thread of the given execution mode.
+     * <p>
+     * Platform mode runs the task on the {@link TaskPool#shared()} pool, virtual mode on a virtual thread of
+     * its own. It will log that the task has started.
+     *
+     * @param serverContext the server context
+     * @param executionMode the kind of thread running the task
+     */
+    public void start(M serverContext, ExecutionMode executionMode) {
+        start(serverContext, executionMode == ExecutionMode.VIRTUAL ? TaskPool.virtualThreads() : TaskPool.shared());
+    }
+
+    /**
+     * Starts the task with the given server context on the given executor.
+     * <p>
+     * The task holds an executor thread while {@link #executeAsync(Manageable)} runs.
+     * It will log that the task has started.
+     *
+     * @param serverContext the server context
+     * @param executor the executor running the task
+     */
+    public void start(M serverContext, Executor executor) {
+        if (!begin()) {
+            logger.log(Level.DEBUG, "Task already started: {}", getName());
+            return;
+        }
+
+        long submitted = System.nanoTime();
+        executor.execute(() -> {
+            metrics.recordSchedulingLag(System.nanoTime() - submitted); // Time spent waiting for a thread
+            executeOnCurrentThread(serverContext); // Run the task asynchronously
+        });
+        logger.log(Level.DEBUG, "Task started: {}", getName()); // Log that the task has started
+    }
+
+    /**
+     * Runs {@link #executeAsync(Manageable)} on the current thread, which can be interrupted by {@link #stop()}
+     * until it returns.
+     *
+     * @param serverContext the server context
+     */
+    private void executeOnCurrentThread(M serverContext) {
+        synchronized (this) {
+            threadTask = Thread.currentThread(); // Let stop() interrupt the task
+        }
+        try {
+            executeAsync(serverContext);
+        } finally {
+            synchronized (this) {
+                threadTask = null; // The thread goes back to its executor
+            }
+            Thread.interrupted(); // Never leak an interrupt to the next task run by this thread
+            finish(); // The task has returned
+        }
+    }
+
+    /**
+     * Moves the task from the {@link TaskState#NEW} to the {@link TaskState#RUNNING} state, recording its start.
+     *
+     * @return {@code true} if the task was started, {@code false} if it was already started or stopped
+     */
+    final boolean begin() {
+        if (!state.compareAndSet(TaskState.NEW, TaskState.RUNNING)) {
+            return false;
+        }
+        updateLegacyFlags();
+        startNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Moves the task to the {@link TaskState#STOPPED} state once it has finished on its own.
+     */
+    protected final void finish() {
+        if (state.getAndSet(TaskState.STOPPED) != TaskState.STOPPED) {
+            updateLegacyFlags();
+            logger.log(Level.DEBUG, "Task finished: {}", getName()); // Log that the task has finished
+        }
+        complete();
+    }
+
+    /**
+     * Completes the futures of the task once it is stopped or finished.
+     */
+    private void complete() {
+        firstCompletion.complete(System.nanoTime()); // Stopped before its first execution ended
+        completion.complete(null);
+    }
+
+    /**
+     * Returns the time from the start of the task to the end of its first execution, or to its end if it stopped
+     * earlier.
+     *
+     * @return the duration in nanoseconds, or zero if the task was never started or has not completed an execution
+     */
+    final long getFirstCompletionNanos() {
+        long start = startNanos;
+        if (start == 0 || !firstCompletion.isDone()) {
+            return 0;
+        }
+        return Math.max(0, firstCompletion.join() - start);
+    }
+
+    /**
+     * Returns a future completed once the task has completed its first execution, or has stopped.
+     *
+     * @return the first completion of the task
+     */
+    final CompletableFuture<Long> getFirstCompletion() {
+        return firstCompletion;
+    }
+
+    /**
+     * Atomically moves the task from one state to another.
+     *
+     * @param expected the state the task must be in
+     * @param next the new state
+     * @return {@code true} if the transition happened, {@code false} if the task was in another state
+     */
+    protected final boolean compareAndSetState(TaskState expected, TaskState next) {
+        if (!state.compareAndSet(expected, next)) {
+            return false;
         }
+        updateLegacyFlags();
+        return true;
+    }
+
+    /**
+     * Copies the current state into the deprecated {@link #running} and {@link #paused} flags, so subclasses still
+     * reading them keep working for one more release.
+     */
+    @SuppressWarnings("deprecation")
+    private void updateLegacyFlags() {
+        TaskState current = state.get();
+        running = current == TaskState.RUNNING || current == TaskState.PAUSED;
+        paused = current == TaskState.PAUSED;
     }
 
     /**
      * Pauses the task.
      * <p>
-     * This method sets the paused flag to true and logs that the task has been paused.
+     * This method moves a running task to the {@link TaskState#PAUSED} state and logs that the task has been
+     * paused. The task stops at its next {@link #awaitResume()} call, or before its next step for scheduled tasks.
+     * Does nothing if the task is not running, see {@link #tryPause()}.
      */
     public void pause() {
-        paused = true; // Set paused flag to true
+        tryPause();
+    }
+
+    /**
+     * Pauses the task, as {@link #pause()} does, reporting whether it was paused.
+     *
+     * @return {@code true} if the task was paused, {@code false} if it was not running
+     */
+    public boolean tryPause() {
+        if (!compareAndSetState(TaskState.RUNNING, TaskState.PAUSED)) {
+            return false; // Not running, nothing to pause
+        }
         logger.log(Level.DEBUG, "Task paused: {}", getName()); // Log that the task has been paused
+        return true;
     }
 
     /**
      * Resumes the task.
      * <p>
-     * This method sets the paused flag to false and logs that the task has been resumed.
+     * This method moves a paused task back to the {@link TaskState#RUNNING} state, waking up its parked thread
+     * right away, and logs that the task has been resumed. Does nothing if the task is not paused, see
+     * {@link #tryResume()}.
      */
     public void resumeTask() {
-        paused = false; // Set paused flag to false
+        tryResume();
+    }
+
+    /**
+     * Resumes the task, as {@link #resumeTask()} does, reporting whether it was resumed.
+     *
+     * @return {@code true} if the task was resumed, {@code false} if it was not paused
+     */
+    public boolean tryResume() {
+        if (!compareAndSetState(TaskState.PAUSED, TaskState.RUNNING)) {
+            return false; // Not paused, nothing to resume
+        }
+        LockSupport.unpark(pausedThread); // Wake up the thread waiting in awaitResume()
         logger.log(Level.DEBUG, "Task resumed: {}", getName()); // Log that the task has been resumed
+        return true;
     }
 
     /**
      * Stops the task.
      * <p>
-     * This method stops the task by setting the running flag to false.
+     * This method moves the task to the {@link TaskState#STOPPED} state.
      * It interrupts the task thread and logs the task stop event.
      */
     public void stop() {
-        running = false; // Set running flag to false
-        if (threadTask != null) {
-            threadTask.interrupt(); // Interrupt the task thread
+        if (state.getAndSet(TaskState.STOPPED) == TaskState.STOPPED) {
+            return; // Already stopped or finished
+        }
+        updateLegacyFlags();
+        complete(); // Let the dependent tasks start
+        synchronized (this) {
+            if (threadTask != null) {
+                threadTask.interrupt(); // Interrupt the task thread
+            }
         }
+        LockSupport.unpark(pausedThread); // Wake up the thread waiting in awaitResume()
         logger.log(Level.DEBUG, "Task stopped: {}", getName()); // Log that the task has been stopped
     }
 
     /**
-     * Returns whether the task is running.
-     * <p>
-     * This method checks the running flag to determine if the task is currently running.
+     * Returns whether the task is running, which includes being paused.
      *
-     * @return {@code true} if the task is running, {@code false} otherwise
+     * @return {@code true} if the task is started and not stopped, {@code false} otherwise
      */
     public boolean isRunning() {
-        return running; // Return the running status of the task
+        TaskState current = state.get();
+        return current == TaskState.RUNNING || current == TaskState.PAUSED;
+    }
+
+    /**
+     * Returns whether the task is paused.
+     *
+     * @return {@code true} if the task is paused, {@code false} otherwise
+     */
+    public boolean isPaused() {
+        return state.get() == TaskState.PAUSED;
+    }
+
+    /**
+     * Returns the current lifecycle state of the task.
+     *
+     * @return the task state
+     */
+    public TaskState getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns the execution metrics of the task.
+     *
+     * @return the task metrics
+     */
+    public TaskMetrics getMetrics() {
+        return metrics;
     }
 
     /**
      * Returns the name of the task.
      * <p>
-     * This method retrieves the name of the thread running the task.
+     * Tasks share the threads of their executor, so the task is identified by its class name rather than by the
+     * name of the thread running it.
      *
      * @return the name of the task
      */
     public String getName() {
-        return threadTask.getName(); // Return the name of the thread task
+        return getClass().getName(); // Identify the task by its class
+    }
+
+    /**
+     * {@code Sleeper} class sleeps until a deadline as a {@link ForkJoinPool.ManagedBlocker}, so a work-stealing
+     * pool can start a spare thread while a task sleeps.
+     */
+    private static final class Sleeper implements ForkJoinPool.ManagedBlocker {
+        private final long deadline; // System.nanoTime() value at which the sleep ends
+
+        /**
+         * Constructs a new Sleeper.
+         *
+         * @param millis the sleep time in milliseconds
+         */
+        private Sleeper(long millis) {
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        /**
+         * Sleeps until the deadline.
+         *
+         * @return {@code true} once the deadline is reached
+         * @throws InterruptedException if interrupted while sleeping
+         */
+        @Override
+        public boolean block() throws InterruptedException {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the deadline has been reached.
+         *
+         * @return {@code true} if no sleep is needed
+         */
+        @Override
+        public boolean isReleasable() {
+            return deadline - System.nanoTime() <= 0;
+        }
+    }
+
+    /**
+     * {@code ResumeWaiter} class parks the thread of a paused task as a {@link ForkJoinPool.ManagedBlocker},
+     * until the task is resumed or stopped.
+     */
+    private final class ResumeWaiter implements ForkJoinPool.ManagedBlocker {
+        /**
+         * Parks the thread until the task leaves the paused state.
+         *
+         * @return {@code true} once the task is no longer paused
+         * @throws InterruptedException if interrupted while parked
+         */
+        @Override
+        public boolean block() throws InterruptedException {
+            while (state.get() == TaskState.PAUSED) {
+                LockSupport.park(Task.this); // Unparked by resumeTask() or stop()
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the task has left the paused state.
+         *
+         * @return {@code true} if no wait is needed
+         */
+        @Override
+        public boolean isReleasable() {
+            return state.get() != TaskState.PAUSED;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package org.phinix.lib.server.core.task;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code TaskMetrics} class records how the executions of a {@link Task} behave: how many ran and failed, how long
+ * {@link Task#process(org.phinix.lib.server.core.Manageable)} took, and how late each execution started compared to
+ * its intended start, which reveals a pool starved by slow tasks.
+ * <p>
+ * Durations and lags are kept in {@link LatencyHistogram}s, so recording is lock-free and costs a few atomic
+ * increments. Every task owns one instance, returned by {@link Task#getMetrics()}; {@link AbstractTaskExecutor}
+ * aggregates those of its tasks.
+ *
+ * @see Task
+ * @see AbstractTaskExecutor
+ */
+public final class TaskMetrics {
+    private final LatencyHistogram durations; // Duration of every execution
+    private final LatencyHistogram schedulingLags; // Delay between the intended and actual start of every execution
+    private final AtomicLong failures; // Executions that threw an exception
+
+    /**
+     * Constructs a new, empty TaskMetrics.
+     */
+    public TaskMetrics() {
+        this.durations = new LatencyHistogram();
+        this.schedulingLags = new LatencyHistogram();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * Records an execution.
+     *
+     * @param durationNanos the duration of the execution in nanoseconds
+     * @param failed whether the execution threw an exception
+     */
+    void recordExecution(long durationNanos, boolean failed) {
+        durations.record(durationNanos);
+        if (failed) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records how late an execution started.
+     *
+     * @param lagNanos the delay between the intended and actual start in nanoseconds
+     */
+    void recordSchedulingLag(long lagNanos) {
+        schedulingLags.record(lagNanos);
+    }
+
+    /**
+     * Adds the executions recorded by other metrics to these, to aggregate the metrics of several tasks. The last
+     * duration is not carried over.
+     *
+     * @param other the metrics to add
+     */
+    public void add(TaskMetrics other) {
+        durations.add(other.durations);
+        schedulingLags.add(other.schedulingLags);
+        failures.addAndGet(other.failures.get());
+    }
+
+    /**
+     * Returns the amount of executions, including failed ones.
+     *
+     * @return the executions
+     */
+    public long getExecutions() {
+        return durations.getCount();
+    }
+
+    /**
+     * Returns the amount of executions that threw an exception.
+     *
+     * @return the failures
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the duration of the last execution.
+     *
+     * @param unit the unit of the returned value
+     * @return the last duration
+     */
+    public long getLastDuration(TimeUnit unit) {
+        return durations.getLast(unit);
+    }
+
+    /**
+     * Returns the mean duration of the executions.
+     *
+     * @param unit the unit of the returned value
+     * @return the mean duration
+     */
+    public long getMeanDuration(TimeUnit unit) {
+        return durations.getMean(unit);
+    }
+
+    /**
+     * Returns the duration of the longest execution.
+     *
+     * @param unit the unit of the returned value
+     * @return the maximum duration
+     */
+    public long getMaxDuration(TimeUnit unit) {
+        return durations.getMax(unit);
+    }
+
+    /**
+     * Returns the duration under which 99% of the executions finished.
+     *
+     * @param unit the unit of the returned value
+     * @return the 99th percentile duration
+     */
+    public long getP99Duration(TimeUnit unit) {
+        return durations.getPercentile(99, unit);
+    }
+
+    /**
+     * Returns the histogram of the execution durations.
+     *
+     * @return the duration histogram
+     */
+    public LatencyHistogram getDurations() {
+        return durations;
+    }
+
+    /**
+     * Returns the histogram of the delays between the intended and actual start of the executions.
+     *
+     * @return the scheduling lag histogram
+     */
+    public LatencyHistogram getSchedulingLags() {
+        return schedulingLags;
+    }
+
+    /**
+     * Returns a one-line summary of the metrics in milliseconds, suited for logging.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("executions=%d failures=%d duration[last=%.3f mean=%.3f p99=%.3f max=%.3f] "
+                        + "lag[mean=%.3f p99=%.3f max=%.3f] ms",
+                getExecutions(), getFailures(),
+                millis(durations.getLast(TimeUnit.NANOSECONDS)), millis(durations.getMean(TimeUnit.NANOSECONDS)),
+                millis(durations.getPercentile(99, TimeUnit.NANOSECONDS)),
+                millis(durations.getMax(TimeUnit.NANOSECONDS)),
+                millis(schedulingLags.getMean(TimeUnit.NANOSECONDS)),
+                millis(schedulingLags.getPercentile(99, TimeUnit.NANOSECONDS)),
+                millis(schedulingLags.getMax(TimeUnit.NANOSECONDS)));
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos the value in nanoseconds
+     * @return the value in milliseconds
+     */
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
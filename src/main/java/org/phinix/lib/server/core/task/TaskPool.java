@@ -0,0 +1,177 @@
+package org.phinix.lib.server.core.task;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.phinix.lib.server.core.ExecutionMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TaskPool} class is a bounded work-stealing pool running the {@link Task}s of every
+ * {@link AbstractTaskExecutor} that shares it.
+ * <p>
+ * The pool keeps {@code parallelism} threads busy, each with its own queue, and idle threads steal work from the
+ * others. Tasks sleeping through {@link Task#delay(long)} let the pool start a spare thread in their place, up to
+ * {@code maxSpareThreads}; beyond that bound blocked tasks simply hold their thread. Idle threads are retired
+ * after a minute.
+ * <p>
+ * Servers pass the pool configured in their {@code ServerOptions} to the global executor and to the executor of
+ * every worker, so server-scoped and worker-scoped tasks share the same threads. Tasks of the
+ * {@link ExecutionMode#VIRTUAL} mode run on {@link #virtualThreads()} instead.
+ *
+ * @see AbstractTaskExecutor
+ * @see Task
+ */
+public final class TaskPool implements Executor {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Default maximum amount of spare threads started in place of blocked tasks.
+     */
+    public static final int DEFAULT_MAX_SPARE_THREADS = 256;
+
+    private static final TaskPool SHARED = new TaskPool("task-pool",
+            Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_SPARE_THREADS); // Pool shared by default
+    private static final ExecutorService VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-", 0).factory()); // One virtual thread per task run
+
+    private final String name; // Prefix of the pool thread names
+    private final ForkJoinPool pool; // Work-stealing pool running the tasks
+
+    /**
+     * Constructs a new TaskPool.
+     *
+     * @param name the prefix of the pool thread names
+     * @param parallelism the amount of threads running tasks, must be positive
+     * @param maxSpareThreads the maximum amount of spare threads started in place of blocked tasks, must not be negative
+     * @throws IllegalArgumentException if {@code parallelism} is not positive or {@code maxSpareThreads} is negative
+     */
+    public TaskPool(String name, int parallelism, int maxSpareThreads) {
+        if (parallelism < 1 || maxSpareThreads < 0) {
+            throw new IllegalArgumentException("Invalid task pool: parallelism " + parallelism
+                    + ", spare threads " + maxSpareThreads);
+        }
+
+        this.name = name;
+        this.pool = new ForkJoinPool(
+                parallelism,
+                this::newThread,
+                (thread, e) -> logger.log(Level.ERROR, "Uncaught error in {}: ", thread.getName(), e),
+                true, // FIFO order for submitted tasks
+                0,
+                parallelism + maxSpareThreads,
+                1,
+                pool -> true, // Once the bound is reached, blocked tasks hold their thread
+                60, TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Returns the pool shared by default, with one thread per available processor.
+     *
+     * @return the shared pool
+     */
+    public static TaskPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the executor running each task on its own virtual thread, used in {@link ExecutionMode#VIRTUAL} mode.
+     *
+     * @return the virtual thread executor
+     */
+    public static Executor virtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Creates a named pool thread.
+     *
+     * @param pool the pool owning the thread
+     * @return the new thread
+     */
+    private ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(name + "-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    /**
+     * Runs a task on the pool. Can be called from any thread.
+     *
+     * @param command the task to run
+     */
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    /**
+     * Stops accepting new tasks. Tasks already submitted still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+        logger.log(Level.DEBUG, "Task pool shut down: {}", name);
+    }
+
+    /**
+     * Returns the prefix of the pool thread names.
+     *
+     * @return the pool name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the amount of threads running tasks when none is blocked.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Returns the amount of threads currently started, including idle and spare ones.
+     *
+     * @return the pool size
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * Returns an estimate of the amount of threads currently running tasks.
+     *
+     * @return the active threads
+     */
+    public int getActiveThreadCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    /**
+     * Returns an estimate of the amount of tasks waiting to run.
+     *
+     * @return the queued tasks
+     */
+    public long getQueuedTaskCount() {
+        return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+    }
+
+    /**
+     * Returns an estimate of the amount of tasks stolen by a thread from the queue of another.
+     *
+     * @return the steal count
+     */
+    public long getStealCount() {
+        return pool.getStealCount();
+    }
+}
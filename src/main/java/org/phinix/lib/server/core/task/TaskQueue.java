@@ -47,6 +47,18 @@ public class TaskQueue<M extends Manageable> {
         logger.log(Level.DEBUG, "Task added to queue: {}", task.getName()); // Log the task addition
     }
 
+    /**
+     * Removes a task from the queue, if it is still there.
+     *
+     * @param task the task to be removed
+     * @return {@code true} if the task was in the queue, {@code false} otherwise
+     */
+    public boolean removeTask(Task<M> task) {
+        boolean removed = taskQueue.remove(task); // Remove the task from the queue
+        logger.log(Level.DEBUG, "Task removed from queue: {} ({})", task.getName(), removed); // Log the task removal
+        return removed;
+    }
+
     /**
      * Retrieves and removes the next task from the queue.
      * <p>
@@ -0,0 +1,29 @@
+package org.phinix.lib.server.core.task;
+
+/**
+ * {@code TaskState} enum defines the lifecycle of a {@link Task}.
+ * <p>
+ * A task moves from {@link #NEW} to {@link #RUNNING} when started, between {@link #RUNNING} and {@link #PAUSED}
+ * when paused and resumed, and to {@link #STOPPED} when stopped or finished. Every transition is atomic.
+ *
+ * @see Task
+ * @see AbstractTaskExecutor
+ */
+public enum TaskState {
+    /**
+     * Created but not started yet.
+     */
+    NEW,
+    /**
+     * Started and executing.
+     */
+    RUNNING,
+    /**
+     * Started but paused until resumed; consumes no CPU.
+     */
+    PAUSED,
+    /**
+     * Stopped or finished. Final state.
+     */
+    STOPPED
+}
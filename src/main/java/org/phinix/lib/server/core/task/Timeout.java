@@ -0,0 +1,101 @@
+package org.phinix.lib.server.core.task;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code Timeout} class is the handle of an action scheduled on a {@link TimingWheel}.
+ * <p>
+ * It can be cancelled from any thread in constant time with {@link #cancel()}; the wheel unlinks cancelled
+ * timeouts from their bucket on its next tick.
+ *
+ * @see TimingWheel
+ */
+public final class Timeout {
+    private static final int STATE_PENDING = 0; // Waiting for its deadline
+    private static final int STATE_CANCELLED = 1; // Cancelled before its deadline
+    private static final int STATE_EXPIRED = 2; // Deadline reached, action run
+
+    private final TimingWheel wheel; // Wheel the timeout is scheduled on
+    private final Runnable action; // Action run once the deadline is reached
+    private final AtomicInteger state; // Current state of the timeout
+
+    final long deadline; // Deadline in nanoseconds, relative to the start of the wheel
+    long remainingRounds; // Wheel revolutions left before the deadline, updated by the wheel thread only
+    Timeout next; // Next timeout in the same bucket
+    Timeout previous; // Previous timeout in the same bucket
+    TimingWheel.Bucket bucket; // Bucket holding the timeout, or null if not placed yet
+
+    /**
+     * Constructs a new Timeout.
+     *
+     * @param wheel the wheel the timeout is scheduled on
+     * @param action the action run once the deadline is reached
+     * @param deadline the deadline in nanoseconds, relative to the start of the wheel
+     */
+    Timeout(TimingWheel wheel, Runnable action, long deadline) {
+        this.wheel = wheel;
+        this.action = action;
+        this.deadline = deadline;
+        this.state = new AtomicInteger(STATE_PENDING);
+    }
+
+    /**
+     * Cancels the timeout so its action is never run. Can be called from any thread.
+     *
+     * @return {@code true} if the timeout was cancelled, {@code false} if it had already expired or been cancelled
+     */
+    public boolean cancel() {
+        if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+            return false; // Too late or already cancelled
+        }
+        wheel.onCancelled(this); // Let the wheel unlink it from its bucket
+        return true;
+    }
+
+    /**
+     * Marks the timeout as expired. Called by the wheel thread once the deadline is reached.
+     *
+     * @return {@code true} if the action must run, {@code false} if the timeout was cancelled
+     */
+    boolean expire() {
+        return state.compareAndSet(STATE_PENDING, STATE_EXPIRED);
+    }
+
+    /**
+     * Returns the action run once the deadline is reached.
+     *
+     * @return the action
+     */
+    Runnable getAction() {
+        return action;
+    }
+
+    /**
+     * Returns whether the timeout was cancelled.
+     *
+     * @return {@code true} if cancelled, {@code false} otherwise
+     */
+    public boolean isCancelled() {
+        return state.get() == STATE_CANCELLED;
+    }
+
+    /**
+     * Returns whether the deadline was reached and the action run.
+     *
+     * @return {@code true} if expired, {@code false} otherwise
+     */
+    public boolean isExpired() {
+        return state.get() == STATE_EXPIRED;
+    }
+
+    /**
+     * Returns the time left until the deadline.
+     *
+     * @param unit the unit of the returned value
+     * @return the remaining delay, negative once the deadline has passed
+     */
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadline - wheel.elapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+}
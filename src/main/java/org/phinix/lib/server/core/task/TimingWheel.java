@@ -0,0 +1,377 @@
+package org.phinix.lib.server.core.task;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code TimingWheel} class is a hashed timing wheel running delayed actions on a single thread.
+ * <p>
+ * The wheel is a ring of buckets, each covering one tick. A timeout is hashed to the bucket of its deadline tick
+ * together with the number of full revolutions left, so scheduling and cancelling take constant time whatever
+ * the number of pending timeouts. Every tick the wheel thread visits a single bucket and runs the actions whose
+ * deadline has been reached. Actions never run early and run at most one tick late.
+ * <p>
+ * Actions run on the wheel thread, so they must be short; longer work is handed off to an executor, as
+ * {@link ScheduledTask} does. While no timeout is pending the wheel thread parks and consumes no CPU.
+ * <p>
+ * A single {@link #shared()} wheel serves every {@link ScheduledTask}, so thousands of timers need one thread
+ * instead of one sleeping thread each.
+ *
+ * @see Timeout
+ * @see ScheduledTask
+ */
+public final class TimingWheel {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Default tick duration in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 1;
+    /**
+     * Default amount of buckets in the wheel.
+     */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 1024;
+
+    private static final TimingWheel SHARED = new TimingWheel("timing-wheel", DEFAULT_TICK_MILLIS,
+            TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL); // Wheel shared by every scheduled task
+
+    private final String name; // Name of the wheel thread
+    private final long tickNanos; // Duration of a tick in nanoseconds
+    private final Bucket[] buckets; // Ring of buckets, one per tick
+    private final int mask; // Bucket index mask, the amount of buckets is a power of two
+    private final Queue<Timeout> newTimeouts; // Timeouts waiting to be placed in their bucket
+    private final Queue<Timeout> cancelledTimeouts; // Timeouts waiting to be unlinked from their bucket
+    private final AtomicInteger pendingTimeouts; // Timeouts scheduled and neither expired nor cancelled
+    private final AtomicBoolean started; // Flag indicating whether the wheel thread was started
+    private final long startNanos; // Origin of every deadline
+    private final Thread thread; // Thread advancing the wheel
+    private volatile boolean running; // Flag indicating whether the wheel is running
+    private volatile boolean idle; // Flag indicating whether the wheel thread is parked without pending timeouts
+
+    /**
+     * Constructs a new TimingWheel. Its thread is started when the first timeout is scheduled.
+     *
+     * @param name the name of the wheel thread
+     * @param tickDuration the duration of a tick
+     * @param unit the unit of {@code tickDuration}
+     * @param ticksPerWheel the amount of buckets in the wheel, rounded up to a power of two
+     * @throws IllegalArgumentException if the tick duration or the amount of buckets is not positive
+     */
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("Invalid wheel: tick " + tickDuration + " " + unit
+                    + ", " + ticksPerWheel + " ticks");
+        }
+
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1; // Round up to a power of two so the bucket index is a mask
+        }
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.newTimeouts = new ConcurrentLinkedQueue<>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        this.pendingTimeouts = new AtomicInteger();
+        this.started = new AtomicBoolean(false);
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true); // Never keep the JVM alive on its own
+        this.running = true;
+    }
+
+    /**
+     * Returns the wheel shared by every {@link ScheduledTask}.
+     *
+     * @return the shared wheel
+     */
+    public static TimingWheel shared() {
+        return SHARED;
+    }
+
+    /**
+     * Schedules an action to run on the wheel thread once the delay has elapsed. Can be called from any thread.
+     *
+     * @param action the action to run, must be short and not block
+     * @param delay the delay before running the action
+     * @param unit the unit of {@code delay}
+     * @return the handle of the scheduled action
+     * @throws IllegalStateException if the wheel has been stopped
+     */
+    public Timeout newTimeout(Runnable action, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel stopped: " + name);
+        }
+        if (!started.get() && started.compareAndSet(false, true)) {
+            thread.start(); // Start the wheel thread on first use
+        }
+
+        Timeout timeout = new Timeout(this, action, elapsedNanos() + Math.max(0, unit.toNanos(delay)));
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.offer(timeout); // Placed in its bucket by the wheel thread
+        if (idle) {
+            LockSupport.unpark(thread); // Wake up the parked wheel thread
+        }
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel thread. Pending timeouts are cancelled.
+     */
+    public void stop() {
+        running = false; // Set the wheel as stopped
+        LockSupport.unpark(thread);
+        logger.log(Level.DEBUG, "Timing wheel stopping: {}", name);
+    }
+
+    /**
+     * Records a cancelled timeout, so the wheel thread unlinks it from its bucket.
+     *
+     * @param timeout the cancelled timeout
+     */
+    void onCancelled(Timeout timeout) {
+        pendingTimeouts.decrementAndGet();
+        cancelledTimeouts.offer(timeout);
+    }
+
+    /**
+     * Returns the nanoseconds elapsed since the wheel was created, the origin of every deadline.
+     *
+     * @return the elapsed nanoseconds
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Advances the wheel one tick at a time until it is stopped.
+     */
+    private void run() {
+        logger.log(Level.DEBUG, "Timing wheel started: {}", name);
+        long tick = 0;
+        while (running) {
+            tick = waitForNextTick(tick);
+            if (!running) {
+                break;
+            }
+
+            removeCancelledTimeouts(); // Unlink timeouts cancelled since the last tick
+            placeNewTimeouts(tick); // Hash newly scheduled timeouts to their bucket
+            expireTimeouts(buckets[(int) (tick & mask)]); // Run the actions due in this tick
+            tick++;
+        }
+
+        for (Bucket bucket : buckets) {
+            bucket.cancelAll(); // Drop the remaining timeouts
+        }
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            timeout.cancel();
+        }
+        logger.log(Level.DEBUG, "Timing wheel stopped: {}", name);
+    }
+
+    /**
+     * Parks the wheel thread until the end of the given tick. While no timeout is pending the thread parks until
+     * one is scheduled, then skips the ticks elapsed meanwhile, whose buckets are all empty.
+     *
+     * @param tick the tick to wait for
+     * @return the tick to process, {@code tick} itself unless idle ticks were skipped
+     */
+    private long waitForNextTick(long tick) {
+        if (pendingTimeouts.get() == 0 && newTimeouts.isEmpty()) {
+            removeCancelledTimeouts(); // Leave no stale timeout behind before parking
+            idle = true;
+            while (running && pendingTimeouts.get() == 0 && newTimeouts.isEmpty()) {
+                LockSupport.park(this); // Nothing scheduled, wait for a new timeout
+            }
+            idle = false;
+            tick = Math.max(tick, elapsedNanos() / tickNanos); // Skip the empty ticks elapsed while parked
+        }
+
+        long deadline = (tick + 1) * tickNanos; // End of the tick
+        long sleepNanos;
+        while (running && (sleepNanos = deadline - elapsedNanos()) > 0) {
+            LockSupport.parkNanos(this, sleepNanos); // Wait until the end of the tick
+        }
+        return tick;
+    }
+
+    /**
+     * Unlinks every cancelled timeout from its bucket.
+     */
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Hashes every newly scheduled timeout to the bucket of its deadline tick.
+     *
+     * @param tick the tick being processed
+     */
+    private void placeNewTimeouts(long tick) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue; // Cancelled before being placed
+            }
+
+            long deadlineTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = Math.max(0, (deadlineTick - tick) / buckets.length);
+            long placedTick = Math.max(deadlineTick, tick); // Deadlines already passed expire in this tick
+            buckets[(int) (placedTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Runs the actions of the timeouts of a bucket due in the current revolution and counts down the others.
+     *
+     * @param bucket the bucket of the current tick
+     */
+    private void expireTimeouts(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            if (timeout.isCancelled()) {
+                timeout = bucket.remove(timeout); // Unlinked now rather than on the next tick
+            } else if (timeout.remainingRounds <= 0) {
+                Timeout next = bucket.remove(timeout);
+                if (timeout.expire()) {
+                    pendingTimeouts.decrementAndGet();
+                    runAction(timeout);
+                }
+                timeout = next;
+            } else {
+                timeout.remainingRounds--; // Due in a later revolution
+                timeout = timeout.next;
+            }
+        }
+    }
+
+    /**
+     * Runs the action of an expired timeout, logging any failure so the wheel keeps running.
+     *
+     * @param timeout the expired timeout
+     */
+    private void runAction(Timeout timeout) {
+        try {
+            timeout.getAction().run();
+        } catch (RuntimeException e) {
+            logger.log(Level.ERROR, "Error running timeout action in {}: ", name, e);
+        }
+    }
+
+    /**
+     * Returns the name of the wheel thread.
+     *
+     * @return the wheel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the duration of a tick.
+     *
+     * @param unit the unit of the returned value
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the amount of buckets in the wheel.
+     *
+     * @return the amount of buckets
+     */
+    public int getTicksPerWheel() {
+        return buckets.length;
+    }
+
+    /**
+     * Returns the amount of timeouts scheduled and neither expired nor cancelled.
+     *
+     * @return the pending timeouts
+     */
+    public int getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * {@code Bucket} class is a doubly linked list of the timeouts hashed to the same tick.
+     * Accessed by the wheel thread only.
+     */
+    static final class Bucket {
+        private Timeout head; // First timeout of the list
+        private Timeout tail; // Last timeout of the list
+
+        /**
+         * Appends a timeout to the list.
+         *
+         * @param timeout the timeout to append
+         */
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+                return;
+            }
+            tail.next = timeout;
+            timeout.previous = tail;
+            tail = timeout;
+        }
+
+        /**
+         * Unlinks a timeout from the list.
+         *
+         * @param timeout the timeout to unlink
+         * @return the timeout following the unlinked one
+         */
+        private Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.previous != null) {
+                timeout.previous.next = next;
+            } else {
+                head = next;
+            }
+            if (next != null) {
+                next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+        /**
+         * Cancels and unlinks every timeout of the list.
+         */
+        private void cancelAll() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = remove(timeout);
+                timeout.cancel();
+                timeout = next;
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.phinix.lib.server.core.Manageable;
 import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.ScheduledTask;
 import org.phinix.lib.server.core.task.Task;
 
 /**
@@ -12,19 +13,22 @@ import org.phinix.lib.server.core.task.Task;
  * <p>
  * This class extends from {@link Task} and can be executed by {@link AbstractTaskExecutor}.
  * <p>
- * This class provides an implementation of the {@link #executeAsync(M)} method, which handles the execution of the
- * task with a delay before and after the actual work is done. The {@link #process(M)} method is still abstract and
- * must be overridden by subclasses to define the specific work that needs to be performed.
+ * This class provides an implementation of the {@link #runStep(M)} method, which handles the execution of the
+ * task with a delay before and after the actual work is done, scheduled on a {@link ScheduledTask} timing wheel.
+ * The {@link #process(M)} method is still abstract and must be overridden by subclasses to define the specific
+ * work that needs to be performed.
  *
  * @param <M> the type of manageable component associated with the task
  * @see Manageable
  * @see Task
+ * @see ScheduledTask
  */
-public abstract class DelayOneTimeTask<M extends Manageable> extends Task<M> {
+public abstract class DelayOneTimeTask<M extends Manageable> extends ScheduledTask<M> {
     private static final Logger logger = LogManager.getLogger();
 
     private final int beginMillis; // Delay before task execution
     private final int afterMillis; // Delay after task execution
+    private volatile boolean processed; // Flag indicating whether the work has been done
 
     /**
      * Constructs a new DelayOneTimeTask with the specified delays.
@@ -38,16 +42,30 @@ public abstract class DelayOneTimeTask<M extends Manageable> extends Task<M> {
     }
 
     /**
-     * Executes the task asynchronously with delays before and after processing.
+     * Returns the delay before task execution.
      *
-     * @param manageable the manageable component
+     * @return the delay in milliseconds
      */
     @Override
-    protected void executeAsync(M manageable) {
-        delay(beginMillis); // Wait for the initial delay before executing the task
+    protected long initialDelay() {
         logger.log(Level.DEBUG, "Task delayed before execution: {} ms", beginMillis); // Log the delay before execution
-        process(manageable); // Execute the task's work
-        delay(afterMillis); // Wait for the delay after executing the task
+        return beginMillis; // Wait for the initial delay before executing the task
+    }
+
+    /**
+     * Executes the task once, then finishes after the delay after execution.
+     *
+     * @param manageable the manageable component
+     * @return the delay after execution, or {@link #DONE} once it has elapsed
+     */
+    @Override
+    protected long runStep(M manageable) {
+        if (processed) {
+            return DONE; // The delay after execution has elapsed
+        }
+        processed = true;
+        runProcess(manageable); // Execute the task's work, recording its metrics
         logger.log(Level.DEBUG, "Task delayed after execution: {} ms", afterMillis); // Log the delay after execution
+        return afterMillis; // Wait for the delay after executing the task
     }
-}
\ No newline at end of file
+}
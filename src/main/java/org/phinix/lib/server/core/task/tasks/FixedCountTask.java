@@ -5,6 +5,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.phinix.lib.server.core.Manageable;
 import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.OverrunPolicy;
+import org.phinix.lib.server.core.task.PeriodMode;
+import org.phinix.lib.server.core.task.ScheduledTask;
 import org.phinix.lib.server.core.task.Task;
 
 /**
@@ -12,18 +15,23 @@ import org.phinix.lib.server.core.task.Task;
  * <p>
  * This class extends from {@link Task} and can be executed by {@link AbstractTaskExecutor}.
  * <p>
- * This class provides an implementation of the {@link #executeAsync(M)} method, which handles the execution of the
- * task with a delay before and after the actual work is done. The {@link #process(M)} method is still abstract and
- * must be overridden by subclasses to define the specific work that needs to be performed.
+ * This class provides an implementation of the {@link #runStep(M)} method, which handles the execution of the
+ * task with a delay between each execution, scheduled on a {@link ScheduledTask} timing wheel. The delay is measured
+ * according to a {@link PeriodMode} and overruns are handled with an {@link OverrunPolicy}, see {@link LoopTask}. The
+ * {@link #process(M)} method is still abstract and must be overridden by subclasses to define the specific work
+ * that needs to be performed.
  *
  * @param <M> the type of manageable component associated with the task
  * @see Manageable
  * @see Task
+ * @see ScheduledTask
  */
-public abstract class FixedCountTask<M extends Manageable> extends Task<M> {
+public abstract class FixedCountTask<M extends Manageable> extends ScheduledTask<M> {
     private static final Logger logger = LogManager.getLogger();
 
     private final long millis; // Delay between each task execution
+    private final PeriodMode periodMode; // How the delay between executions is measured
+    private final OverrunPolicy overrunPolicy; // What to do when an execution overruns its period
 
     protected final int maxExecutions; // Maximum number of task executions
     protected int currentExecutions; // Current number of task executions
@@ -35,31 +43,41 @@ public abstract class FixedCountTask<M extends Manageable> extends Task<M> {
      * @param millis the delay between each task execution in milliseconds
      */
     public FixedCountTask(int maxExecutions, long millis) {
+        this(maxExecutions, millis, PeriodMode.FIXED_DELAY, OverrunPolicy.CATCH_UP);
+    }
+
+    /**
+     * Constructs a new FixedCountTask with the specified maximum executions, period, period mode and overrun policy.
+     * Executions dropped by the {@link OverrunPolicy#SKIP} policy do not count towards the maximum.
+     *
+     * @param maxExecutions the maximum number of task executions
+     * @param millis the period between task executions in milliseconds
+     * @param periodMode how the period is measured
+     * @param overrunPolicy what to do when an execution finishes after the next one was due, in fixed-rate mode
+     */
+    public FixedCountTask(int maxExecutions, long millis, PeriodMode periodMode, OverrunPolicy overrunPolicy) {
         this.maxExecutions = maxExecutions; // Set maximum executions
         this.millis = millis; // Set the delay between executions
+        this.periodMode = periodMode; // Set how the delay is measured
+        this.overrunPolicy = overrunPolicy; // Set the overrun policy
         this.currentExecutions = 0; // Initialize current executions to 0
     }
 
     /**
-     * Executes the task asynchronously a fixed number of times with a delay between each execution.
+     * Executes the task once and returns the delay until the next execution.
      *
      * @param manageable the manageable component
+     * @return the delay in milliseconds until the next step, or {@link #DONE} once the max executions are reached
      */
     @Override
-    public void executeAsync(M manageable) {
-        running = true; // Set task as running
-        while (running && currentExecutions < maxExecutions) { // Continue until the max executions are reached
-            if (paused) {
-                pauseDelay(); // Pause if the task is paused
-                logger.log(Level.DEBUG, "Task paused for: {} ms", PAUSE_DELAY_MILLIS); // Log the pause
-                continue; // Skip the rest of the loop iteration if paused
-            }
-            process(manageable); // Execute the task's work
-            currentExecutions++; // Increment the execution count
-            delay(millis); // Wait for the specified delay before the next execution
-            logger.log(Level.DEBUG, "Task executed {} out of {} times with delay: {} ms", currentExecutions, maxExecutions, millis); // Log execution count and delay
+    protected long runStep(M manageable) {
+        if (currentExecutions >= maxExecutions) {
+            logger.log(Level.DEBUG, "Task execution completed: {} times", currentExecutions); // Log task completion
+            return DONE; // Stop running when the task is completed
         }
-        running = false; // Stop running when the task is completed
-        logger.log(Level.DEBUG, "Task execution completed: {} times", currentExecutions); // Log task completion
+        runProcess(manageable); // Execute the task's work, recording its metrics
+        currentExecutions++; // Increment the execution count
+        logger.log(Level.DEBUG, "Task executed {} out of {} times with delay: {} ms", currentExecutions, maxExecutions, millis); // Log execution count and delay
+        return periodDelay(millis, periodMode, overrunPolicy); // Wait until the next execution
     }
-}
\ No newline at end of file
+}
@@ -4,53 +4,68 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.phinix.lib.server.core.Manageable;
-import org.phinix.lib.server.core.task.Task;
 import org.phinix.lib.server.core.task.AbstractTaskExecutor;
+import org.phinix.lib.server.core.task.OverrunPolicy;
+import org.phinix.lib.server.core.task.PeriodMode;
+import org.phinix.lib.server.core.task.ScheduledTask;
+import org.phinix.lib.server.core.task.Task;
 
 /**
  * {@code LoopTask} abstract class representing a task that executes repeatedly with a delay between each execution.
  * <p>
  * This class extends from {@link Task} and can be executed by {@link AbstractTaskExecutor}.
  * <p>
- * This class provides an implementation of the {@link #executeAsync(M)} method, which handles the execution of the
- * task with a delay before and after the actual work is done. The {@link #process(M)} method is still abstract and
- * must be overridden by subclasses to define the specific work that needs to be performed.
+ * This class provides an implementation of the {@link #runStep(M)} method, which handles the execution of the
+ * task with a delay between each execution, scheduled on a {@link ScheduledTask} timing wheel. The delay is measured
+ * according to a {@link PeriodMode}: from the end of each execution by default, or as a fixed rate that keeps a
+ * stable cadence under load, handling overruns with an {@link OverrunPolicy}. The
+ * {@link #process(M)} method is still abstract and must be overridden by subclasses to define the specific work
+ * that needs to be performed.
  *
  * @param <M> the type of manageable component associated with the task
  * @see Manageable
  * @see Task
+ * @see ScheduledTask
  */
-public abstract class LoopTask<M extends Manageable> extends Task<M> {
+public abstract class LoopTask<M extends Manageable> extends ScheduledTask<M> {
     private static final Logger logger = LogManager.getLogger();
 
     protected final long millis; // Delay between each task execution
+    protected final PeriodMode periodMode; // How the delay between executions is measured
+    protected final OverrunPolicy overrunPolicy; // What to do when an execution overruns its period
 
     /**
-     * Constructs a new LoopTask with the specified delay.
+     * Constructs a new LoopTask with the specified delay, measured from the end of each execution.
      *
      * @param millis the delay between each task execution in milliseconds
      */
     public LoopTask(long millis) {
+        this(millis, PeriodMode.FIXED_DELAY, OverrunPolicy.CATCH_UP);
+    }
+
+    /**
+     * Constructs a new LoopTask with the specified period, period mode and overrun policy.
+     *
+     * @param millis the period between task executions in milliseconds
+     * @param periodMode how the period is measured
+     * @param overrunPolicy what to do when an execution finishes after the next one was due, in fixed-rate mode
+     */
+    public LoopTask(long millis, PeriodMode periodMode, OverrunPolicy overrunPolicy) {
         this.millis = millis; // Set the delay between task executions
+        this.periodMode = periodMode; // Set how the delay is measured
+        this.overrunPolicy = overrunPolicy; // Set the overrun policy
     }
 
     /**
-     * Executes the task asynchronously in a loop with a delay between each execution.
+     * Executes the task once and returns the delay until the next execution.
      *
      * @param manageable the manageable component
+     * @return the delay in milliseconds until the next step
      */
     @Override
-    public void executeAsync(M manageable) {
-        running = true; // Set task as running
-        while (running) { // Keep executing while the task is running
-            if (paused) {
-                pauseDelay(); // Pause if the task is paused
-                logger.log(Level.DEBUG, "Task paused for: {} ms", PAUSE_DELAY_MILLIS); // Log pause delay
-                continue; // Skip the rest of the loop iteration if paused
-            }
-            process(manageable); // Execute the task's work
-            delay(millis); // Wait for the specified delay before the next execution
-            logger.log(Level.DEBUG, "Task delayed between executions: {} ms", millis); // Log the delay
-        }
+    protected long runStep(M manageable) {
+        runProcess(manageable); // Execute the task's work, recording its metrics
+        logger.log(Level.DEBUG, "Task delayed between executions: {} ms", millis); // Log the delay
+        return periodDelay(millis, periodMode, overrunPolicy); // Wait until the next execution
     }
-}
\ No newline at end of file
+}
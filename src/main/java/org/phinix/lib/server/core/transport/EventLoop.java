@@ -0,0 +1,265 @@
+package org.phinix.lib.server.core.transport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.phinix.lib.common.socket.ByteBufferPool;
+import org.phinix.lib.server.core.worker.Worker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code EventLoop} class is a single threaded reactor that multiplexes many client connections
+ * over one {@link Selector}.
+ * <p>
+ * Each registered {@link SocketChannel} is bound to a {@link Worker}. The loop reads the channel when data
+ * is available, splits it into lines and calls {@link Worker#listen(String)} only when a complete line
+ * has arrived. Outbound messages queued by the worker's messages manager are written by the loop without
+ * blocking, so an idle connection does not pin any thread.
+ * <p>
+ * Every interaction with the selector happens on the loop thread; other threads hand work over with
+ * {@link #execute(Runnable)}.
+ * <p>
+ * A server runs several loops, each owning a disjoint set of connections, and exposes their counters through
+ * {@link #getStats()}.
+ *
+ * @see TransportMode
+ * @see LoadBalancing
+ * @see EventLoopStats
+ * @see NioConnection
+ * @see Worker
+ */
+public class EventLoop implements Runnable {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024; // Size of the read buffer shared by all connections of the loop
+
+    private final String name; // Name of the loop thread
+    private final Selector selector; // Selector multiplexing the loop connections
+    private final Queue<Runnable> pendingTasks; // Tasks submitted from other threads
+    private final ByteBuffer readBuffer; // Read buffer shared by every connection of this loop
+    private final AtomicInteger connections; // Connections currently served by this loop
+    private volatile long reads; // Read calls issued, updated on the loop thread only
+    private volatile long writes; // Write calls issued, updated on the loop thread only
+    private volatile long bytesRead; // Bytes read, updated on the loop thread only
+    private volatile Thread thread; // Thread running this loop
+    private volatile boolean running; // Flag indicating whether the loop is running
+
+    /**
+     * Constructs a new EventLoop with the specified name.
+     *
+     * @param name the name of the loop thread
+     * @throws IOException if the selector cannot be opened
+     */
+    public EventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.pendingTasks = new ConcurrentLinkedQueue<>();
+        this.connections = new AtomicInteger();
+        this.readBuffer = ByteBufferPool.direct().acquire(READ_BUFFER_SIZE); // Given back when the loop stops
+        this.running = false;
+    }
+
+    /**
+     * Starts the loop in a new thread.
+     */
+    public void start() {
+        running = true; // Set the loop as running
+        Thread loopThread = new Thread(this, name);
+        thread = loopThread;
+        loopThread.start(); // Start the loop thread
+        logger.log(Level.DEBUG, "Event loop started: {}", name);
+    }
+
+    /**
+     * Runs the selection loop until {@link #stop()} is called.
+     */
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            while (running) {
+                selector.select(); // Wait until a channel is ready or the loop is woken up
+                runPendingTasks(); // Run tasks submitted from other threads
+                processSelectedKeys(); // Serve ready channels
+            }
+        } catch (IOException e) {
+            logger.log(Level.FATAL, "Error in event loop {}: ", name, e);
+        } finally {
+            closeAll(); // Close every connection still registered in the loop
+        }
+    }
+
+    /**
+     * Registers a new client channel bound to the given worker.
+     * <p>
+     * The registration happens on the loop thread, so this method can be called from any thread.
+     *
+     * @param channel the non-blocking client channel
+     * @param worker the worker bound to the channel
+     */
+    public void register(SocketChannel channel, Worker worker) {
+        connections.incrementAndGet(); // Counted right away so load balancing sees it
+        worker.addCloseListener(connections::decrementAndGet); // Released when the connection closes
+        execute(() -> {
+            NioConnection connection = new NioConnection(this, channel, worker);
+            try {
+                connection.open(selector); // Register the channel and notify the worker
+                logger.log(Level.DEBUG, "Connection registered in {}: {}", name, worker.getClientAddress());
+            } catch (ClosedChannelException e) {
+                logger.log(Level.WARN, "Connection closed before registration in {}", name);
+                connection.close();
+            }
+        });
+    }
+
+    /**
+     * Submits a task to be run on the loop thread.
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        pendingTasks.offer(task); // Queue the task
+        selector.wakeup(); // Wake up the loop so the task runs promptly
+    }
+
+    /**
+     * Returns whether the current thread is the loop thread.
+     *
+     * @return {@code true} if called from the loop thread, {@code false} otherwise
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Wakes up the loop so it processes cancelled keys and pending tasks.
+     */
+    public void wakeup() {
+        selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes every connection registered in it.
+     */
+    public void stop() {
+        running = false; // Set the loop as stopped
+        selector.wakeup(); // Wake up the loop so it notices the stop
+        logger.log(Level.DEBUG, "Event loop stopping: {}", name);
+    }
+
+    /**
+     * Returns the number of connections served by this loop, including those waiting to be registered.
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns a snapshot of the counters of this loop.
+     *
+     * @return the loop counters
+     */
+    public EventLoopStats getStats() {
+        return new EventLoopStats(name, connections.get(), reads, writes, bytesRead, System.nanoTime());
+    }
+
+    /**
+     * Returns the name of the loop thread.
+     *
+     * @return the loop name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a read call. Called on the loop thread only.
+     *
+     * @param bytes the amount of bytes read
+     */
+    void recordRead(int bytes) {
+        reads++;
+        bytesRead += Math.max(bytes, 0);
+    }
+
+    /**
+     * Records write calls. Called on the loop thread only.
+     *
+     * @param calls the amount of write calls
+     */
+    void recordWrites(long calls) {
+        writes += calls;
+    }
+
+    /**
+     * Runs every task submitted from other threads.
+     */
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            try {
+                task.run(); // Run the submitted task
+            } catch (Exception e) {
+                logger.log(Level.ERROR, "Error running task in event loop {}: ", name, e);
+            }
+        }
+    }
+
+    /**
+     * Serves every channel selected as ready.
+     */
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            NioConnection connection = (NioConnection) key.attachment();
+            if (!key.isValid()) {
+                connection.close(); // The channel was closed or the key cancelled
+                continue;
+            }
+
+            if (key.isReadable()) {
+                connection.handleRead(readBuffer); // Read available data and deliver complete lines
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush(); // Write pending messages now that the socket accepts data
+            }
+        }
+    }
+
+    /**
+     * Closes every connection still registered in the loop and the selector itself.
+     */
+    private void closeAll() {
+        for (SelectionKey key : List.copyOf(selector.keys())) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close(); // Close the connection and its worker
+            }
+        }
+
+        ByteBufferPool.direct().release(readBuffer); // Give the read buffer back to the pool
+
+        try {
+            selector.close(); // Close the selector
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Error closing selector of event loop {}: ", name, e);
+        }
+        logger.log(Level.DEBUG, "Event loop stopped: {}", name);
+    }
+}
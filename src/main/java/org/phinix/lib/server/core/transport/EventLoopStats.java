@@ -0,0 +1,58 @@
+package org.phinix.lib.server.core.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code EventLoopStats} record is a point-in-time snapshot of the counters of an {@link EventLoop}.
+ * <p>
+ * Counters are cumulative since the loop was created; rates are obtained by comparing two snapshots of
+ * the same loop:
+ * <pre>{@code
+ * EventLoopStats before = eventLoop.getStats();
+ * // ...
+ * EventLoopStats after = eventLoop.getStats();
+ * double readsPerSecond = after.readsPerSecond(before);
+ * }</pre>
+ *
+ * @param name the name of the loop
+ * @param connections the amount of connections currently served by the loop
+ * @param reads the amount of read calls issued by the loop
+ * @param writes the amount of write calls issued by the loop
+ * @param bytesRead the amount of bytes read by the loop
+ * @param timestampNanos the {@link System#nanoTime()} value when the snapshot was taken
+ * @see EventLoop
+ */
+public record EventLoopStats(String name, int connections, long reads, long writes, long bytesRead,
+                             long timestampNanos) {
+    /**
+     * Returns the read calls per second between a previous snapshot and this one.
+     *
+     * @param previous an earlier snapshot of the same loop
+     * @return the read calls per second
+     */
+    public double readsPerSecond(EventLoopStats previous) {
+        return perSecond(reads - previous.reads, previous);
+    }
+
+    /**
+     * Returns the write calls per second between a previous snapshot and this one.
+     *
+     * @param previous an earlier snapshot of the same loop
+     * @return the write calls per second
+     */
+    public double writesPerSecond(EventLoopStats previous) {
+        return perSecond(writes - previous.writes, previous);
+    }
+
+    /**
+     * Divides a counter delta by the time elapsed since a previous snapshot.
+     *
+     * @param delta the counter delta
+     * @param previous the earlier snapshot
+     * @return the delta per second, or {@code 0} if no time has elapsed
+     */
+    private double perSecond(long delta, EventLoopStats previous) {
+        long elapsed = timestampNanos - previous.timestampNanos;
+        return elapsed > 0 ? delta * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+    }
+}
@@ -0,0 +1,19 @@
+package org.phinix.lib.server.core.transport;
+
+/**
+ * {@code LoadBalancing} enum defines how new connections are distributed among the {@link EventLoop}s
+ * of the NIO transport.
+ *
+ * @see EventLoop
+ * @see TransportMode
+ */
+public enum LoadBalancing {
+    /**
+     * Each new connection goes to the next event loop in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Each new connection goes to the event loop currently serving the fewest connections.
+     */
+    LEAST_CONNECTIONS
+}
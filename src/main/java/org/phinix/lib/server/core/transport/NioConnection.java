@@ -0,0 +1,218 @@
+package org.phinix.lib.server.core.transport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.phinix.lib.common.socket.MessageDecoder;
+import org.phinix.lib.common.socket.MessagesManager;
+import org.phinix.lib.server.core.worker.Worker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code NioConnection} class holds the state of a single client connection served by an {@link EventLoop}.
+ * <p>
+ * It decodes the inbound byte stream into messages with the codec of the worker's {@link MessagesManager},
+ * keeping an incomplete trailing frame until the rest of it arrives, and writes the messages queued in the worker's {@link MessagesManager} when the channel is writable.
+ * While the messages manager has reading paused, the channel is not selected for reading.
+ * Every method except {@link #requestFlush()} and {@link #requestReadInterest()} runs on the owning loop thread.
+ *
+ * @see EventLoop
+ * @see MessagesManager
+ */
+final class NioConnection {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final EventLoop eventLoop; // Loop owning this connection
+    private final SocketChannel channel; // Non-blocking client channel
+    private final Worker worker; // Worker receiving the lines
+    private final MessagesManager messagesManager; // Messages manager holding the outbound queue
+    private final MessageDecoder decoder; // Decoding state of the inbound byte stream
+    private final AtomicBoolean flushScheduled; // Avoids scheduling redundant flushes from other threads
+    private SelectionKey key; // Selection key of the channel
+    private boolean closed; // Whether the loop has closed the connection, used by the loop thread only
+
+    /**
+     * Constructs a new NioConnection.
+     *
+     * @param eventLoop the loop owning the connection
+     * @param channel the non-blocking client channel
+     * @param worker the worker bound to the channel
+     */
+    NioConnection(EventLoop eventLoop, SocketChannel channel, Worker worker) {
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+        this.worker = worker;
+        this.messagesManager = worker.getMessagesManager();
+        this.decoder = messagesManager.getCodec().newDecoder();
+        this.flushScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Registers the channel for reading, wires the outbound queue and notifies the worker.
+     *
+     * @param selector the selector of the owning loop
+     * @throws ClosedChannelException if the channel is already closed
+     */
+    void open(Selector selector) throws ClosedChannelException {
+        key = channel.register(selector, SelectionKey.OP_READ, this); // Register for read events
+        messagesManager.setWriteRequestListener(this::requestFlush); // Flush whenever a message is queued
+        messagesManager.setReadInterestListener(this::requestReadInterest); // Follow reading pauses
+        worker.addCloseListener(eventLoop::wakeup); // Let the loop release the key promptly on close
+        worker.onConnect(); // Let the worker start its tasks
+        flush(); // Write anything the worker queued before registration
+    }
+
+    /**
+     * Reads available data and delivers every complete message to the worker.
+     *
+     * @param readBuffer the read buffer shared by the loop
+     */
+    void handleRead(ByteBuffer readBuffer) {
+        try {
+            readBuffer.clear();
+            int read = channel.read(readBuffer); // Read as much as is available
+            eventLoop.recordRead(read);
+            if (read < 0) {
+                close(); // End of stream, the client has disconnected
+                return;
+            }
+
+            readBuffer.flip();
+            deliverMessages(readBuffer); // Decode the data into messages and deliver them
+        } catch (IOException e) {
+            logger.log(Level.DEBUG, "Error reading from client at {}: {}", worker.getClientAddress(), e.getMessage());
+            close();
+        } catch (Exception e) {
+            logger.log(Level.FATAL, "Error processing client input at {}: ", worker.getClientAddress(), e);
+            close();
+        }
+    }
+
+    /**
+     * Decodes the data into messages and delivers each complete message to the worker.
+     * <p>
+     * In pipelining mode every message decoded from the data is delivered at once through
+     * {@link Worker#listenBatch(List)}.
+     *
+     * @param data the data read from the channel
+     * @throws IOException if the data is not a valid frame or the worker fails handling a message
+     */
+    private void deliverMessages(ByteBuffer data) throws IOException {
+        String message;
+        if (worker.isPipelining()) {
+            List<String> messages = new ArrayList<>();
+            while ((message = decoder.decode(data)) != null) {
+                messages.add(message); // Collect every complete message
+            }
+            if (!messages.isEmpty()) {
+                worker.listenBatch(messages); // Deliver them in order, answered with a single write
+            }
+            return;
+        }
+
+        while (channel.isOpen() && (message = decoder.decode(data)) != null) {
+            worker.listen(message); // Deliver the complete message
+        }
+    }
+
+    /**
+     * Requests the queued messages to be written. Can be called from any thread.
+     */
+    void requestFlush() {
+        if (eventLoop.inEventLoop()) {
+            flush(); // Already on the loop thread, write right away
+            return;
+        }
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Requests the read interest of the channel to follow whether the messages manager has reading paused. Can be
+     * called from any thread.
+     */
+    void requestReadInterest() {
+        if (eventLoop.inEventLoop()) {
+            updateReadInterest(); // Already on the loop thread, update right away
+            return;
+        }
+        eventLoop.execute(this::updateReadInterest);
+    }
+
+    /**
+     * Selects the channel for reading unless the messages manager has reading paused.
+     */
+    private void updateReadInterest() {
+        if (key == null || !key.isValid()) {
+            return; // Not registered yet, or already closed
+        }
+
+        try {
+            int interestOps = key.interestOps();
+            key.interestOps(messagesManager.isReadingPaused()
+                    ? interestOps & ~SelectionKey.OP_READ // Leave the data in the socket, the peer slows down
+                    : interestOps | SelectionKey.OP_READ);
+        } catch (CancelledKeyException e) {
+            logger.log(Level.DEBUG, "Connection closed before updating its read interest: {}", worker.getClientAddress());
+        }
+    }
+
+    /**
+     * Writes queued messages and updates the write interest of the channel.
+     */
+    void flush() {
+        if (key == null) {
+            return; // Not registered yet
+        }
+        if (!channel.isOpen()) {
+            close(); // Closed by the messages manager, for example when the peer stopped reading
+            return;
+        }
+        if (!key.isValid()) {
+            return; // Already closed
+        }
+
+        try {
+            long writeCalls = messagesManager.getWriteCalls();
+            boolean flushed = messagesManager.writePending(); // Write until done or the socket is full
+            eventLoop.recordWrites(messagesManager.getWriteCalls() - writeCalls);
+            int interestOps = key.interestOps();
+            key.interestOps(flushed
+                    ? interestOps & ~SelectionKey.OP_WRITE // Nothing left, stop watching writability
+                    : interestOps | SelectionKey.OP_WRITE); // Data pending, wait until writable
+        } catch (IOException | CancelledKeyException e) {
+            logger.log(Level.DEBUG, "Error writing to client at {}: {}", worker.getClientAddress(), e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Closes the connection through its worker, which also closes the channel.
+     */
+    void close() {
+        if (closed) {
+            return; // Already closed by the loop
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel(); // Stop selecting the channel
+        }
+        worker.closeConnection(); // Close the worker and its socket
+    }
+}
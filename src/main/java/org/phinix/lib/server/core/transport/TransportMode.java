@@ -0,0 +1,28 @@
+package org.phinix.lib.server.core.transport;
+
+import org.phinix.lib.server.core.AbstractServer;
+import org.phinix.lib.server.core.ServerOptions;
+
+/**
+ * {@code TransportMode} enum defines how an {@link AbstractServer} accepts and serves client connections.
+ * <p>
+ * The transport mode is selected through {@link ServerOptions} and it is transparent for
+ * {@code WorkerFactory} and {@code ContextFactory} implementations: workers are created in the same way
+ * in both modes, only the way their input is read and their output is written changes.
+ *
+ * @see AbstractServer
+ * @see ServerOptions
+ * @see EventLoop
+ */
+public enum TransportMode {
+    /**
+     * Classic thread-per-connection model. Each worker runs on its own thread and blocks
+     * reading lines from the socket input stream.
+     */
+    BLOCKING,
+    /**
+     * Selector based model. A small group of {@link EventLoop} threads multiplexes every
+     * connection and delivers complete lines to {@code Worker.listen(String)}.
+     */
+    NIO
+}
@@ -12,6 +12,8 @@ import org.phinix.lib.common.socket.MessagesManager;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * {@code AbstractWorker} class is an abstract implementation of the {@link Worker} interface.
@@ -32,11 +34,11 @@ import java.net.Socket;
  *     public void listen(String message) {
  *         CommandProcessor commandProcessor =
  *         getServiceRegister().getService(CommandProcessor.class);
- *         if (!commandProcessor.processCommand(message, this)) {
+ *         commandProcessor.processLine(message, this, line ->
  *             getMessagesManager().sendMessage(
- *                  getClientAddress() + ": " + message
- *             );
- *         }
+ *                  getClientAddress() + ": " + line
+ *             )
+ *         );
  *     }
  * }
  * }
@@ -54,7 +56,11 @@ public abstract class AbstractWorker implements Worker {
     protected final Context serverContext; // Server context
     protected AbstractTaskExecutor asyncClientTaskExecutor; // Executor for asynchronous client tasks (Raw param: <>)
     protected RoomImpl currentRoomImpl; // Current room the worker is in
-    protected boolean isRunning; // Flag indicating whether the worker is running
+    protected volatile boolean isRunning; // Flag indicating whether the worker is running
+    protected volatile boolean pipelining; // Flag indicating whether available messages are processed at once
+
+    private final List<Runnable> closeListeners; // Listeners run when the connection is closed (guarded by itself)
+    private boolean closed; // Flag indicating whether close listeners have already run (guarded by closeListeners)
 
     /**
      * Constructs an AbstractWorker with the specified parameters.
@@ -76,6 +82,8 @@ public abstract class AbstractWorker implements Worker {
         this.serviceRegister = serviceRegister;
         this.serverContext = serverContext;
         this.asyncClientTaskExecutor = taskExecutor;
+        this.closeListeners = new ArrayList<>();
+        this.closed = false;
 
         isRunning = true; // Initializing worker as running
     }
@@ -88,10 +96,7 @@ public abstract class AbstractWorker implements Worker {
     @SuppressWarnings("unchecked")
     public void run() {
         try {
-            logger.log(Level.INFO, "Listening to client at: {}", socket.getInetAddress());
-
-            // Start Async Worker Task
-            asyncClientTaskExecutor.start(this);
+            onConnect(); // Prepare the worker before listening
 
             while (isRunning) {
                 if (!listenLoop()) { // Listening loop continues while worker is running
@@ -108,6 +113,18 @@ public abstract class AbstractWorker implements Worker {
         }
     }
 
+    /**
+     * Prepares the worker once its connection is established by starting its asynchronous tasks.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onConnect() {
+        logger.log(Level.INFO, "Listening to client at: {}", socket.getInetAddress());
+
+        // Start Async Worker Task
+        asyncClientTaskExecutor.start(this);
+    }
+
     /**
      * Listens for messages from the client in a loop.
      *
@@ -115,6 +132,15 @@ public abstract class AbstractWorker implements Worker {
      * @throws IOException if an I/O error occurs
      */
     protected boolean listenLoop() throws IOException {
+        if (pipelining) {
+            List<String> lines = messagesManager.receiveMessages(); // Every message already received
+            if (lines.isEmpty()) {
+                return false; // Connection has ended if no message is received
+            }
+            listenBatch(lines); // Process them in order and answer with a single write
+            return true;
+        }
+
         String line;
         if ((line = messagesManager.receiveMessage()) != null) {
             listen(line); // Process received message
@@ -136,6 +162,50 @@ public abstract class AbstractWorker implements Worker {
     @Override
     public abstract void listen(String line) throws IOException;
 
+    /**
+     * Listens for several messages received together from the client.
+     * <p>
+     * Each message is passed to {@link #listen(String)} in order inside a batch of the messages manager, so all the
+     * responses are written together. Remaining messages are skipped once the worker stops.
+     *
+     * @param lines the messages received from the client
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void listenBatch(List<String> lines) throws IOException {
+        messagesManager.beginBatch(); // Coalesce every response
+        try {
+            for (String line : lines) {
+                if (!isRunning) {
+                    break; // A message closed the connection
+                }
+                listen(line); // Process each message in order
+            }
+        } finally {
+            messagesManager.endBatch(); // Write the responses at once
+        }
+    }
+
+    /**
+     * Returns whether the worker processes every message available at once.
+     *
+     * @return {@code true} in pipelining mode, {@code false} otherwise
+     */
+    @Override
+    public boolean isPipelining() {
+        return pipelining; // Return the pipelining flag
+    }
+
+    /**
+     * Sets whether the worker processes every message available at once.
+     *
+     * @param pipelining {@code true} to enable pipelining mode
+     */
+    @Override
+    public void setPipelining(boolean pipelining) {
+        this.pipelining = pipelining; // Set the pipelining flag
+    }
+
     /**
      * Returns the messages manager for client communication.
      *
@@ -156,6 +226,16 @@ public abstract class AbstractWorker implements Worker {
         return serviceRegister; // Return the service register
     }
 
+    /**
+     * Returns the executor running the asynchronous tasks of this worker.
+     *
+     * @return the worker task executor
+     */
+    @Override
+    public AbstractTaskExecutor<?> getAsyncClientTaskExecutor() {
+        return asyncClientTaskExecutor; // Return the worker task executor
+    }
+
     /**
      * Returns the server context.
      *
@@ -212,13 +292,40 @@ public abstract class AbstractWorker implements Worker {
     public void closeConnection() {
         isRunning = false; // Set worker as stopped
         asyncClientTaskExecutor.stop(); // Stop the async client task executor
-        try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close(); // Close the client socket if it is not already closed
-                logger.log(Level.INFO, "Worker stopped for client at: {}", socket.getInetAddress());
+        if (!messagesManager.isClosed()) {
+            messagesManager.close(); // Close the client socket once pending messages are written
+            logger.log(Level.INFO, "Worker stopped for client at: {}", socket.getInetAddress());
+        }
+
+        List<Runnable> listeners;
+        synchronized (closeListeners) {
+            if (closed) {
+                return; // Close listeners have already been notified
+            }
+            closed = true;
+            listeners = List.copyOf(closeListeners);
+            closeListeners.clear();
+        }
+
+        for (Runnable listener : listeners) {
+            listener.run(); // Notify every close listener only once
+        }
+    }
+
+    /**
+     * Adds a listener that is run once when the connection to the client is closed.
+     * If the connection is already closed, the listener is run immediately.
+     *
+     * @param listener the listener to run on close
+     */
+    @Override
+    public void addCloseListener(Runnable listener) {
+        synchronized (closeListeners) {
+            if (!closed) {
+                closeListeners.add(listener);
+                return;
             }
-        } catch (IOException e) {
-            logger.log(Level.ERROR, "Error closing connection for client at {}: ", socket.getInetAddress(), e);
         }
+        listener.run(); // Connection already closed, run the listener now
     }
 }
@@ -9,6 +9,7 @@ import org.phinix.lib.server.service.AbstractServiceRegister;
 import org.phinix.lib.common.socket.MessagesManager;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * {@code Worker} interface represents a server running async worker thread implementing
@@ -30,10 +31,64 @@ public interface Worker extends Runnable, Manageable {
      * @throws IOException if an I/O error occurs
      */
     void listen(String line) throws IOException;
+    /**
+     * Listens for several messages received together from the client, in the order they were sent.
+     * <p>
+     * Used in pipelining mode, so the responses to all the messages are written together. By default each
+     * message is passed to {@link #listen(String)} inside a batch of the {@link MessagesManager}.
+     *
+     * @param lines the messages received from the client
+     * @throws IOException if an I/O error occurs
+     */
+    default void listenBatch(List<String> lines) throws IOException {
+        MessagesManager messagesManager = getMessagesManager();
+        messagesManager.beginBatch(); // Coalesce every response
+        try {
+            for (String line : lines) {
+                listen(line); // Process each message in order
+            }
+        } finally {
+            messagesManager.endBatch(); // Write the responses at once
+        }
+    }
+    /**
+     * Returns whether the worker processes every message available at once, see {@link #listenBatch(List)}.
+     * {@code false} by default.
+     *
+     * @return {@code true} in pipelining mode, {@code false} otherwise
+     */
+    default boolean isPipelining() {
+        return false;
+    }
+    /**
+     * Sets whether the worker processes every message available at once, see {@link #listenBatch(List)}.
+     * Ignored by default, such workers always process messages one by one.
+     *
+     * @param pipelining {@code true} to enable pipelining mode
+     */
+    default void setPipelining(boolean pipelining) {
+    }
+    /**
+     * Prepares the worker once its connection is established, before any message is delivered.
+     * <p>
+     * Blocking transports call it at the beginning of {@link #run()}, event loop transports call it
+     * when the connection is registered. Does nothing by default.
+     */
+    default void onConnect() {
+    }
     /**
      * Closes the connection to the client.
      */
     void closeConnection();
+    /**
+     * Adds a listener that is run once when the connection to the client is closed, or at once if it is
+     * already closed.
+     * <p>
+     * Servers rely on it to release the slot of a closed connection, see {@link AbstractWorker}.
+     *
+     * @param listener the listener to run on close
+     */
+    void addCloseListener(Runnable listener);
     /**
      * Returns the messages manager for client communication.
      *
@@ -46,6 +101,15 @@ public interface Worker extends Runnable, Manageable {
      * @return the service register
      */
     AbstractServiceRegister getServiceRegister();
+    /**
+     * Returns the executor running the asynchronous tasks of this worker.
+     * Workers without asynchronous tasks return {@code null}, the default.
+     *
+     * @return the worker task executor, or {@code null} if the worker has none
+     */
+    default AbstractTaskExecutor<?> getAsyncClientTaskExecutor() {
+        return null;
+    }
     /**
      * Returns the server context.
      *
@@ -99,6 +99,21 @@ public abstract class AbstractServiceRegister {
         return service;
     }
 
+    /**
+     * Shuts down every registered service, see {@link Service#shutdown()}. A service failing to shut down does not
+     * prevent the others from doing so.
+     */
+    public void shutdownServices() {
+        services.forEach((classService, service) -> {
+            try {
+                service.shutdown();
+                logger.log(Level.DEBUG, "Service shut down: {}", classService.getSimpleName());
+            } catch (RuntimeException e) {
+                logger.log(Level.ERROR, "Error shutting down service {}: ", classService.getSimpleName(), e);
+            }
+        });
+    }
+
     /**
      * Returns the total number of registered services in the registry.
      *
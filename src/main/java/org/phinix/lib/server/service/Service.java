@@ -11,6 +11,9 @@ import org.phinix.lib.server.core.worker.AbstractWorker;
  * functionalities or business logic, making them modular and reusable.
  * <p>
  * This interface has been implemented for handling cleaner server dependencies.
+ * <p>
+ * Services holding resources of their own, such as threads, release them in {@link #shutdown()}, called once by
+ * {@link AbstractServiceRegister#shutdownServices()} when the server stops.
  *
  * @see AbstractServer
  * @see AbstractWorker
@@ -19,4 +22,10 @@ import org.phinix.lib.server.core.worker.AbstractWorker;
  * @see CommandProcessor
  * @see RoomManager
  */
-public interface Service {}
\ No newline at end of file
+public interface Service {
+    /**
+     * Releases the resources of the service when the server stops. Does nothing by default.
+     */
+    default void shutdown() {
+    }
+}
\ No newline at end of file
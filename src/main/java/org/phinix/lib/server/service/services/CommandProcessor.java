@@ -4,12 +4,23 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.phinix.lib.common.socket.MessagesManager;
 import org.phinix.lib.server.command.AbstractCommandFactory;
+import org.phinix.lib.server.command.BlockingCommand;
 import org.phinix.lib.server.command.Command;
+import org.phinix.lib.server.command.CommandArguments;
+import org.phinix.lib.server.command.CommandExecution;
+import org.phinix.lib.server.command.CommandExecutor;
+import org.phinix.lib.server.command.CommandTokenizer;
+import org.phinix.lib.server.command.CpuBoundCommand;
+import org.phinix.lib.server.command.RegisteredCommand;
 import org.phinix.lib.server.service.Service;
 import org.phinix.lib.server.core.worker.Worker;
 
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * {@code CommandProcessor} is a service that processes commands sent by clients.
@@ -18,6 +29,28 @@ import java.util.Arrays;
  * <p>
  * This class validates the command format, creates appropriate command instances,
  * and executes them with the provided parameters.
+ * <p>
+ * Every command runs inside a batch of the worker's {@link MessagesManager}, so all the messages it sends
+ * to its client are written together once it finishes.
+ * <p>
+ * Lines are split by a {@link CommandTokenizer} reused by each thread, without regular expressions nor
+ * intermediate arrays. The command name is looked up in place in the factory's dispatch table, and the arguments
+ * are only copied out of the line once the command is known, so lines that are not commands allocate nothing.
+ * Commands registered with an {@link org.phinix.lib.server.command.ArgumentSchema} only run if their arguments
+ * match it; otherwise the worker receives the help message of the command. Commands receive their arguments as
+ * {@link CommandArguments}, holding the integers the schema parsed.
+ * <p>
+ * Commands implementing {@link BlockingCommand} or {@link CpuBoundCommand} do not run on the thread that received
+ * the line, but on one of two bounded {@link CommandExecutor}s, so a slow command never stalls the reading of its
+ * connection. Each worker has an ordered lane: while one of its commands runs on a pool, the lines it sends next
+ * are queued and processed once the command completes, on the pool thread, so the responses keep the order of the
+ * lines. A lane holds up to {@link #DEFAULT_MAX_PENDING_LINES} lines by default: once it is full, or when the pool
+ * is saturated and holds the command back, reading the connection is paused through its {@link MessagesManager}
+ * until the lane drains, so a client sending faster than its commands complete is slowed down by TCP flow control.
+ * Lines already read when reading pauses are still queued, never dropped. The thread that received the line never
+ * runs an offloaded command itself, so a saturated pool cannot stall an event loop. Lines that are not commands are ordered too when processed with
+ * {@link #processLine(String, Worker, Consumer)}. The queue depth of both pools is exposed through
+ * {@link #getBlockingExecutor()} and {@link #getCpuExecutor()}.
  *
  * @param <W> the type of worker associated with the commands
  * @see AbstractCommandFactory
@@ -27,71 +60,233 @@ import java.util.Arrays;
 public class CommandProcessor<W extends Worker> implements Service {
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Default maximum amount of threads running blocking commands.
+     */
+    public static final int DEFAULT_BLOCKING_THREADS = 16;
+
+    /**
+     * Default amount of lines queued behind an offloaded command before reading the connection is paused.
+     */
+    public static final int DEFAULT_MAX_PENDING_LINES = 64;
+
+    private static final Consumer<String> IGNORE_UNHANDLED = line ->
+            logger.log(Level.DEBUG, "Line queued behind an offloaded command is not a command: {}", line);
+
     private final AbstractCommandFactory<W> commandFactory;
+    private final ThreadLocal<CommandTokenizer> tokenizers; // Tokenizer reused by each thread processing lines
+    private final CommandExecutor blockingExecutor; // Runs the blocking commands
+    private final CommandExecutor cpuExecutor; // Runs the CPU-bound commands
+    private final Map<W, Lane> lanes; // Ordered lane of every worker that has offloaded a command
+    private final int maxPendingLines; // Lines queued in a lane before reading its connection is paused
 
     /**
-     * Constructs a {@code CommandProcessor} with the specified command factory.
+     * Outcome of processing a line.
+     */
+    private enum Outcome {
+        UNHANDLED, // Not a command, or the command failed
+        EXECUTED, // The command ran or was answered with its help
+        OFFLOADED // The command runs on a pool, which resumes the lane of the worker once it completes
+    }
+
+    /**
+     * Constructs a {@code CommandProcessor} with the specified command factory, running blocking commands on up to
+     * {@link #DEFAULT_BLOCKING_THREADS} threads and CPU-bound commands on one thread per available processor.
      *
      * @param commandFactory the factory used to create command instances
      */
     public CommandProcessor(AbstractCommandFactory<W> commandFactory) {
+        this(commandFactory,
+                new CommandExecutor("command-blocking", DEFAULT_BLOCKING_THREADS,
+                        CommandExecutor.DEFAULT_QUEUE_CAPACITY),
+                new CommandExecutor("command-cpu", Runtime.getRuntime().availableProcessors(),
+                        CommandExecutor.DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Constructs a {@code CommandProcessor} with the specified command factory and pools.
+     *
+     * @param commandFactory the factory used to create command instances
+     * @param blockingExecutor the pool running the {@link BlockingCommand}s
+     * @param cpuExecutor the pool running the {@link CpuBoundCommand}s
+     */
+    public CommandProcessor(AbstractCommandFactory<W> commandFactory,
+                            CommandExecutor blockingExecutor,
+                            CommandExecutor cpuExecutor) {
+        this(commandFactory, blockingExecutor, cpuExecutor, DEFAULT_MAX_PENDING_LINES);
+    }
+
+    /**
+     * Constructs a {@code CommandProcessor} with the specified command factory, pools and lane bound.
+     *
+     * @param commandFactory the factory used to create command instances
+     * @param blockingExecutor the pool running the {@link BlockingCommand}s
+     * @param cpuExecutor the pool running the {@link CpuBoundCommand}s
+     * @param maxPendingLines the lines queued behind an offloaded command before reading the connection is paused
+     * @throws IllegalArgumentException if {@code maxPendingLines} is not positive
+     */
+    public CommandProcessor(AbstractCommandFactory<W> commandFactory,
+                            CommandExecutor blockingExecutor,
+                            CommandExecutor cpuExecutor,
+                            int maxPendingLines) {
         logger.log(Level.DEBUG, "Initializing CommandProcessor");
+        if (maxPendingLines < 1) {
+            throw new IllegalArgumentException("Max pending lines must be positive: " + maxPendingLines);
+        }
 
         this.commandFactory = commandFactory;
+        this.tokenizers = ThreadLocal.withInitial(CommandTokenizer::new);
+        this.blockingExecutor = blockingExecutor;
+        this.cpuExecutor = cpuExecutor;
+        this.lanes = new ConcurrentHashMap<>();
+        this.maxPendingLines = maxPendingLines;
     }
 
     /**
      * Processes a command line received from a client.
      * Validates the command format, builds the command, and executes it.
+     * <p>
+     * If a command of the worker is still running on a pool, the line is queued behind it and {@code true} is
+     * returned before knowing whether it is a command; should it then turn out not to be one, it is dropped. Before
+     * commands could be offloaded, {@code false} always meant the line was not a command, so workers answering
+     * other lines from the return value would now lose the lines received while a command runs.
      *
      * @param line the command line received from the client
      * @param worker the worker executing the command
-     * @return {@code true} if the command was successfully executed, {@code false} otherwise
+     * @return {@code true} if the command was successfully executed, offloaded or queued, {@code false} otherwise
+     * @deprecated the return value no longer tells whether the line was a command; use
+     *             {@link #processLine(String, Worker, Consumer)}, which hands every line that is not a command to a
+     *             callback, in order
      */
+    @Deprecated
     public boolean processCommand(String line, W worker) {
+        if (enqueueIfBusy(line, worker, IGNORE_UNHANDLED)) {
+            return true; // Processed once the offloaded command completes
+        }
+        return process(line, worker) != Outcome.UNHANDLED;
+    }
+
+    /**
+     * Processes a line received from a client, passing it to {@code unhandled} if it is not a command.
+     * <p>
+     * Lines are handled in the order they are received, commands and other lines alike: while a command of the
+     * worker runs on a pool, later lines wait for it, and {@code unhandled} may then be called from the pool thread.
+     *
+     * @param line the line received from the client
+     * @param worker the worker executing the command
+     * @param unhandled the action run with the line if it is not a command, or if the command fails
+     */
+    public void processLine(String line, W worker, Consumer<String> unhandled) {
+        if (enqueueIfBusy(line, worker, unhandled)) {
+            return; // Processed once the offloaded command completes
+        }
+        if (process(line, worker) == Outcome.UNHANDLED) {
+            unhandled.accept(line);
+        }
+    }
+
+    /**
+     * Returns the pool running the {@link BlockingCommand}s, exposing its queue depth and activity.
+     *
+     * @return the blocking command executor
+     */
+    public CommandExecutor getBlockingExecutor() {
+        return blockingExecutor;
+    }
+
+    /**
+     * Returns the pool running the {@link CpuBoundCommand}s, exposing its queue depth and activity.
+     *
+     * @return the CPU-bound command executor
+     */
+    public CommandExecutor getCpuExecutor() {
+        return cpuExecutor;
+    }
+
+    /**
+     * Stops both pools from accepting new commands. Commands already accepted still run, held back ones are
+     * discarded along with the lines queued behind them, and reading every paused connection resumes. Called when
+     * the server stops.
+     */
+    @Override
+    public void shutdown() {
+        blockingExecutor.shutdown();
+        cpuExecutor.shutdown();
+        lanes.forEach((worker, lane) -> {
+            synchronized (lane) {
+                discard(lane, worker); // Its held back command, if any, will never run
+            }
+        });
+    }
+
+    /**
+     * Queues a line behind the offloaded command of its worker, if one is running, pausing the reading of the
+     * connection once the lane is full.
+     *
+     * @param line the line received from the client
+     * @param worker the worker that received the line
+     * @param unhandled the action run with the line if it is not a command
+     * @return {@code true} if the line was queued, {@code false} if it can be processed right away
+     */
+    private boolean enqueueIfBusy(String line, W worker, Consumer<String> unhandled) {
+        Lane lane = lanes.get(worker);
+        if (lane == null) {
+            return false; // The worker has never offloaded a command
+        }
+        synchronized (lane) {
+            if (!lane.busy) {
+                return false;
+            }
+            lane.pending.add(new PendingLine(line, unhandled));
+            if (lane.pending.size() >= maxPendingLines) {
+                pauseReading(lane, worker); // Lines arrive faster than the commands complete
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Processes a line right away: validates its format, then executes or offloads the command.
+     *
+     * @param line the line received from the client
+     * @param worker the worker executing the command
+     * @return the outcome of the processing
+     */
+    private Outcome process(String line, W worker) {
         logger.log(Level.DEBUG, "Processing command line: {}", line);
 
+        MessagesManager messagesManager = worker.getMessagesManager();
+        messagesManager.beginBatch(); // Coalesce the command output into a single write
         try {
             // Split the command line into individual components (command name and arguments).
-            String[] formatLine = formatLine(line);
-            if (!isValidFormatLine(formatLine)) {
+            CommandTokenizer tokenizer = tokenizers.get().tokenize(line);
+            if (!isValidFormatLine(tokenizer)) {
                 // Log and notify if the command format is invalid
                 worker.getMessagesManager().sendMessageAndLog(Level.WARN,
                         "Command line has invalid format: {}", line);
-                return false;
+                return Outcome.UNHANDLED;
             }
 
-            // Extract the command name and its parameters.
-            String commandName = formatLine[0];
-            String[] args = getCommandParameters(formatLine);
-
-            logger.log(Level.DEBUG, "Attempting to build command: {}", commandName);
-            return buildAndExecuteCommand(commandName, args, worker);
+            // The command name is matched in place, its parameters are only extracted for known commands.
+            logger.log(Level.DEBUG, "Attempting to build command from line: {}", line);
+            return buildAndExecuteCommand(tokenizer, worker);
         } catch (Exception e) {
             // Handle any exceptions that occur during command processing.
             logger.log(Level.ERROR, "Error processing command: {}. Exception: ", line, e);
-            return false;
+            return Outcome.UNHANDLED;
+        } finally {
+            messagesManager.endBatch(); // Write the command output
         }
     }
 
-    /**
-     * Splits a command line into its components using whitespace as a delimiter.
-     *
-     * @param line the command line to split
-     * @return an array of command components
-     */
-    private String[] formatLine(String line) {
-        return line.split("\\s+");
-    }
-
     /**
      * Validates the format of the command line.
      *
-     * @param formatLine the components of the command line
+     * @param tokenizer the tokenized command line
      * @return {@code true} if the format is valid, {@code false} otherwise
      */
-    private boolean isValidFormatLine(String[] formatLine) {
-        if (formatLine.length == 0) {
+    private boolean isValidFormatLine(CommandTokenizer tokenizer) {
+        if (tokenizer.isEmpty()) {
             // Log and notify if the command line is empty or unknown
             logger.log(Level.WARN, "Command line is unknown or empty");
             return false;
@@ -100,41 +295,236 @@ public class CommandProcessor<W extends Worker> implements Service {
     }
 
     /**
-     * Builds a command instance using the factory and executes it.
+     * Builds a command instance using the factory and executes it, unless its arguments do not match the schema
+     * it was registered with, in which case the worker receives the help message of the command instead.
+     * Blocking and CPU-bound commands are handed to their pool.
      *
-     * @param commandName the name of the command
-     * @param commandParameters the parameters for the command
+     * @param tokenizer the tokenized command line holding the name and parameters of the command
      * @param worker the worker executing the command
-     * @return {@code true} if the command was executed successfully, {@code false} otherwise
+     * @return the outcome of the processing
      * @throws Exception if an error occurs during command creation or execution
      */
-    private boolean buildAndExecuteCommand(String commandName, String[] commandParameters, W worker)
-            throws Exception {
-        Command<W> userCommand = commandFactory.createCommand(commandName);
+    private Outcome buildAndExecuteCommand(CommandTokenizer tokenizer, W worker) throws Exception {
+        RegisteredCommand<W> registered = commandFactory.findCommand(tokenizer.getLine(),
+                tokenizer.getTokenStart(0), tokenizer.getTokenEnd(0)); // Found without copying the name
+        if (registered == null) {
+            logger.log(Level.DEBUG, "Line is not a registered command: {}", tokenizer.getLine());
+            return Outcome.UNHANDLED;
+        }
+
+        CommandArguments arguments = registered.parseArguments(tokenizer); // Copied before running, commands may nest
+        if (arguments == null) {
+            // Reject invalid arguments before the command runs
+            logger.log(Level.DEBUG, "Invalid arguments for command: {}", registered.getName());
+            worker.getMessagesManager().sendMessage(registered.getHelpMessage());
+            return Outcome.EXECUTED;
+        }
+
+        Command<W> userCommand = registered.create();
         if (userCommand != null) {
+            CommandExecutor executor = executorOf(registered.getExecution());
+            if (executor != null) {
+                offload(userCommand, arguments, worker, executor); // Ran on the pool, the lane keeps the order
+                return Outcome.OFFLOADED;
+            }
+
             // Log successful execution of the command
             logger.log(Level.INFO, "Command executed successfully: {}",
                     userCommand.getClass().getSimpleName());
-            userCommand.execute(commandParameters, worker);
-            return true;
+            userCommand.execute(arguments, worker);
+            return Outcome.EXECUTED;
         }
 
         // Log if the command could not be built or was invalid
-        logger.log(Level.DEBUG, "Failed to build or execute command: {}", commandName);
-        return false;
+        logger.log(Level.DEBUG, "Failed to build or execute command: {}", tokenizer.getLine());
+        return Outcome.UNHANDLED;
     }
 
     /**
-     * Extracts command parameters from the command line components.
+     * Returns the pool running the commands of an execution.
      *
-     * @param array the command line components
-     * @return an array of command parameters
+     * @param execution where the command runs
+     * @return the pool, or {@code null} if the command runs inline
      */
-    private static String[] getCommandParameters(String[] array) {
-        if (array.length <= 1) {
-            // Return an empty array if no parameters are provided
-            return new String[0];
+    private CommandExecutor executorOf(CommandExecution execution) {
+        return switch (execution) {
+            case BLOCKING -> blockingExecutor;
+            case CPU_BOUND -> cpuExecutor;
+            case INLINE -> null;
+        };
+    }
+
+    /**
+     * Runs a command on a pool and holds the later lines of its worker until it completes. If the pool is
+     * saturated, the command waits for a free slot while reading the connection is paused.
+     *
+     * @param command the command to run
+     * @param arguments the arguments of the command
+     * @param worker the worker executing the command
+     * @param executor the pool running the command
+     */
+    private void offload(Command<W> command, CommandArguments arguments, W worker, CommandExecutor executor) {
+        Lane lane = laneOf(worker);
+        synchronized (lane) {
+            lane.busy = true; // Later lines of the worker wait for the command
+        }
+
+        Runnable task = () -> {
+            executeInBatch(command, arguments, worker);
+            resume(lane, worker); // Process the lines received meanwhile, in order
+        };
+        if (!executor.execute(task)) {
+            synchronized (lane) {
+                if (executor.isShutdown()) {
+                    discard(lane, worker); // The command will never run, nor resume the lane
+                } else {
+                    pauseReading(lane, worker); // Backpressure: held back until the pool has room
+                }
+            }
         }
-        return Arrays.copyOfRange(array, 1, array.length);
     }
+
+    /**
+     * Pauses reading the connection of a worker until its lane drains. Called with the lane held.
+     * <p>
+     * A held back command may already have been submitted, run and drained the lane by the time the caller takes
+     * the lane, so reading is only paused while the lane is still busy, otherwise nothing would resume it.
+     *
+     * @param lane the lane of the worker
+     * @param worker the worker
+     */
+    private void pauseReading(Lane lane, W worker) {
+        if (lane.busy && !lane.readingPaused && !lane.closed) {
+            lane.readingPaused = true;
+            worker.getMessagesManager().pauseReading();
+        }
+    }
+
+    /**
+     * Frees the lane of a worker whose offloaded command was discarded by a shut down pool, dropping the lines
+     * queued behind it and resuming reading the connection. Called with the lane held.
+     *
+     * @param lane the lane of the worker
+     * @param worker the worker
+     */
+    private void discard(Lane lane, W worker) {
+        if (!lane.pending.isEmpty()) {
+            logger.log(Level.DEBUG, "Command pools shut down, discarding {} queued lines of {}",
+                    lane.pending.size(), worker.getClientAddress());
+            lane.pending.clear();
+        }
+        lane.busy = false; // Lines are processed right away again
+        if (lane.readingPaused) {
+            lane.readingPaused = false;
+            worker.getMessagesManager().resumeReading();
+        }
+    }
+
+    /**
+     * Returns the lane of a worker, creating it the first time the worker offloads a command. The lane is
+     * discarded when the connection is closed.
+     *
+     * @param worker the worker
+     * @return the lane of the worker
+     */
+    private Lane laneOf(W worker) {
+        Lane lane = lanes.get(worker);
+        if (lane != null) {
+            return lane;
+        }
+
+        Lane created = new Lane();
+        lane = lanes.putIfAbsent(worker, created);
+        if (lane != null) {
+            return lane;
+        }
+        worker.addCloseListener(() -> close(worker, created)); // Run now if the connection is already closed
+        return created;
+    }
+
+    /**
+     * Discards the lane of a closed connection and the lines still queued in it.
+     *
+     * @param worker the worker whose connection was closed
+     * @param lane the lane of the worker
+     */
+    private void close(W worker, Lane lane) {
+        lanes.remove(worker, lane);
+        synchronized (lane) {
+            lane.closed = true;
+            lane.pending.clear();
+        }
+    }
+
+    /**
+     * Executes an offloaded command inside a batch of the worker's {@link MessagesManager}.
+     *
+     * @param command the command to run
+     * @param arguments the arguments of the command
+     * @param worker the worker executing the command
+     */
+    private void executeInBatch(Command<W> command, CommandArguments arguments, W worker) {
+        MessagesManager messagesManager = worker.getMessagesManager();
+        messagesManager.beginBatch(); // Coalesce the command output into a single write
+        try {
+            logger.log(Level.INFO, "Command executed successfully: {}", command.getClass().getSimpleName());
+            command.execute(arguments, worker);
+        } catch (Exception e) {
+            logger.log(Level.ERROR, "Error processing command: {}. Exception: ",
+                    command.getClass().getSimpleName(), e);
+        } finally {
+            messagesManager.endBatch(); // Write the command output
+        }
+    }
+
+    /**
+     * Processes, in order, the lines a worker sent while its offloaded command ran, until none is left or one of
+     * them is offloaded in turn, which then resumes the lane when it completes.
+     *
+     * @param lane the lane of the worker
+     * @param worker the worker
+     */
+    private void resume(Lane lane, W worker) {
+        while (true) {
+            PendingLine pending;
+            synchronized (lane) {
+                pending = lane.closed ? null : lane.pending.poll();
+                if (pending == null) {
+                    lane.busy = false; // Lines are processed right away again
+                    if (lane.readingPaused) {
+                        lane.readingPaused = false;
+                        worker.getMessagesManager().resumeReading(); // The lane has drained
+                    }
+                    return;
+                }
+            }
+
+            Outcome outcome = process(pending.line(), worker);
+            if (outcome == Outcome.OFFLOADED) {
+                return; // The new command resumes the lane
+            }
+            if (outcome == Outcome.UNHANDLED) {
+                pending.unhandled().accept(pending.line());
+            }
+        }
+    }
+
+    /**
+     * Ordered lane of a worker: whether one of its commands runs on a pool and the lines received meanwhile.
+     * Guarded by itself.
+     */
+    private static final class Lane {
+        private final ArrayDeque<PendingLine> pending = new ArrayDeque<>(); // Lines waiting for the command
+        private boolean busy; // Whether a command of the worker runs on a pool or its lines are being resumed
+        private boolean readingPaused; // Whether reading the connection is paused until the lane drains
+        private boolean closed; // Whether the connection of the worker was closed
+    }
+
+    /**
+     * Line queued behind an offloaded command.
+     *
+     * @param line the line received from the client
+     * @param unhandled the action run with the line if it is not a command
+     */
+    private record PendingLine(String line, Consumer<String> unhandled) {}
 }